@@ -0,0 +1,83 @@
+package graphlib;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Point-to-point queries on random geometric (road-like) graphs: early-exit Dijkstra
+ * against {@link BidirectionalAStar} and {@link LandmarkAStar} with 16 landmarks. The <code>settled</code> counter reports settled
+ * nodes per second; divided by the op rate it is the settled nodes per query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AStarBenchmark
+{
+    @Param({"100000", "1000000"})
+    public int edges;
+
+    private FrozenGraph graph;
+    private DijkstraSearch dijkstra;
+    private BidirectionalAStar astar;
+    private LandmarkAStar alt;
+    private SplittableRandom random;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Work
+    {
+        public long settled;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        graph = GraphGenerators.geometric(edges, 42).freeze();
+        dijkstra = new DijkstraSearch(graph);
+        astar = new BidirectionalAStar(graph);
+        alt = new LandmarkAStar(Landmarks.build(graph, 16));
+        random = new SplittableRandom(7);
+    }
+
+    @Benchmark
+    public double dijkstra(Work work)
+    {
+        int target = random.nextInt(graph.getNumNodes());
+        dijkstra.run(random.nextInt(graph.getNumNodes()), target);
+        work.settled += dijkstra.getSettledCount();
+        return dijkstra.getDistance(target);
+    }
+
+    @Benchmark
+    public double bidirectionalAStar(Work work)
+    {
+        double distance = astar.distance(random.nextInt(graph.getNumNodes()), random.nextInt(graph.getNumNodes()));
+        work.settled += astar.getSettledCount();
+        return distance;
+    }
+
+    @Benchmark
+    public double landmarkAStar(Work work)
+    {
+        double distance = alt.distance(random.nextInt(graph.getNumNodes()), random.nextInt(graph.getNumNodes()));
+        work.settled += alt.getSettledCount();
+        return distance;
+    }
+}
@@ -0,0 +1,96 @@
+package graphlib;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The adjacency kept by {@link Node}: building a graph, a scan of every edge through
+ * <code>getNeighbors</code> and <code>getWeight</code>, random <code>hasEdge</code> lookups
+ * and <code>freeze</code>. Run with <code>-prof gc</code>; <code>gc.alloc.rate.norm</code>
+ * of <code>build</code> is the bytes allocated per graph, an upper bound of its footprint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AdjacencyBenchmark
+{
+    private static final int LOOKUPS = 1 << 20;
+
+    @Param({"GRID", "RMAT", "GEOMETRIC"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"1000000"})
+    public int edges;
+
+    private Graph graph;
+    private Node[] from;
+    private Node[] to;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        graph = shape.generate(edges, 42);
+        Node[] nodes = graph.getAllNodes().toArray(new Node[0]);
+        SplittableRandom random = new SplittableRandom(42);
+        from = new Node[LOOKUPS];
+        to = new Node[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++)
+        {
+            from[i] = nodes[random.nextInt(nodes.length)];
+            to[i] = nodes[random.nextInt(nodes.length)];
+        }
+    }
+
+    @Benchmark
+    public Graph build()
+    {
+        return shape.generate(edges, 42);
+    }
+
+    @Benchmark
+    public double weightScan()
+    {
+        double sum = 0;
+        for (Node node : graph.getAllNodes())
+        {
+            for (Node neighbor : node.getNeighbors())
+            {
+                sum += node.getWeight(neighbor);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int hasEdge()
+    {
+        int found = 0;
+        for (int i = 0; i < LOOKUPS; i++)
+        {
+            if (from[i].hasEdge(to[i])) found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public FrozenGraph freeze()
+    {
+        return graph.freeze();
+    }
+}
@@ -0,0 +1,93 @@
+package graphlib;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link AllPairsShortestPaths} against one {@link Graph#dijkstra} per node, on sparse
+ * graphs (per-source Dijkstra) and complete ones (blocked Floyd-Warshall). Run with
+ * increasing <code>threads</code> to see how it scales with cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class AllPairsBenchmark
+{
+    @Param({"RMAT", "GEOMETRIC", "COMPLETE"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"100000", "2000000"})
+    public int edges;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    private Graph graph;
+    private FrozenGraph frozen;
+    private ForkJoinPool pool;
+    private Path spill;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        graph = shape.generate(edges, 42);
+        frozen = graph.freeze();
+        pool = new ForkJoinPool(threads);
+        spill = Files.createTempFile("distances", ".bin");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        pool.shutdown();
+        Files.deleteIfExists(spill);
+    }
+
+    @Benchmark
+    public DistanceMatrix compute()
+    {
+        return AllPairsShortestPaths.compute(frozen, pool, false);
+    }
+
+    @Benchmark
+    public DistanceMatrix computeFloat()
+    {
+        return AllPairsShortestPaths.compute(frozen, pool, true);
+    }
+
+    @Benchmark
+    public DistanceMatrix computeToFile() throws IOException
+    {
+        return AllPairsShortestPaths.computeToFile(frozen, pool, true, spill);
+    }
+
+    @Benchmark
+    public void graphDijkstra(Blackhole bh)
+    {
+        for (Node node : graph.getAllNodes())
+        {
+            bh.consume(graph.dijkstra(node.getName()));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package graphlib;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parallel union-find {@link ConnectedComponents} against the sequential
+ * {@link FrozenGraph#getNumComponents} on generated undirected graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ComponentsBenchmark
+{
+    @Param({"RMAT", "GEOMETRIC"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"10000000", "100000000"})
+    public int edges;
+
+    @Param({"1", "4", "16"})
+    public int threads;
+
+    private FrozenGraph graph;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        graph = shape.generate(edges, 42).freeze();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int sequential()
+    {
+        return graph.getNumComponents();
+    }
+
+    @Benchmark
+    public int unionFind()
+    {
+        return ConnectedComponents.compute(graph, true, pool).getNumComponents();
+    }
+}
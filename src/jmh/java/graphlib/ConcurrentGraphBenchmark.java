@@ -0,0 +1,125 @@
+package graphlib;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link ConcurrentGraph} with writers adding random edges while readers take
+ * snapshots and read the neighbours of random nodes, against writers alone. Each group
+ * method is reported separately, so the cost readers put on writers shows up directly.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ConcurrentGraphBenchmark
+{
+    @Param({"100000"})
+    public int nodes;
+
+    private ConcurrentGraph graph;
+    private String[] names;
+
+    @State(Scope.Thread)
+    public static class Random
+    {
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            random = new SplittableRandom(Thread.currentThread().getId());
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp()
+    {
+        graph = new ConcurrentGraph();
+        names = new String[nodes];
+        for (int i = 0; i < nodes; i++)
+        {
+            names[i] = "n" + i;
+            graph.getOrCreateNode(names[i]);
+        }
+    }
+
+    private void write(Random r)
+    {
+        graph.addUnweightedUndirectedEdge(names[r.random.nextInt(nodes)], names[r.random.nextInt(nodes)]);
+    }
+
+    private long read(Random r)
+    {
+        try (ConcurrentGraph.Snapshot snapshot = graph.snapshot())
+        {
+            long sum = 0;
+            for (int k = 0; k < 16; k++)
+            {
+                int u = r.random.nextInt(snapshot.getNumNodes());
+                for (int i = 0; i < snapshot.getDegree(u); i++)
+                {
+                    sum += snapshot.getTarget(u, i);
+                }
+            }
+            return sum;
+        }
+    }
+
+    @Benchmark
+    @Group("writers")
+    @GroupThreads(4)
+    public void writeOnly(Random r)
+    {
+        write(r);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public void mixedWrite(Random r)
+    {
+        write(r);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public long mixedRead(Random r)
+    {
+        return read(r);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public void readMostlyWrite(Random r)
+    {
+        write(r);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(3)
+    public long readMostlyRead(Random r)
+    {
+        return read(r);
+    }
+}
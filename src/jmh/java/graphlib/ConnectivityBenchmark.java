@@ -0,0 +1,87 @@
+package graphlib;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Two million random undirected edge inserts into a graph of 200K nodes, with a component
+ * count and a <code>connected</code> query every <code>queryInterval</code> inserts:
+ * answered by {@link Graph#trackConnectivity} or by recomputing from scratch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class ConnectivityBenchmark
+{
+    private static final int NODES = 200000;
+    private static final int INSERTS = 2000000;
+
+    @Param({"10000", "100000"})
+    public int queryInterval;
+
+    private Graph graph;
+    private Node[] nodes;
+
+    @Setup(Level.Invocation)
+    public void setUp()
+    {
+        graph = new Graph();
+        nodes = new Node[NODES];
+        for (int i = 0; i < NODES; i++)
+        {
+            nodes[i] = graph.getOrCreateNode(String.valueOf(i));
+        }
+    }
+
+    private long run()
+    {
+        SplittableRandom random = new SplittableRandom(42);
+        long answers = 0;
+        for (int i = 1; i <= INSERTS; i++)
+        {
+            nodes[random.nextInt(NODES)].addUnweightedUndirectedEdge(nodes[random.nextInt(NODES)]);
+            if (i % queryInterval == 0)
+            {
+                if (graph.isTrackingConnectivity())
+                {
+                    answers += graph.getNumWeakComponents();
+                    if (graph.connected("0", "1")) answers++;
+                }
+                else
+                {
+                    answers += graph.getNumComponents();
+                }
+            }
+        }
+        return answers;
+    }
+
+    @Benchmark
+    public long tracked()
+    {
+        graph.trackConnectivity();
+        return run();
+    }
+
+    @Benchmark
+    public long recompute()
+    {
+        return run();
+    }
+}
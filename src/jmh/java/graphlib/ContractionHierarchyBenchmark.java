@@ -0,0 +1,83 @@
+package graphlib;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Point-to-point queries on random geometric graphs answered by a
+ * {@link ContractionHierarchy}, next to the same queries with early-exit Dijkstra.
+ * The hierarchy is built once per trial; {@link #build} measures the preprocessing itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ContractionHierarchyBenchmark
+{
+    @Param({"100000", "1000000"})
+    public int edges;
+
+    private FrozenGraph graph;
+    private DijkstraSearch dijkstra;
+    private ContractionHierarchy.Query query;
+    private SplittableRandom random;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Work
+    {
+        public long settled;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        graph = GraphGenerators.geometric(edges, 42).freeze();
+        dijkstra = new DijkstraSearch(graph);
+        query = ContractionHierarchy.build(graph).newQuery();
+        random = new SplittableRandom(7);
+    }
+
+    @Benchmark
+    public double dijkstra(Work work)
+    {
+        int target = random.nextInt(graph.getNumNodes());
+        dijkstra.run(random.nextInt(graph.getNumNodes()), target);
+        work.settled += dijkstra.getSettledCount();
+        return dijkstra.getDistance(target);
+    }
+
+    @Benchmark
+    public double contractionHierarchy(Work work)
+    {
+        double distance = query.distance(random.nextInt(graph.getNumNodes()), random.nextInt(graph.getNumNodes()));
+        work.settled += query.getSettledCount();
+        return distance;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public ContractionHierarchy build()
+    {
+        return ContractionHierarchy.build(graph);
+    }
+}
@@ -0,0 +1,73 @@
+package graphlib;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link DeltaStepping} against the sequential {@link DijkstraSearch} from one source.
+ * Run with increasing <code>threads</code> to see how it scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DeltaSteppingBenchmark
+{
+    @Param({"GEOMETRIC", "RMAT"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"2000000", "20000000"})
+    public int edges;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private DijkstraSearch dijkstra;
+    private DeltaStepping deltaStepping;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        FrozenGraph graph = shape.generate(edges, 42).freeze();
+        pool = new ForkJoinPool(threads);
+        dijkstra = new DijkstraSearch(graph);
+        deltaStepping = new DeltaStepping(graph, pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double dijkstra()
+    {
+        dijkstra.run(0);
+        return dijkstra.getDistance(1);
+    }
+
+    @Benchmark
+    public double deltaStepping()
+    {
+        deltaStepping.run(0);
+        return deltaStepping.getDistance(1);
+    }
+}
@@ -0,0 +1,104 @@
+package graphlib;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Point-to-point and single-source shortest paths: the boxed {@link Graph#dijkstra}
+ * against the indexed-heap {@link DijkstraSearch} on {@link FrozenGraph}.
+ *
+ * Runs in sample mode so the JSON output has the latency percentiles; add
+ * <code>-prof gc</code> to the JMH arguments to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DijkstraBenchmark
+{
+    @Param({"scotland", "geometric-100000", "geometric-1000000"})
+    public String input;
+
+    private Graph graph;
+    private FrozenGraph frozen;
+    private DijkstraSearch search;
+    private String[] names;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        if (input.equals("scotland"))
+        {
+            graph = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt"));
+        }
+        else
+        {
+            graph = GraphGenerators.geometric(Integer.parseInt(input.substring(input.indexOf('-') + 1)), 42);
+        }
+        frozen = graph.freeze();
+        search = new DijkstraSearch(frozen);
+        names = new String[frozen.getNumNodes()];
+        for (int i = 0; i < names.length; i++)
+        {
+            names[i] = frozen.getName(i);
+        }
+        random = new SplittableRandom(7);
+    }
+
+    private String randomName()
+    {
+        return names[random.nextInt(names.length)];
+    }
+
+    @Benchmark
+    public Object graphDijkstra()
+    {
+        return graph.dijkstra(randomName());
+    }
+
+    @Benchmark
+    public Object frozenDijkstra()
+    {
+        return frozen.dijkstra(randomName());
+    }
+
+    @Benchmark
+    public double reusedSearch()
+    {
+        int source = random.nextInt(names.length);
+        search.run(source);
+        return search.getDistance(source);
+    }
+
+    @Benchmark
+    public Object graphShortestPath()
+    {
+        return graph.shortestPath(randomName(), randomName());
+    }
+
+    @Benchmark
+    public double reusedSearchPointToPoint()
+    {
+        int target = random.nextInt(names.length);
+        search.run(random.nextInt(names.length), target);
+        return search.getDistance(target);
+    }
+}
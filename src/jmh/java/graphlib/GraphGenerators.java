@@ -0,0 +1,233 @@
+package graphlib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic graph generators for the benchmarks.
+ *
+ * Every generator takes a target number of undirected edges and a seed, so the same
+ * parameters always produce the same graph. Node names are the decimal ids 0..n-1.
+ */
+public class GraphGenerators
+{
+    public enum Shape
+    {
+        /** 4-neighbour square lattice, unweighted. Large diameter. */
+        GRID,
+        /** R-MAT (a=0.57, b=0.19, c=0.19) power-law graph, unweighted. Small diameter, skewed degrees. */
+        RMAT,
+        /** Random geometric graph in the unit square, weighted by distance. Road-network like. */
+        GEOMETRIC,
+        /** Complete graph with random weights. */
+        COMPLETE;
+
+        public Graph generate(int edges, long seed)
+        {
+            switch (this)
+            {
+                case GRID:
+                    int side = Math.max(2, (int) Math.sqrt(edges / 2.0));
+                    return grid(side, side);
+                case RMAT:
+                    return rmat(edges, 8, seed);
+                case GEOMETRIC:
+                    return geometric(edges, seed);
+                case COMPLETE:
+                    return complete((int) Math.ceil((1 + Math.sqrt(1 + 8.0 * edges)) / 2), seed);
+                default:
+                    throw new IllegalStateException(name());
+            }
+        }
+    }
+
+    private static Node[] createNodes(Graph graph, int n)
+    {
+        Node[] nodes = new Node[n];
+        for (int i = 0; i < n; i++)
+        {
+            nodes[i] = graph.getOrCreateNode(String.valueOf(i));
+        }
+        return nodes;
+    }
+
+    public static Graph grid(int rows, int cols)
+    {
+        Graph graph = new Graph();
+        Node[] nodes = createNodes(graph, rows * cols);
+        for (int i = 0; i < rows; i++)
+        {
+            for (int j = 0; j < cols; j++)
+            {
+                Node node = nodes[i * cols + j];
+                if (j + 1 < cols) node.addUnweightedUndirectedEdge(nodes[i * cols + j + 1]);
+                if (i + 1 < rows) node.addUnweightedUndirectedEdge(nodes[(i + 1) * cols + j]);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * R-MAT graph with about <code>edges</code> undirected edges and
+     * <code>edges / edgeFactor</code> nodes (rounded up to a power of two).
+     */
+    public static Graph rmat(int edges, int edgeFactor, long seed)
+    {
+        int scale = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(1, edges / edgeFactor - 1)));
+        int n = 1 << scale;
+        SplittableRandom random = new SplittableRandom(seed);
+        Graph graph = new Graph();
+        Node[] nodes = createNodes(graph, n);
+        for (int k = 0; k < edges; k++)
+        {
+            int u = 0;
+            int v = 0;
+            for (int bit = 0; bit < scale; bit++)
+            {
+                double r = random.nextDouble();
+                if (r < 0.57)
+                {
+                    // top-left quadrant
+                }
+                else if (r < 0.76)
+                {
+                    v |= 1 << bit;
+                }
+                else if (r < 0.95)
+                {
+                    u |= 1 << bit;
+                }
+                else
+                {
+                    u |= 1 << bit;
+                    v |= 1 << bit;
+                }
+            }
+            if (u != v)
+            {
+                nodes[u].addUnweightedUndirectedEdge(nodes[v]);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Random geometric graph: about <code>edges / 3</code> points in the unit square,
+     * each connected to the points within a radius chosen for an average degree of six.
+     * Weights are Euclidean distances scaled by 1000, and the node coordinates are set
+     * on the graph at the same scale.
+     */
+    public static Graph geometric(int edges, long seed)
+    {
+        int n = Math.max(2, edges / 3);
+        double radius = Math.sqrt(6.0 / (Math.PI * n));
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        int cells = Math.max(1, (int) (1.0 / radius));
+        List<List<Integer>> buckets = new ArrayList<>(cells * cells);
+        for (int i = 0; i < cells * cells; i++)
+        {
+            buckets.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++)
+        {
+            xs[i] = random.nextDouble();
+            ys[i] = random.nextDouble();
+            buckets.get(cell(ys[i], cells) * cells + cell(xs[i], cells)).add(i);
+        }
+
+        Graph graph = new Graph();
+        Node[] nodes = createNodes(graph, n);
+        for (int i = 0; i < n; i++)
+        {
+            graph.setCoordinates(nodes[i].getName(), xs[i] * 1000, ys[i] * 1000);
+        }
+        for (int i = 0; i < n; i++)
+        {
+            int cx = cell(xs[i], cells);
+            int cy = cell(ys[i], cells);
+            for (int dy = -1; dy <= 1; dy++)
+            {
+                for (int dx = -1; dx <= 1; dx++)
+                {
+                    int x = cx + dx;
+                    int y = cy + dy;
+                    if (x < 0 || y < 0 || x >= cells || y >= cells) continue;
+                    for (int j : buckets.get(y * cells + x))
+                    {
+                        // each pair is considered from its lower id only
+                        if (j <= i) continue;
+                        double d = Math.hypot(xs[i] - xs[j], ys[i] - ys[j]);
+                        if (d <= radius)
+                        {
+                            nodes[i].addUndirectedEdge(nodes[j], d * 1000);
+                        }
+                    }
+                }
+            }
+        }
+        return graph;
+    }
+
+    private static int cell(double coordinate, int cells)
+    {
+        return Math.min(cells - 1, (int) (coordinate * cells));
+    }
+
+    public static Graph complete(int n, long seed)
+    {
+        SplittableRandom random = new SplittableRandom(seed);
+        Graph graph = new Graph();
+        Node[] nodes = createNodes(graph, n);
+        for (int i = 0; i < n; i++)
+        {
+            for (int j = i + 1; j < n; j++)
+            {
+                nodes[i].addUndirectedEdge(nodes[j], 1 + random.nextInt(100));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Random directed acyclic graph: <code>edges</code> directed edges between
+     * <code>edges / 2</code> nodes, each from a random node to a random later one, so the
+     * node ids are a topological order.
+     */
+    public static Graph dag(int edges, long seed)
+    {
+        int n = Math.max(2, edges / 2);
+        SplittableRandom random = new SplittableRandom(seed);
+        Graph graph = new Graph();
+        Node[] nodes = createNodes(graph, n);
+        for (int k = 0; k < edges; k++)
+        {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(n - 1 - u);
+            nodes[u].addUnweightedDirectedEdge(nodes[v]);
+        }
+        return graph;
+    }
+
+    /**
+     * A random 0/1 matrix in the {@link Graph#readMatrix} format where each cell is land
+     * with the given probability.
+     */
+    public static String islandFile(int rows, int cols, double landProbability, long seed)
+    {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder sb = new StringBuilder((rows + 1) * (cols + 1));
+        sb.append(rows).append(' ').append(cols).append('\n');
+        for (int i = 0; i < rows; i++)
+        {
+            for (int j = 0; j < cols; j++)
+            {
+                sb.append(random.nextDouble() < landProbability ? '1' : '0');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
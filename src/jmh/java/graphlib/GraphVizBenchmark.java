@@ -0,0 +1,111 @@
+package graphlib;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * GraphViz export of weighted graphs: the <code>to*GraphViz</code> methods against
+ * {@link GraphVizWriter} streaming into a byte counter. The <code>bytes</code> counter,
+ * divided by the time per operation, gives the bytes per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class GraphVizBenchmark
+{
+    @Param({"100000", "1000000"})
+    public int edges;
+
+    private Graph graph;
+    private FrozenGraph frozen;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Bytes
+    {
+        public long bytes;
+    }
+
+    private static class CountingOutputStream extends OutputStream
+    {
+        long count;
+
+        public void write(int b)
+        {
+            count++;
+        }
+
+        public void write(byte[] b, int off, int len)
+        {
+            count += len;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        graph = GraphGenerators.Shape.GEOMETRIC.generate(edges, 42);
+        frozen = graph.freeze();
+    }
+
+    @Benchmark
+    public String toDirectedWeightedGraphViz(Bytes bytes)
+    {
+        String document = graph.toDirectedWeightedGraphViz();
+        bytes.bytes += document.length();
+        return document;
+    }
+
+    @Benchmark
+    public String toUndirectedWeightedGraphViz(Bytes bytes)
+    {
+        String document = graph.toUndirectedWeightedGraphViz();
+        bytes.bytes += document.length();
+        return document;
+    }
+
+    @Benchmark
+    public long directedWriter(Bytes bytes) throws IOException
+    {
+        CountingOutputStream out = new CountingOutputStream();
+        long written = new GraphVizWriter(true, true).writeUtf8(graph, out);
+        bytes.bytes += out.count;
+        return written;
+    }
+
+    @Benchmark
+    public long undirectedWriter(Bytes bytes) throws IOException
+    {
+        CountingOutputStream out = new CountingOutputStream();
+        long written = new GraphVizWriter(false, true).writeUtf8(graph, out);
+        bytes.bytes += out.count;
+        return written;
+    }
+
+    @Benchmark
+    public long undirectedFrozenWriter(Bytes bytes) throws IOException
+    {
+        CountingOutputStream out = new CountingOutputStream();
+        long written = new GraphVizWriter(false, true).writeUtf8(frozen, out);
+        bytes.bytes += out.count;
+        return written;
+    }
+}
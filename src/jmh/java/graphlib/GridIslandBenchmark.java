@@ -0,0 +1,85 @@
+package graphlib;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading and labeling random island masks as a {@link BitGrid}, at sizes the node-per-cell
+ * graph of {@link IslandBenchmark} cannot reach, and scanning the same files row by row
+ * with {@link IslandScanner}. Labeling runs on a pool of <code>threads</code> threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class GridIslandBenchmark
+{
+    @Param({"1000", "2000", "20000"})
+    public int side;
+
+    @Param({"0.4", "0.6"})
+    public double land;
+
+    @Param({"1", "4", "16", "32"})
+    public int threads;
+
+    private byte[] file;
+    private BitGrid grid;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        file = GraphGenerators.islandFile(side, side, land, 42).getBytes(StandardCharsets.US_ASCII);
+        grid = BitGrid.read(new ByteArrayInputStream(file));
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public BitGrid read()
+    {
+        return BitGrid.read(new ByteArrayInputStream(file));
+    }
+
+    @Benchmark
+    public long getLargestIslandSize()
+    {
+        return GridIslands.label(grid, pool, false).getLargestIslandSize();
+    }
+
+    @Benchmark
+    public int cellLabels()
+    {
+        return GridIslands.label(grid, pool, true).getIsland(side / 2, side / 2);
+    }
+
+    @Benchmark
+    public long scan()
+    {
+        return IslandScanner.scan(new ByteArrayInputStream(file), null).getLargestIslandSize();
+    }
+}
@@ -0,0 +1,58 @@
+package graphlib;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading and labeling random island masks through {@link Graph#readIslandFile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class IslandBenchmark
+{
+    @Param({"100", "1000", "2000"})
+    public int side;
+
+    @Param({"0.4", "0.6"})
+    public double land;
+
+    private byte[] file;
+    private Graph graph;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        file = GraphGenerators.islandFile(side, side, land, 42).getBytes(StandardCharsets.US_ASCII);
+        graph = Graph.readIslandFile(new ByteArrayInputStream(file));
+    }
+
+    @Benchmark
+    public Graph readIslandFile()
+    {
+        return Graph.readIslandFile(new ByteArrayInputStream(file));
+    }
+
+    @Benchmark
+    public int getLargestIslandSize()
+    {
+        return graph.getLargestIslandSize();
+    }
+}
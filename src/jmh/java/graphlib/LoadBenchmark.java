@@ -0,0 +1,118 @@
+package graphlib;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load throughput of {@link Graph#readUndirectedWeightedGraph} (byte-level
+ * {@link EdgeListReader}) against the previous {@link Scanner} based loader.
+ *
+ * The <code>bytes</code> and <code>edges</code> counters are reported per second,
+ * so they read directly as bytes/s and edges/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LoadBenchmark
+{
+    @Param({"10000", "1000000"})
+    public int edges;
+
+    private byte[] file;
+    private int lines;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput
+    {
+        public long bytes;
+        public long edges;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        Graph graph = GraphGenerators.geometric(edges, 42);
+        StringBuilder sb = new StringBuilder();
+        for (Node node : graph.getAllNodes())
+        {
+            for (Node neighbor : node.getNeighbors())
+            {
+                if (node.getName().compareTo(neighbor.getName()) < 0)
+                {
+                    sb.append(node.getName()).append(' ').append(neighbor.getName()).append(' ')
+                      .append(Math.round(node.getWeight(neighbor) * 10) / 10.0).append('\n');
+                    lines++;
+                }
+            }
+        }
+        file = sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public Graph edgeListReader(Throughput throughput)
+    {
+        Graph graph = Graph.readUndirectedWeightedGraph(new ByteArrayInputStream(file));
+        throughput.bytes += file.length;
+        throughput.edges += lines;
+        return graph;
+    }
+
+    @Benchmark
+    public Graph scanner(Throughput throughput)
+    {
+        Graph graph = new Graph();
+        Scanner scanner = new Scanner(new ByteArrayInputStream(file));
+        while (scanner.hasNext())
+        {
+            String nameA = scanner.next();
+            String nameB = scanner.next();
+            double weight = scanner.nextDouble();
+            Node nodeA = graph.getOrCreateNode(nameA);
+            Node nodeB = graph.getOrCreateNode(nameB);
+            nodeA.addUndirectedEdge(nodeB, weight);
+        }
+        scanner.close();
+        throughput.bytes += file.length;
+        throughput.edges += lines;
+        return graph;
+    }
+
+    /**
+     * Tokenizing and number parsing alone, without building a graph.
+     */
+    @Benchmark
+    public double tokenizeOnly(Throughput throughput)
+    {
+        EdgeListReader reader = new EdgeListReader(new ByteArrayInputStream(file));
+        double sum = 0;
+        while (reader.hasNext())
+        {
+            reader.next();
+            reader.next();
+            sum += reader.nextDouble();
+        }
+        throughput.bytes += file.length;
+        throughput.edges += lines;
+        return sum;
+    }
+}
@@ -0,0 +1,92 @@
+package graphlib;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A batch of breadth-first searches from random sources: {@link MultiSourceBfs} against
+ * looping over {@link Graph#bfs} and {@link FrozenGraph#bfs}, one search per source.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MultiSourceBfsBenchmark
+{
+    @Param({"RMAT", "GRID"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"1000000"})
+    public int edges;
+
+    @Param({"64", "256"})
+    public int sources;
+
+    private Graph graph;
+    private FrozenGraph frozen;
+    private MultiSourceBfs bfs;
+    private int[] sourceIds;
+    private String[] sourceNames;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        graph = shape.generate(edges, 42);
+        frozen = graph.freeze();
+        bfs = new MultiSourceBfs(frozen);
+        SplittableRandom random = new SplittableRandom(7);
+        sourceIds = new int[sources];
+        sourceNames = new String[sources];
+        for (int i = 0; i < sources; i++)
+        {
+            sourceIds[i] = random.nextInt(frozen.getNumNodes());
+            sourceNames[i] = frozen.getName(sourceIds[i]);
+        }
+    }
+
+    @Benchmark
+    public void graphBfs(Blackhole bh)
+    {
+        for (String name : sourceNames)
+        {
+            graph.bfs(name, bh::consume);
+        }
+    }
+
+    @Benchmark
+    public void frozenBfs(Blackhole bh)
+    {
+        for (String name : sourceNames)
+        {
+            frozen.bfs(name, bh::consume);
+        }
+    }
+
+    @Benchmark
+    public void multiSource(Blackhole bh)
+    {
+        bfs.run(sourceIds, (source, node, depth) -> bh.consume(depth));
+    }
+
+    @Benchmark
+    public int[][] multiSourceDistances()
+    {
+        return bfs.distances(sourceIds);
+    }
+}
@@ -0,0 +1,78 @@
+package graphlib;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link ParallelBfs} against the sequential {@link FrozenGraph#bfs} on the same snapshot.
+ * Run with increasing <code>threads</code> to see how it scales; the search starts from the
+ * node of highest degree so it covers the main component.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ParallelBfsBenchmark
+{
+    @Param({"RMAT", "GRID"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"10000000", "50000000"})
+    public int edges;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    private FrozenGraph graph;
+    private ForkJoinPool pool;
+    private ParallelBfs bfs;
+    private int source;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        graph = shape.generate(edges, 42).freeze();
+        pool = new ForkJoinPool(threads);
+        bfs = new ParallelBfs(graph, pool);
+        for (int v = 0; v < graph.getNumNodes(); v++)
+        {
+            if (graph.getDegree(v) > graph.getDegree(source)) source = v;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void sequential(Blackhole bh)
+    {
+        graph.bfs(graph.getName(source), bh::consume);
+    }
+
+    @Benchmark
+    public int parallel()
+    {
+        bfs.run(source);
+        return bfs.getVisitedCount();
+    }
+}
@@ -0,0 +1,77 @@
+package graphlib;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Graph#invertGraph} and {@link Graph#computeReachability} used to be quadratic in
+ * the number of nodes, so they only run on the smaller sizes. Reachability now builds a
+ * {@link TransitiveClosure} over the strongly connected components. The complement is
+ * still quadratic to materialize, but {@link ComplementGraph} searches it in linear time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class QuadraticBenchmark
+{
+    @Param({"GRID", "RMAT", "GEOMETRIC", "COMPLETE"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"1000", "10000"})
+    public int edges;
+
+    private Graph graph;
+    private ComplementGraph complement;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        graph = shape.generate(edges, 42);
+        complement = new ComplementGraph(graph.freeze());
+    }
+
+    @Benchmark
+    public Graph invertGraph()
+    {
+        return graph.invertGraph();
+    }
+
+    @Benchmark
+    public int complementComponents()
+    {
+        return complement.getNumComponents();
+    }
+
+    @Benchmark
+    public int[] complementBfs()
+    {
+        return complement.distances(0);
+    }
+
+    @Benchmark
+    public FrozenGraph complementMaterialize()
+    {
+        return complement.materialize();
+    }
+
+    @Benchmark
+    public Object computeReachability()
+    {
+        return graph.computeReachability();
+    }
+}
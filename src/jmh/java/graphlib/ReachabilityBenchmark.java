@@ -0,0 +1,88 @@
+package graphlib;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ReachabilityIndex} against the materialized {@link TransitiveClosure} behind
+ * {@link Graph#computeReachability} on random DAGs: build time, size and query latency.
+ * The size of each build is reported in the <code>bytes</code> counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ReachabilityBenchmark
+{
+    @Param({"100000", "400000"})
+    public int edges;
+
+    private FrozenGraph graph;
+    private ReachabilityIndex index;
+    private TransitiveClosure closure;
+    private SplittableRandom random;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size
+    {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        graph = GraphGenerators.dag(edges, 42).freeze();
+        index = ReachabilityIndex.build(graph);
+        closure = TransitiveClosure.compute(graph);
+        random = new SplittableRandom(7);
+    }
+
+    @Benchmark
+    public boolean indexQuery()
+    {
+        return index.canReach(random.nextInt(graph.getNumNodes()), random.nextInt(graph.getNumNodes()));
+    }
+
+    @Benchmark
+    public boolean closureQuery()
+    {
+        return closure.isReachable(random.nextInt(graph.getNumNodes()), random.nextInt(graph.getNumNodes()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ReachabilityIndex buildIndex(Size size)
+    {
+        ReachabilityIndex built = ReachabilityIndex.build(graph);
+        size.bytes += built.getSizeBytes();
+        return built;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TransitiveClosure buildClosure(Size size)
+    {
+        TransitiveClosure built = TransitiveClosure.compute(graph);
+        size.bytes += built.getSizeBytes();
+        return built;
+    }
+}
@@ -0,0 +1,81 @@
+package graphlib;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Distance queries whose sources are skewed towards 200 hubs, which get 90% of the queries,
+ * answered by a {@link ShortestPathCache} of <code>entries</code> sources against
+ * {@link Graph#dijkstra} every time. The hit rate is reported in the <code>hitRate</code>
+ * counter, in percent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ShortestPathCacheBenchmark
+{
+    private static final int HUBS = 200;
+
+    @Param({"100000"})
+    public int edges;
+
+    @Param({"64", "512"})
+    public int entries;
+
+    private Graph graph;
+    private String[] names;
+    private ShortestPathCache cache;
+    private SplittableRandom random;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Stats
+    {
+        public double hitRate;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        graph = GraphGenerators.Shape.GEOMETRIC.generate(edges, 42);
+        names = graph.getAllNodes().stream().map(Node::getName).toArray(String[]::new);
+        cache = new ShortestPathCache(graph, entries * (8L * names.length + 128));
+        random = new SplittableRandom(7);
+    }
+
+    private String nextSource()
+    {
+        return names[random.nextInt(10) < 9 ? random.nextInt(HUBS) : random.nextInt(names.length)];
+    }
+
+    @Benchmark
+    public double cached(Stats stats)
+    {
+        double distance = cache.getDistance(nextSource(), names[random.nextInt(names.length)]);
+        stats.hitRate = 100 * cache.getHitRate();
+        return distance;
+    }
+
+    @Benchmark
+    public Object uncached()
+    {
+        return graph.dijkstra(nextSource()).get(graph.getOrCreateNode(names[random.nextInt(names.length)]));
+    }
+}
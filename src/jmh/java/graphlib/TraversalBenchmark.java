@@ -0,0 +1,100 @@
+package graphlib;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The linear-time {@link Graph} algorithms on generated graphs from 1K to 10M edges.
+ *
+ * <code>bfs2</code>/<code>dfs2</code> go through the <code>MyQueue</code> based
+ * <code>xfs</code>, so comparing them with <code>bfs</code>/<code>dfs</code> shows the
+ * cost of the virtual dispatch. <code>bfsWithinThreeHops</code> prunes with a
+ * {@link TraversalVisitor} instead of walking the whole component.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx16g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TraversalBenchmark
+{
+    @Param({"GRID", "RMAT", "GEOMETRIC", "COMPLETE"})
+    public GraphGenerators.Shape shape;
+
+    @Param({"1000", "100000", "10000000"})
+    public int edges;
+
+    private Graph graph;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        graph = shape.generate(edges, 42);
+    }
+
+    @Benchmark
+    public void bfs(Blackhole bh)
+    {
+        graph.bfs("0", bh::consume);
+    }
+
+    @Benchmark
+    public Node bfsWithinThreeHops(Blackhole bh)
+    {
+        return graph.bfs("0", (node, parent, depth) ->
+        {
+            bh.consume(node);
+            return depth == 3 ? TraversalControl.SKIP_SUBTREE : TraversalControl.CONTINUE;
+        });
+    }
+
+    @Benchmark
+    public void dfs(Blackhole bh)
+    {
+        graph.dfs("0", bh::consume);
+    }
+
+    @Benchmark
+    public void bfs2(Blackhole bh)
+    {
+        graph.bfs2("0", bh::consume);
+    }
+
+    @Benchmark
+    public void dfs2(Blackhole bh)
+    {
+        graph.dfs2("0", bh::consume);
+    }
+
+    @Benchmark
+    public Object dijkstra()
+    {
+        return graph.dijkstra("0");
+    }
+
+    @Benchmark
+    public int getNumComponents()
+    {
+        return graph.getNumComponents();
+    }
+
+    @Benchmark
+    public int getLargestIslandSize()
+    {
+        return graph.getLargestIslandSize();
+    }
+}
@@ -0,0 +1,164 @@
+package graphlib;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * All-pairs shortest path distances of a {@link FrozenGraph} into a {@link DistanceMatrix}.
+ *
+ * Sparse graphs run one Dijkstra per source in parallel on a fork-join pool. The sources
+ * are split into a few chunks per thread, each reusing one {@link DijkstraSearch} for all
+ * its sources and writing each row straight into the matrix. Dense graphs, with at least a
+ * quarter of all possible edges, use a blocked Floyd-Warshall instead (Venkataraman et al.,
+ * "A Blocked All-Pairs Shortest-Paths Algorithm"): for each diagonal block it updates that
+ * block, then the blocks of its row and column, then all the others in parallel, each step
+ * on 64 x 64 tiles that stay in cache. Floyd-Warshall works on a double matrix on the heap,
+ * so it is only used for up to {@value #MAX_FLOYD_WARSHALL_NODES} nodes.
+ */
+public class AllPairsShortestPaths
+{
+    static final int MAX_FLOYD_WARSHALL_NODES = 8192;
+    private static final int BLOCK = 64;
+    // Dijkstra chunks per pool thread, so that threads finishing early find more work
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private AllPairsShortestPaths()
+    {
+    }
+
+    public static DistanceMatrix compute(FrozenGraph graph)
+    {
+        return compute(graph, ForkJoinPool.commonPool(), false);
+    }
+
+    /**
+     * The distances on the heap, in <code>float</code> if <code>singlePrecision</code>.
+     */
+    public static DistanceMatrix compute(FrozenGraph graph, ForkJoinPool pool, boolean singlePrecision)
+    {
+        DistanceMatrix matrix = DistanceMatrix.allocate(graph.getNumNodes(), singlePrecision);
+        fill(graph, pool, matrix);
+        return matrix;
+    }
+
+    /**
+     * The distances written to a memory-mapped file at <code>path</code>, replacing any file
+     * there, for matrices larger than the heap. The file can be reopened with
+     * {@link DistanceMatrix#open}.
+     */
+    public static DistanceMatrix computeToFile(FrozenGraph graph, ForkJoinPool pool, boolean singlePrecision, Path path)
+        throws IOException
+    {
+        DistanceMatrix matrix = DistanceMatrix.create(path, graph.getNumNodes(), singlePrecision);
+        fill(graph, pool, matrix);
+        return matrix;
+    }
+
+    static boolean useFloydWarshall(FrozenGraph graph)
+    {
+        long n = graph.getNumNodes();
+        return n <= MAX_FLOYD_WARSHALL_NODES && graph.getNumEdges() >= n * n / 4;
+    }
+
+    private static void fill(FrozenGraph graph, ForkJoinPool pool, DistanceMatrix matrix)
+    {
+        if (useFloydWarshall(graph))
+        {
+            floydWarshall(graph, pool, matrix);
+        }
+        else
+        {
+            dijkstra(graph, pool, matrix);
+        }
+    }
+
+    static void dijkstra(FrozenGraph graph, ForkJoinPool pool, DistanceMatrix matrix)
+    {
+        int n = graph.getNumNodes();
+        int numChunks = Math.max(1, Math.min(n, pool.getParallelism() * CHUNKS_PER_THREAD));
+        // one workspace per chunk rather than per thread, dropped when the chunk is done
+        pool.submit(() -> IntStream.range(0, numChunks).parallel().forEach(chunk ->
+        {
+            DijkstraSearch search = new DijkstraSearch(graph);
+            int end = (int) ((long) n * (chunk + 1) / numChunks);
+            for (int source = (int) ((long) n * chunk / numChunks); source < end; source++)
+            {
+                search.run(source);
+                matrix.setRow(source, search.distances(), 0);
+            }
+        })).join();
+    }
+
+    static void floydWarshall(FrozenGraph graph, ForkJoinPool pool, DistanceMatrix matrix)
+    {
+        int n = graph.getNumNodes();
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        // padded to whole blocks; the padding rows and columns stay infinite
+        int size = blocks * BLOCK;
+        double[] d = new double[size * size];
+        Arrays.fill(d, Double.POSITIVE_INFINITY);
+        for (int u = 0; u < n; u++)
+        {
+            d[u * size + u] = 0.0;
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++)
+            {
+                int v = graph.getTarget(e);
+                d[u * size + v] = Math.min(d[u * size + v], graph.getWeight(e));
+            }
+        }
+
+        for (int k = 0; k < blocks; k++)
+        {
+            int kb = k;
+            updateBlock(d, size, kb, kb, kb);
+            pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(b ->
+            {
+                if (b != kb)
+                {
+                    updateBlock(d, size, kb, b, kb);
+                    updateBlock(d, size, b, kb, kb);
+                }
+            })).join();
+            pool.submit(() -> IntStream.range(0, blocks * blocks).parallel().forEach(ij ->
+            {
+                int i = ij / blocks;
+                int j = ij % blocks;
+                if (i != kb && j != kb)
+                {
+                    updateBlock(d, size, i, j, kb);
+                }
+            })).join();
+        }
+
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(u -> matrix.setRow(u, d, u * size))).join();
+    }
+
+    // relaxes block (bi, bj) through the nodes of block bk
+    private static void updateBlock(double[] d, int size, int bi, int bj, int bk)
+    {
+        int iEnd = (bi + 1) * BLOCK;
+        int jStart = bj * BLOCK;
+        int jEnd = jStart + BLOCK;
+        for (int k = bk * BLOCK; k < (bk + 1) * BLOCK; k++)
+        {
+            int kRow = k * size;
+            for (int i = bi * BLOCK; i < iEnd; i++)
+            {
+                double dik = d[i * size + k];
+                if (dik == Double.POSITIVE_INFINITY) continue;
+                int iRow = i * size;
+                for (int j = jStart; j < jEnd; j++)
+                {
+                    double through = dik + d[kRow + j];
+                    if (through < d[iRow + j])
+                    {
+                        d[iRow + j] = through;
+                    }
+                }
+            }
+        }
+    }
+}
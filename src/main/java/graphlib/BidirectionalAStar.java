@@ -0,0 +1,202 @@
+package graphlib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Point-to-point shortest paths on a graph with node coordinates, searching from both
+ * ends at once and steering each search towards the other end with a Euclidean heuristic.
+ *
+ * The heuristic is the straight-line distance times the largest factor that never
+ * overestimates an edge weight, computed once from the graph. The two searches use the
+ * average of the forward and backward potentials, which keeps both consistent, so the
+ * search can stop as soon as the sum of the two queue minima reaches the best path found.
+ *
+ * A query reuses the workspace of the previous one, so an instance is not thread-safe.
+ */
+public class BidirectionalAStar
+{
+    private final FrozenGraph graph;
+    private final FrozenGraph reverse;
+    private final double scale;
+
+    private final Side forward;
+    private final Side backward;
+    private int source;
+    private int target;
+
+    private static class Side
+    {
+        final FrozenGraph edges;
+        final double[] distance;
+        final int[] predecessor;
+        final IndexedDaryHeap heap;
+        final IntStack touched = new IntStack();
+        int settled;
+
+        Side(FrozenGraph edges)
+        {
+            this.edges = edges;
+            int numNodes = edges.getNumNodes();
+            distance = new double[numNodes];
+            predecessor = new int[numNodes];
+            heap = new IndexedDaryHeap(numNodes);
+            Arrays.fill(distance, Double.POSITIVE_INFINITY);
+            Arrays.fill(predecessor, -1);
+        }
+
+        void reset(int start)
+        {
+            while (!touched.isEmpty())
+            {
+                int node = touched.pop();
+                distance[node] = Double.POSITIVE_INFINITY;
+                predecessor[node] = -1;
+            }
+            heap.clear();
+            settled = 0;
+            distance[start] = 0.0;
+            touched.push(start);
+        }
+    }
+
+    public BidirectionalAStar(FrozenGraph graph)
+    {
+        if (!graph.hasCoordinates())
+        {
+            throw new IllegalArgumentException("Graph has no coordinates");
+        }
+        this.graph = graph;
+        this.reverse = graph.transpose();
+        double minRatio = Double.POSITIVE_INFINITY;
+        for (int node = 0; node < graph.getNumNodes(); node++)
+        {
+            if (Double.isNaN(graph.getX(node)) || Double.isNaN(graph.getY(node)))
+            {
+                throw new IllegalArgumentException("Node " + graph.getName(node) + " has no coordinates");
+            }
+            for (int e = graph.edgeStart(node); e < graph.edgeEnd(node); e++)
+            {
+                double length = euclidean(node, graph.getTarget(e));
+                if (length > 0)
+                {
+                    minRatio = Math.min(minRatio, graph.getWeight(e) / length);
+                }
+            }
+        }
+        // shrink slightly so rounding can never make the heuristic overestimate
+        this.scale = minRatio == Double.POSITIVE_INFINITY ? 0.0 : minRatio * (1 - 1e-9);
+        this.forward = new Side(graph);
+        this.backward = new Side(reverse);
+    }
+
+    /**
+     * The factor applied to straight-line distances to get a lower bound on path length.
+     */
+    public double getScale()
+    {
+        return scale;
+    }
+
+    private double euclidean(int a, int b)
+    {
+        return Math.hypot(graph.getX(a) - graph.getX(b), graph.getY(a) - graph.getY(b));
+    }
+
+    // forward potential; the backward search uses its negation
+    private double potential(int node)
+    {
+        return scale * (euclidean(node, target) - euclidean(node, source)) / 2;
+    }
+
+    public ShortestPath shortestPath(String sourceName, String targetName)
+    {
+        int s = graph.getId(sourceName);
+        int t = graph.getId(targetName);
+        int meeting = search(s, t);
+        if (meeting < 0)
+        {
+            return graph.toShortestPath(Double.POSITIVE_INFINITY, new int[0], getSettledCount());
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int node = meeting; node >= 0; node = forward.predecessor[node])
+        {
+            path.add(node);
+        }
+        Collections.reverse(path);
+        for (int node = backward.predecessor[meeting]; node >= 0; node = backward.predecessor[node])
+        {
+            path.add(node);
+        }
+        int[] ids = path.stream().mapToInt(Integer::intValue).toArray();
+        return graph.toShortestPath(forward.distance[meeting] + backward.distance[meeting], ids, getSettledCount());
+    }
+
+    /**
+     * Shortest path distance between two node ids, or {@link Double#POSITIVE_INFINITY}.
+     */
+    public double distance(int s, int t)
+    {
+        int meeting = search(s, t);
+        return meeting < 0 ? Double.POSITIVE_INFINITY : forward.distance[meeting] + backward.distance[meeting];
+    }
+
+    /**
+     * Nodes settled by both directions in the last query.
+     */
+    public int getSettledCount()
+    {
+        return forward.settled + backward.settled;
+    }
+
+    // returns the node where the best path crosses from the forward to the backward search, or -1
+    private int search(int s, int t)
+    {
+        source = s;
+        target = t;
+        forward.reset(s);
+        backward.reset(t);
+        forward.heap.insertOrDecrease(s, potential(s));
+        backward.heap.insertOrDecrease(t, -potential(t));
+        double best = s == t ? 0.0 : Double.POSITIVE_INFINITY;
+        int meeting = s == t ? s : -1;
+        while (!forward.heap.isEmpty() && !backward.heap.isEmpty())
+        {
+            if (forward.heap.peekMinKey() + backward.heap.peekMinKey() >= best)
+            {
+                break;
+            }
+            boolean isForward = forward.heap.size() <= backward.heap.size();
+            Side side = isForward ? forward : backward;
+            Side other = isForward ? backward : forward;
+            int node = side.heap.popMin();
+            side.settled++;
+            double d = side.distance[node];
+            for (int e = side.edges.edgeStart(node); e < side.edges.edgeEnd(node); e++)
+            {
+                int neighbor = side.edges.getTarget(e);
+                double newDistance = d + side.edges.getWeight(e);
+                if (newDistance < side.distance[neighbor])
+                {
+                    if (side.distance[neighbor] == Double.POSITIVE_INFINITY)
+                    {
+                        side.touched.push(neighbor);
+                    }
+                    side.distance[neighbor] = newDistance;
+                    side.predecessor[neighbor] = node;
+                    double p = potential(neighbor);
+                    side.heap.insertOrDecrease(neighbor, newDistance + (isForward ? p : -p));
+                    double through = newDistance + other.distance[neighbor];
+                    if (through < best)
+                    {
+                        best = through;
+                        meeting = neighbor;
+                    }
+                }
+            }
+        }
+        return meeting;
+    }
+}
@@ -0,0 +1,189 @@
+package graphlib;
+
+import java.io.InputStream;
+import java.util.InputMismatchException;
+
+/**
+ * A 0/1 land mask packed one bit per cell, 64 cells to a <code>long</code>, for the island
+ * files read by {@link Graph#readIslandFile}. Each row starts on a new word, so a row can
+ * be scanned a word at a time; see {@link GridIslands} for labeling the islands.
+ */
+public class BitGrid
+{
+    private final int rows;
+    private final int cols;
+    private final int wordsPerRow;
+    private final long[] bits;
+
+    public BitGrid(int rows, int cols)
+    {
+        if (rows < 0 || cols < 0)
+        {
+            throw new IllegalArgumentException("Negative grid size " + rows + " x " + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.wordsPerRow = (cols + 63) >>> 6;
+        long words = (long) rows * wordsPerRow;
+        if (words > Integer.MAX_VALUE - 8)
+        {
+            throw new IllegalArgumentException("Grid of " + rows + " x " + cols + " is too large");
+        }
+        this.bits = new long[(int) words];
+    }
+
+    /**
+     * Reads the format of {@link Graph#readMatrix}: the number of rows and columns, then
+     * one token of <code>cols</code> digits per row, where '1' is land.
+     */
+    public static BitGrid read(InputStream in)
+    {
+        EdgeListReader reader = new EdgeListReader(in);
+        int rows = reader.nextInt();
+        int cols = reader.nextInt();
+        BitGrid grid = new BitGrid(rows, cols);
+        for (int i = 0; i < rows; i++)
+        {
+            grid.readRow(reader, i);
+        }
+        reader.close();
+        return grid;
+    }
+
+    // packs the next token of the reader into the given row
+    void readRow(EdgeListReader reader, int row)
+    {
+        reader.next();
+        if (reader.tokenLength() < cols)
+        {
+            throw new InputMismatchException("Row " + row + " has fewer than " + cols + " cells");
+        }
+        int base = row * wordsPerRow;
+        for (int w = 0; w < wordsPerRow; w++)
+        {
+            long word = 0;
+            int end = Math.min(cols, (w + 1) << 6);
+            for (int j = w << 6; j < end; j++)
+            {
+                if (reader.tokenByte(j) == '1') word |= 1L << j;
+            }
+            bits[base + w] = word;
+        }
+    }
+
+    public static BitGrid fromMatrix(int[][] matrix)
+    {
+        BitGrid grid = new BitGrid(matrix.length, matrix.length == 0 ? 0 : matrix[0].length);
+        for (int i = 0; i < grid.rows; i++)
+        {
+            for (int j = 0; j < grid.cols; j++)
+            {
+                if (matrix[i][j] == 1) grid.set(i, j, true);
+            }
+        }
+        return grid;
+    }
+
+    public int getRows()
+    {
+        return rows;
+    }
+
+    public int getCols()
+    {
+        return cols;
+    }
+
+    public boolean get(int row, int col)
+    {
+        return (bits[row * wordsPerRow + (col >>> 6)] & (1L << col)) != 0;
+    }
+
+    public void set(int row, int col, boolean land)
+    {
+        int index = row * wordsPerRow + (col >>> 6);
+        if (land)
+        {
+            bits[index] |= 1L << col;
+        }
+        else
+        {
+            bits[index] &= ~(1L << col);
+        }
+    }
+
+    /**
+     * The first land cell at or after <code>col</code> in the row, or <code>getCols()</code>
+     * if there is none.
+     */
+    public int nextLand(int row, int col)
+    {
+        if (col >= cols)
+        {
+            return cols;
+        }
+        int base = row * wordsPerRow;
+        int w = col >>> 6;
+        long word = bits[base + w] & (-1L << col);
+        while (word == 0)
+        {
+            if (++w == wordsPerRow)
+            {
+                return cols;
+            }
+            word = bits[base + w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * The first water cell at or after <code>col</code> in the row, or <code>getCols()</code>
+     * if there is none.
+     */
+    public int nextWater(int row, int col)
+    {
+        if (col >= cols)
+        {
+            return cols;
+        }
+        int base = row * wordsPerRow;
+        int w = col >>> 6;
+        long word = ~bits[base + w] & (-1L << col);
+        while (word == 0)
+        {
+            if (++w == wordsPerRow)
+            {
+                return cols;
+            }
+            word = ~bits[base + w];
+        }
+        // bits past the last column are never set, so they read as water
+        return Math.min(cols, (w << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    /**
+     * Fills the maximal runs of land in a row, as [starts[i], ends[i]) column ranges, and
+     * returns their number. The arrays need room for <code>getCols() / 2 + 1</code> runs.
+     */
+    int runs(int row, int[] starts, int[] ends)
+    {
+        int count = 0;
+        for (int start = nextLand(row, 0); start < cols; start = nextLand(row, ends[count - 1]))
+        {
+            starts[count] = start;
+            ends[count] = nextWater(row, start);
+            count++;
+        }
+        return count;
+    }
+
+    public long countLand()
+    {
+        long count = 0;
+        for (long word : bits)
+        {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,337 @@
+package graphlib;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazy view of the complement of a {@link FrozenGraph}, the graph {@link Graph#invertGraph}
+ * materializes: two distinct nodes are adjacent unless the original has edges between
+ * them in both directions. The complement is undirected and unweighted.
+ *
+ * Only the original adjacency is stored. Searches keep the unvisited nodes in an array;
+ * expanding a node moves every unvisited node it is not adjacent to in the original into
+ * the queue, and each node that stays behind is paid for by one original edge, so a
+ * breadth-first search or component labeling takes O(V + E) of the original graph rather
+ * than O(V^2) complement edges.
+ */
+public class ComplementGraph
+{
+    private static final int NODE_CHUNK = 1024;
+
+    private final FrozenGraph graph;
+    private final int numNodes;
+    // sorted original neighbours of u with an edge back, self loops dropped:
+    // excluded[excludedOffsets[u] .. excludedOffsets[u + 1])
+    private final int[] excludedOffsets;
+    private final int[] excluded;
+
+    public ComplementGraph(FrozenGraph graph)
+    {
+        this.graph = graph;
+        this.numNodes = graph.getNumNodes();
+        FrozenGraph reverse = graph.transpose();
+        excludedOffsets = new int[numNodes + 1];
+        IntList list = new IntList();
+        int[] stamp = new int[numNodes];
+        for (int u = 0; u < numNodes; u++)
+        {
+            for (int e = reverse.edgeStart(u); e < reverse.edgeEnd(u); e++)
+            {
+                stamp[reverse.getTarget(e)] = u + 1;
+            }
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++)
+            {
+                int v = graph.getTarget(e);
+                if (v != u && stamp[v] == u + 1)
+                {
+                    // clearing the stamp also drops duplicate edges
+                    stamp[v] = 0;
+                    list.add(v);
+                }
+            }
+            excludedOffsets[u + 1] = list.size();
+        }
+        excluded = list.toArray();
+        for (int u = 0; u < numNodes; u++)
+        {
+            Arrays.sort(excluded, excludedOffsets[u], excludedOffsets[u + 1]);
+        }
+    }
+
+    public FrozenGraph getGraph()
+    {
+        return graph;
+    }
+
+    public int getNumNodes()
+    {
+        return numNodes;
+    }
+
+    /**
+     * The number of complement edges, counting each undirected edge once in each direction
+     * as {@link FrozenGraph#getNumEdges} does.
+     */
+    public long getNumEdges()
+    {
+        return (long) numNodes * (numNodes - 1) - excluded.length;
+    }
+
+    public int getDegree(int node)
+    {
+        return numNodes - 1 - (excludedOffsets[node + 1] - excludedOffsets[node]);
+    }
+
+    public boolean hasEdge(int u, int v)
+    {
+        return u != v && Arrays.binarySearch(excluded, excludedOffsets[u], excludedOffsets[u + 1], v) < 0;
+    }
+
+    /**
+     * The complement neighbours of a node in increasing id order, generated on demand.
+     */
+    public IntStream neighbors(int node)
+    {
+        return StreamSupport.intStream(Spliterators.spliterator(new NeighborIterator(node), getDegree(node),
+            Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    private class NeighborIterator implements PrimitiveIterator.OfInt
+    {
+        private final int node;
+        private final int end;
+        private int skip;
+        private int next = -1;
+
+        NeighborIterator(int node)
+        {
+            this.node = node;
+            this.skip = excludedOffsets[node];
+            this.end = excludedOffsets[node + 1];
+            advance();
+        }
+
+        private void advance()
+        {
+            next++;
+            while (next < numNodes)
+            {
+                while (skip < end && excluded[skip] < next)
+                {
+                    skip++;
+                }
+                if (next != node && (skip == end || excluded[skip] != next))
+                {
+                    return;
+                }
+                next++;
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return next < numNodes;
+        }
+
+        @Override
+        public int nextInt()
+        {
+            if (next >= numNodes)
+            {
+                throw new NoSuchElementException();
+            }
+            int current = next;
+            advance();
+            return current;
+        }
+    }
+
+    // breadth-first search state over the nodes not yet reached
+    private class Search
+    {
+        final int[] remaining = new int[numNodes];
+        int size = numNodes;
+        final int[] queue = new int[numNodes];
+        final int[] depth = new int[numNodes];
+        final int[] stamp = new int[numNodes];
+
+        Search()
+        {
+            for (int i = 0; i < numNodes; i++)
+            {
+                remaining[i] = numNodes - 1 - i;
+            }
+        }
+
+        // reaches everything connected to source and returns how many nodes are in queue
+        int run(int source, IntNodeVisitor visitor)
+        {
+            int head = 0;
+            int tail = 0;
+            remove(source);
+            depth[source] = 0;
+            queue[tail++] = source;
+            while (head < tail)
+            {
+                int u = queue[head++];
+                if (visitor != null) visitor.visit(u);
+                for (int i = excludedOffsets[u]; i < excludedOffsets[u + 1]; i++)
+                {
+                    stamp[excluded[i]] = u + 1;
+                }
+                int kept = 0;
+                for (int i = 0; i < size; i++)
+                {
+                    int v = remaining[i];
+                    if (stamp[v] == u + 1)
+                    {
+                        remaining[kept++] = v;
+                    }
+                    else
+                    {
+                        depth[v] = depth[u] + 1;
+                        queue[tail++] = v;
+                    }
+                }
+                size = kept;
+            }
+            return tail;
+        }
+
+        private void remove(int node)
+        {
+            if (remaining[size - 1] == node)
+            {
+                // components always start from the last node, which keeps the order
+                size--;
+                return;
+            }
+            for (int i = 0; i < size; i++)
+            {
+                if (remaining[i] == node)
+                {
+                    remaining[i] = remaining[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    public void bfs(String startNodeName, IntNodeVisitor visitor)
+    {
+        new Search().run(graph.getId(startNodeName), visitor);
+    }
+
+    /**
+     * Hop distances in the complement from <code>source</code>, indexed by node id;
+     * -1 for unreachable nodes.
+     */
+    public int[] distances(int source)
+    {
+        Search search = new Search();
+        int[] distances = new int[numNodes];
+        Arrays.fill(distances, -1);
+        int count = search.run(source, null);
+        for (int i = 0; i < count; i++)
+        {
+            distances[search.queue[i]] = search.depth[search.queue[i]];
+        }
+        return distances;
+    }
+
+    /**
+     * The complement component of every node, indexed by node id and numbered from 0 in the
+     * order of their smallest node id.
+     */
+    public int[] components()
+    {
+        Search search = new Search();
+        int[] labels = new int[numNodes];
+        int label = 0;
+        // remaining is kept in decreasing order at the end, so its last node is the smallest
+        while (search.size > 0)
+        {
+            int count = search.run(search.remaining[search.size - 1], null);
+            for (int i = 0; i < count; i++)
+            {
+                labels[search.queue[i]] = label;
+            }
+            label++;
+        }
+        return labels;
+    }
+
+    public int getNumComponents()
+    {
+        int[] labels = components();
+        int count = 0;
+        for (int label : labels)
+        {
+            count = Math.max(count, label + 1);
+        }
+        return count;
+    }
+
+    /**
+     * The node ids reachable from <code>source</code> in the complement, itself included.
+     */
+    public BitSet reachableFrom(int source)
+    {
+        Search search = new Search();
+        int count = search.run(source, null);
+        BitSet reached = new BitSet(numNodes);
+        for (int i = 0; i < count; i++)
+        {
+            reached.set(search.queue[i]);
+        }
+        return reached;
+    }
+
+    public FrozenGraph materialize()
+    {
+        return materialize(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds the complement as a {@link FrozenGraph} with unit weights, filling the
+     * adjacency of each chunk of nodes in parallel on <code>pool</code>.
+     * @throws IllegalStateException if the complement has more edges than an int can index
+     */
+    public FrozenGraph materialize(ForkJoinPool pool)
+    {
+        if (getNumEdges() > Integer.MAX_VALUE - 8)
+        {
+            throw new IllegalStateException("Complement has " + getNumEdges() + " edges, too many to materialize");
+        }
+        int[] offsets = new int[numNodes + 1];
+        for (int u = 0; u < numNodes; u++)
+        {
+            offsets[u + 1] = offsets[u] + getDegree(u);
+        }
+        int[] targets = new int[offsets[numNodes]];
+        double[] weights = new double[offsets[numNodes]];
+        int chunks = (numNodes + NODE_CHUNK - 1) / NODE_CHUNK;
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c ->
+        {
+            int end = Math.min(numNodes, (c + 1) * NODE_CHUNK);
+            for (int u = c * NODE_CHUNK; u < end; u++)
+            {
+                int edge = offsets[u];
+                for (PrimitiveIterator.OfInt it = new NeighborIterator(u); it.hasNext(); )
+                {
+                    targets[edge++] = it.nextInt();
+                }
+                Arrays.fill(weights, offsets[u], edge, 1.0);
+            }
+        })).join();
+        return graph.withEdges(offsets, targets, weights);
+    }
+}
@@ -0,0 +1,484 @@
+package graphlib;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A graph that any number of threads can add nodes and edges to while others read
+ * consistent {@link Snapshot}s of it.
+ *
+ * Writers lock one of a fixed set of stripes: the stripe of the source node to add an
+ * edge, or a stripe picked by name to create a node. Each node's adjacency is a chain of
+ * versions tagged with the epoch they were written in, and the arrays behind a version are
+ * only ever appended to, so a new version shares them with the ones before it. Taking a
+ * snapshot locks every stripe just long enough to advance the epoch; a snapshot of epoch e
+ * then sees, for every node, the newest version from epoch e or earlier. Versions no open
+ * snapshot can see are dropped as nodes are written, so close snapshots when done.
+ *
+ * As with {@link Node}, adding an edge that already exists replaces its weight.
+ */
+public class ConcurrentGraph
+{
+    private static final int STRIPES = 64;
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    // above this degree a node keeps a hash index of its targets for the writers
+    private static final int INDEX_DEGREE = 8;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger numNodes = new AtomicInteger();
+    private final AtomicReferenceArray<AtomicReferenceArray<Entry>> pages =
+        new AtomicReferenceArray<>(1 << (31 - PAGE_BITS));
+
+    private volatile long epoch = 1;
+    // epochs of the open snapshots and how many are open at each, guarded by itself
+    private final TreeMap<Long, Integer> openSnapshots = new TreeMap<>();
+    private volatile long oldestSnapshot = Long.MAX_VALUE;
+
+    private static class Entry
+    {
+        final String name;
+        volatile Version head;
+        // target to position in the adjacency arrays, guarded by the node's stripe
+        IntIntHashMap index;
+
+        Entry(String name, Version head)
+        {
+            this.name = name;
+            this.head = head;
+        }
+    }
+
+    private static class Version
+    {
+        final long epoch;
+        final int[] targets;
+        final double[] weights;
+        final int size;
+        Version previous;
+
+        Version(long epoch, int[] targets, double[] weights, int size, Version previous)
+        {
+            this.epoch = epoch;
+            this.targets = targets;
+            this.weights = weights;
+            this.size = size;
+            this.previous = previous;
+        }
+    }
+
+    public ConcurrentGraph()
+    {
+        for (int i = 0; i < STRIPES; i++)
+        {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    private ReentrantLock stripe(int node)
+    {
+        return stripes[node & (STRIPES - 1)];
+    }
+
+    private Entry entry(int node)
+    {
+        return pages.get(node >>> PAGE_BITS).get(node & (PAGE_SIZE - 1));
+    }
+
+    /**
+     * Returns the id of the named node, creating it if needed. Ids are dense and given out
+     * in order of creation.
+     */
+    public int getOrCreateNode(String name)
+    {
+        Integer id = ids.get(name);
+        if (id != null)
+        {
+            return id;
+        }
+        return ids.computeIfAbsent(name, key ->
+        {
+            // the id is given out and published under a stripe, so a snapshot never sees a gap
+            ReentrantLock lock = stripes[(key.hashCode() & 0x7FFFFFFF) % STRIPES];
+            lock.lock();
+            try
+            {
+                int node = numNodes.getAndIncrement();
+                AtomicReferenceArray<Entry> page = pages.get(node >>> PAGE_BITS);
+                if (page == null)
+                {
+                    pages.compareAndSet(node >>> PAGE_BITS, null, new AtomicReferenceArray<>(PAGE_SIZE));
+                    page = pages.get(node >>> PAGE_BITS);
+                }
+                page.set(node & (PAGE_SIZE - 1), new Entry(key, new Version(epoch, new int[0], new double[0], 0, null)));
+                return node;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        });
+    }
+
+    public boolean containsNode(String name)
+    {
+        return ids.containsKey(name);
+    }
+
+    /**
+     * The number of nodes created so far.
+     */
+    public int getNumNodes()
+    {
+        return numNodes.get();
+    }
+
+    public void addDirectedEdge(String from, String to, double weight)
+    {
+        int u = getOrCreateNode(from);
+        int v = getOrCreateNode(to);
+        ReentrantLock lock = stripe(u);
+        lock.lock();
+        try
+        {
+            put(u, v, weight);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the edge in both directions; no snapshot sees only one of them.
+     */
+    public void addUndirectedEdge(String a, String b, double weight)
+    {
+        int u = getOrCreateNode(a);
+        int v = getOrCreateNode(b);
+        // lock in stripe order, so two writers cannot wait on each other
+        ReentrantLock first = stripe(Math.min(u & (STRIPES - 1), v & (STRIPES - 1)));
+        ReentrantLock second = stripe(Math.max(u & (STRIPES - 1), v & (STRIPES - 1)));
+        first.lock();
+        second.lock();
+        try
+        {
+            put(u, v, weight);
+            put(v, u, weight);
+        }
+        finally
+        {
+            second.unlock();
+            first.unlock();
+        }
+    }
+
+    public void addUnweightedDirectedEdge(String from, String to)
+    {
+        addDirectedEdge(from, to, 1.0);
+    }
+
+    public void addUnweightedUndirectedEdge(String a, String b)
+    {
+        addUndirectedEdge(a, b, 1.0);
+    }
+
+    // called with the stripe of u held
+    private void put(int u, int v, double weight)
+    {
+        Entry entry = entry(u);
+        Version old = entry.head;
+        long now = epoch;
+        int position = find(entry, old, v);
+        int[] targets = old.targets;
+        double[] weights = old.weights;
+        int size = old.size;
+        if (position >= 0)
+        {
+            if (weights[position] == weight)
+            {
+                return;
+            }
+            // earlier versions may share the arrays, so a changed weight needs a copy
+            weights = Arrays.copyOf(weights, weights.length);
+            weights[position] = weight;
+        }
+        else
+        {
+            if (size == targets.length)
+            {
+                targets = Arrays.copyOf(targets, Math.max(4, size * 2));
+                weights = Arrays.copyOf(weights, targets.length);
+            }
+            // slots past an old version's size are never read through it
+            targets[size] = v;
+            weights[size] = weight;
+            if (entry.index != null)
+            {
+                entry.index.put(v, size);
+            }
+            else if (size + 1 > INDEX_DEGREE)
+            {
+                entry.index = new IntIntHashMap(size * 2);
+                for (int i = 0; i <= size; i++)
+                {
+                    entry.index.put(targets[i], i);
+                }
+            }
+            size++;
+        }
+        // no snapshot has seen a version of the current epoch, so it can be replaced
+        Version previous = old.epoch == now ? old.previous : old;
+        long oldest = oldestSnapshot;
+        if (oldest == Long.MAX_VALUE)
+        {
+            previous = null;
+        }
+        else
+        {
+            // keep the newest version the oldest open snapshot can see, and nothing older
+            Version keep = previous;
+            while (keep != null && keep.epoch > oldest)
+            {
+                keep = keep.previous;
+            }
+            if (keep != null) keep.previous = null;
+        }
+        entry.head = new Version(now, targets, weights, size, previous);
+    }
+
+    private static int find(Entry entry, Version version, int target)
+    {
+        if (entry.index != null)
+        {
+            return entry.index.get(target);
+        }
+        for (int i = 0; i < version.size; i++)
+        {
+            if (version.targets[i] == target) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Takes a consistent snapshot of the graph as it is now. It holds every stripe for a
+     * moment, so writers pause briefly; reading it takes no locks.
+     */
+    public Snapshot snapshot()
+    {
+        for (ReentrantLock lock : stripes)
+        {
+            lock.lock();
+        }
+        try
+        {
+            long taken = epoch;
+            epoch = taken + 1;
+            synchronized (openSnapshots)
+            {
+                openSnapshots.merge(taken, 1, Integer::sum);
+                oldestSnapshot = openSnapshots.firstKey();
+            }
+            return new Snapshot(taken, numNodes.get());
+        }
+        finally
+        {
+            for (int i = STRIPES - 1; i >= 0; i--)
+            {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * A snapshot of the current graph as a {@link FrozenGraph}.
+     */
+    public FrozenGraph freeze()
+    {
+        try (Snapshot snapshot = snapshot())
+        {
+            return snapshot.freeze();
+        }
+    }
+
+    /**
+     * An immutable view of the graph at one epoch. It can be read by any number of threads.
+     */
+    public class Snapshot implements AutoCloseable
+    {
+        private final long snapshotEpoch;
+        private final int numNodes;
+        private boolean closed;
+
+        private Snapshot(long snapshotEpoch, int numNodes)
+        {
+            this.snapshotEpoch = snapshotEpoch;
+            this.numNodes = numNodes;
+        }
+
+        private Version version(int node)
+        {
+            if (node < 0 || node >= numNodes)
+            {
+                throw new IllegalArgumentException("Node " + node + " not found");
+            }
+            Version version = entry(node).head;
+            while (version.epoch > snapshotEpoch)
+            {
+                version = version.previous;
+            }
+            return version;
+        }
+
+        public long getEpoch()
+        {
+            return snapshotEpoch;
+        }
+
+        public int getNumNodes()
+        {
+            return numNodes;
+        }
+
+        public long getNumEdges()
+        {
+            long count = 0;
+            for (int u = 0; u < numNodes; u++)
+            {
+                count += version(u).size;
+            }
+            return count;
+        }
+
+        public boolean containsNode(String name)
+        {
+            Integer id = ids.get(name);
+            return id != null && id < numNodes;
+        }
+
+        /**
+         * Returns the id of the node with the given name.
+         * @throws IllegalArgumentException if the node did not exist when the snapshot was taken
+         */
+        public int getId(String name)
+        {
+            Integer id = ids.get(name);
+            if (id == null || id >= numNodes)
+            {
+                throw new IllegalArgumentException("Node " + name + " not found");
+            }
+            return id;
+        }
+
+        public String getName(int node)
+        {
+            version(node);
+            return entry(node).name;
+        }
+
+        public int getDegree(int node)
+        {
+            return version(node).size;
+        }
+
+        /**
+         * The target of the i-th edge of a node, for i in <code>[0, getDegree(node))</code>.
+         */
+        public int getTarget(int node, int i)
+        {
+            Version version = version(node);
+            if (i >= version.size)
+            {
+                throw new IndexOutOfBoundsException("Edge " + i + " of node " + node);
+            }
+            return version.targets[i];
+        }
+
+        public double getWeight(int node, int i)
+        {
+            Version version = version(node);
+            if (i >= version.size)
+            {
+                throw new IndexOutOfBoundsException("Edge " + i + " of node " + node);
+            }
+            return version.weights[i];
+        }
+
+        public void bfs(String startNodeName, IntNodeVisitor visitor)
+        {
+            int start = getId(startNodeName);
+            int[] queue = new int[numNodes];
+            boolean[] visited = new boolean[numNodes];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            visited[start] = true;
+            while (head < tail)
+            {
+                int node = queue[head++];
+                visitor.visit(node);
+                Version version = version(node);
+                for (int i = 0; i < version.size; i++)
+                {
+                    int neighbor = version.targets[i];
+                    if (!visited[neighbor])
+                    {
+                        visited[neighbor] = true;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Copies the snapshot into a {@link FrozenGraph}, for the algorithms that run on one.
+         */
+        public FrozenGraph freeze()
+        {
+            String[] names = new String[numNodes];
+            Version[] versions = new Version[numNodes];
+            int[] offsets = new int[numNodes + 1];
+            for (int u = 0; u < numNodes; u++)
+            {
+                versions[u] = version(u);
+                names[u] = entry(u).name;
+                offsets[u + 1] = offsets[u] + versions[u].size;
+            }
+            int[] targets = new int[offsets[numNodes]];
+            double[] weights = new double[offsets[numNodes]];
+            for (int u = 0; u < numNodes; u++)
+            {
+                System.arraycopy(versions[u].targets, 0, targets, offsets[u], versions[u].size);
+                System.arraycopy(versions[u].weights, 0, weights, offsets[u], versions[u].size);
+            }
+            return new FrozenGraph(names, offsets, targets, weights);
+        }
+
+        /**
+         * Lets the graph drop the versions only this snapshot could see. The snapshot must
+         * not be read afterwards.
+         */
+        @Override
+        public void close()
+        {
+            synchronized (openSnapshots)
+            {
+                if (closed)
+                {
+                    return;
+                }
+                closed = true;
+                if (openSnapshots.merge(snapshotEpoch, -1, Integer::sum) == 0)
+                {
+                    openSnapshots.remove(snapshotEpoch);
+                }
+                oldestSnapshot = openSnapshots.isEmpty() ? Long.MAX_VALUE : openSnapshots.firstKey();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package graphlib;
+
+/**
+ * Visitor for {@link ParallelBfs}. Called from several threads at once, so
+ * implementations must be thread-safe. Each reached node is visited exactly once,
+ * and every node at one depth is visited before any node at the next depth.
+ */
+public interface ConcurrentNodeVisitor
+{
+    public void visit(int node, int parent, int depth);
+}
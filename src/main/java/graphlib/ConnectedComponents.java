@@ -0,0 +1,241 @@
+package graphlib;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Connected components of a {@link FrozenGraph}, with edges taken as undirected (so for a
+ * directed graph these are the weakly connected components).
+ *
+ * Computed in parallel with a lock-free union-find: a root is only ever hooked under a
+ * smaller root with a compare-and-set, and finds halve their paths as they go. The edges
+ * are processed Afforest-style (Sutton, Ben-Nun and Barak): linking a couple of neighbours
+ * per node first usually forms the giant component already, and for a symmetric graph the
+ * remaining edges of nodes inside it can then be skipped, since each of those edges is also
+ * seen from its other end.
+ *
+ * Components are numbered from 0 in the order of their smallest node id.
+ */
+public class ConnectedComponents
+{
+    // neighbours linked per node before looking for the giant component
+    private static final int NEIGHBOR_ROUNDS = 2;
+    private static final int SAMPLES = 1024;
+
+    private final FrozenGraph graph;
+    private final int[] labels;
+    private final int[] sizes;
+    private final int largest;
+
+    private ConnectedComponents(FrozenGraph graph, int[] labels, int[] sizes)
+    {
+        this.graph = graph;
+        this.labels = labels;
+        this.sizes = sizes;
+        int best = -1;
+        for (int c = 0; c < sizes.length; c++)
+        {
+            if (best < 0 || sizes[c] > sizes[best]) best = c;
+        }
+        this.largest = best;
+    }
+
+    public static ConnectedComponents compute(FrozenGraph graph)
+    {
+        return compute(graph, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the components on <code>pool</code>. Pass <code>symmetric</code> when every
+     * edge u -&gt; v has a matching v -&gt; u, as for graphs built with the undirected add
+     * methods; that lets most of the edges in the largest component be skipped.
+     */
+    public static ConnectedComponents compute(FrozenGraph graph, boolean symmetric, ForkJoinPool pool)
+    {
+        int numNodes = graph.getNumNodes();
+        AtomicIntegerArray parent = new AtomicIntegerArray(numNodes);
+        pool.submit(() -> IntStream.range(0, numNodes).parallel().forEach(u -> parent.set(u, u))).join();
+
+        for (int round = 0; round < NEIGHBOR_ROUNDS; round++)
+        {
+            int r = round;
+            pool.submit(() -> IntStream.range(0, numNodes).parallel().forEach(u ->
+            {
+                int e = graph.edgeStart(u) + r;
+                if (e < graph.edgeEnd(u)) union(parent, u, graph.getTarget(e));
+            })).join();
+            compress(parent, pool);
+        }
+
+        int giant = symmetric ? mostFrequentRoot(parent) : -1;
+        pool.submit(() -> IntStream.range(0, numNodes).parallel().forEach(u ->
+        {
+            if (giant >= 0 && find(parent, u) == giant) return;
+            for (int e = graph.edgeStart(u) + NEIGHBOR_ROUNDS; e < graph.edgeEnd(u); e++)
+            {
+                union(parent, u, graph.getTarget(e));
+            }
+        })).join();
+        compress(parent, pool);
+
+        // every root is the smallest node of its component, so it comes before its members
+        int[] labels = new int[numNodes];
+        IntList sizes = new IntList();
+        for (int u = 0; u < numNodes; u++)
+        {
+            int root = parent.get(u);
+            if (root == u)
+            {
+                labels[u] = sizes.size();
+                sizes.add(0);
+            }
+            else
+            {
+                labels[u] = labels[root];
+            }
+            sizes.set(labels[u], sizes.get(labels[u]) + 1);
+        }
+        return new ConnectedComponents(graph, labels, sizes.toArray());
+    }
+
+    private static int find(AtomicIntegerArray parent, int x)
+    {
+        while (true)
+        {
+            int p = parent.get(x);
+            if (p == x)
+            {
+                return x;
+            }
+            int grandparent = parent.get(p);
+            if (grandparent != p)
+            {
+                // path halving; parents only ever move to smaller ids, so a lost race is harmless
+                parent.compareAndSet(x, p, grandparent);
+            }
+            x = grandparent;
+        }
+    }
+
+    private static void union(AtomicIntegerArray parent, int u, int v)
+    {
+        while (true)
+        {
+            u = find(parent, u);
+            v = find(parent, v);
+            if (u == v)
+            {
+                return;
+            }
+            if (u < v)
+            {
+                int swap = u;
+                u = v;
+                v = swap;
+            }
+            // fails if u stopped being a root meanwhile; then find again
+            if (parent.compareAndSet(u, u, v))
+            {
+                return;
+            }
+        }
+    }
+
+    private static void compress(AtomicIntegerArray parent, ForkJoinPool pool)
+    {
+        pool.submit(() -> IntStream.range(0, parent.length()).parallel()
+            .forEach(u -> parent.set(u, find(parent, u)))).join();
+    }
+
+    private static int mostFrequentRoot(AtomicIntegerArray parent)
+    {
+        int numNodes = parent.length();
+        if (numNodes == 0)
+        {
+            return -1;
+        }
+        SplittableRandom random = new SplittableRandom(numNodes);
+        int[] samples = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++)
+        {
+            samples[i] = parent.get(random.nextInt(numNodes));
+        }
+        Arrays.sort(samples);
+        int best = samples[0];
+        int bestCount = 0;
+        for (int i = 0, j; i < SAMPLES; i = j)
+        {
+            j = i + 1;
+            while (j < SAMPLES && samples[j] == samples[i])
+            {
+                j++;
+            }
+            if (j - i > bestCount)
+            {
+                best = samples[i];
+                bestCount = j - i;
+            }
+        }
+        return best;
+    }
+
+    public FrozenGraph getGraph()
+    {
+        return graph;
+    }
+
+    public int getNumComponents()
+    {
+        return sizes.length;
+    }
+
+    /**
+     * The component of a node id, in <code>[0, getNumComponents())</code>.
+     */
+    public int getComponent(int node)
+    {
+        return labels[node];
+    }
+
+    public int getComponent(String name)
+    {
+        return labels[graph.getId(name)];
+    }
+
+    public int getComponentSize(int component)
+    {
+        return sizes[component];
+    }
+
+    /**
+     * The component with the most nodes, or -1 for an empty graph.
+     */
+    public int getLargestComponent()
+    {
+        return largest;
+    }
+
+    public int getLargestComponentSize()
+    {
+        return largest < 0 ? 0 : sizes[largest];
+    }
+
+    /**
+     * A copy of the component of every node, indexed by node id.
+     */
+    public int[] getLabels()
+    {
+        return labels.clone();
+    }
+
+    /**
+     * A copy of the component sizes, indexed by component.
+     */
+    public int[] getSizes()
+    {
+        return sizes.clone();
+    }
+}
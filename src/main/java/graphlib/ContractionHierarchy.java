@@ -0,0 +1,721 @@
+package graphlib;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Contraction Hierarchies for fast point-to-point shortest paths on a {@link FrozenGraph}.
+ *
+ * Preprocessing contracts the nodes one by one in order of importance, adding a shortcut
+ * edge u -> x whenever removing v would lose the only shortest path u -> v -> x. A query
+ * then runs two small Dijkstra searches that only move up the order, from the source over
+ * forward edges and from the target over backward edges, and unpacks the shortcuts of
+ * the best meeting path back into original edges.
+ *
+ * Works for directed and undirected graphs with non-negative weights. The index can be
+ * saved with {@link #write} and loaded again for the same graph with {@link #read}.
+ */
+public class ContractionHierarchy
+{
+    private static final int MAGIC = 0x43484958;
+    private static final int VERSION = 2;
+    // witness searches give up after settling this many nodes and add the shortcut instead
+    private static final int WITNESS_SETTLE_LIMIT = 100;
+
+    private final FrozenGraph graph;
+    private final int[] rank;
+
+    // every edge, original or shortcut; a shortcut has two child edges, an original edge -1
+    private final int numEdges;
+    private final int[] edgeSource;
+    private final int[] edgeTarget;
+    private final double[] edgeWeight;
+    private final int[] edgeFirst;
+    private final int[] edgeSecond;
+
+    // edge ids by node: upward forward edges leave the node, upward backward edges enter it;
+    // the far end and weight of each are copied alongside so queries need not look them up
+    private final int[] forwardOffsets;
+    private final int[] forwardEdges;
+    private final int[] forwardEnds;
+    private final double[] forwardWeights;
+    private final int[] backwardOffsets;
+    private final int[] backwardEdges;
+    private final int[] backwardEnds;
+    private final double[] backwardWeights;
+
+    private Query defaultQuery;
+
+    private ContractionHierarchy(FrozenGraph graph, int[] rank, int numEdges, int[] edgeSource, int[] edgeTarget,
+        double[] edgeWeight, int[] edgeFirst, int[] edgeSecond)
+    {
+        this.graph = graph;
+        this.rank = rank;
+        this.numEdges = numEdges;
+        this.edgeSource = edgeSource;
+        this.edgeTarget = edgeTarget;
+        this.edgeWeight = edgeWeight;
+        this.edgeFirst = edgeFirst;
+        this.edgeSecond = edgeSecond;
+
+        int numNodes = graph.getNumNodes();
+        forwardOffsets = new int[numNodes + 1];
+        backwardOffsets = new int[numNodes + 1];
+        for (int e = 0; e < numEdges; e++)
+        {
+            if (rank[edgeTarget[e]] > rank[edgeSource[e]])
+            {
+                forwardOffsets[edgeSource[e] + 1]++;
+            }
+            else
+            {
+                backwardOffsets[edgeTarget[e] + 1]++;
+            }
+        }
+        for (int i = 0; i < numNodes; i++)
+        {
+            forwardOffsets[i + 1] += forwardOffsets[i];
+            backwardOffsets[i + 1] += backwardOffsets[i];
+        }
+        forwardEdges = new int[forwardOffsets[numNodes]];
+        forwardEnds = new int[forwardEdges.length];
+        forwardWeights = new double[forwardEdges.length];
+        backwardEdges = new int[backwardOffsets[numNodes]];
+        backwardEnds = new int[backwardEdges.length];
+        backwardWeights = new double[backwardEdges.length];
+        int[] nextForward = Arrays.copyOf(forwardOffsets, numNodes);
+        int[] nextBackward = Arrays.copyOf(backwardOffsets, numNodes);
+        for (int e = 0; e < numEdges; e++)
+        {
+            if (rank[edgeTarget[e]] > rank[edgeSource[e]])
+            {
+                int i = nextForward[edgeSource[e]]++;
+                forwardEdges[i] = e;
+                forwardEnds[i] = edgeTarget[e];
+                forwardWeights[i] = edgeWeight[e];
+            }
+            else
+            {
+                int i = nextBackward[edgeTarget[e]]++;
+                backwardEdges[i] = e;
+                backwardEnds[i] = edgeSource[e];
+                backwardWeights[i] = edgeWeight[e];
+            }
+        }
+    }
+
+    public static ContractionHierarchy build(FrozenGraph graph)
+    {
+        return build(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Preprocesses the graph. The initial node priorities, which need a witness search
+     * around every node, are computed in parallel on <code>pool</code>.
+     */
+    public static ContractionHierarchy build(FrozenGraph graph, ForkJoinPool pool)
+    {
+        Builder builder = new Builder(graph);
+        return builder.contractAll(pool);
+    }
+
+    public FrozenGraph getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * The position of the node in the contraction order; higher means more important.
+     */
+    public int getRank(int node)
+    {
+        return rank[node];
+    }
+
+    /**
+     * Number of edges in the hierarchy, original edges plus shortcuts.
+     */
+    public int getNumEdges()
+    {
+        return numEdges;
+    }
+
+    private static class Builder
+    {
+        final FrozenGraph graph;
+        final int numNodes;
+        int numEdges;
+        int[] source = new int[16];
+        int[] target = new int[16];
+        double[] weight = new double[16];
+        int[] first = new int[16];
+        int[] second = new int[16];
+        final IntList[] out;
+        final IntList[] in;
+        final int[] deletedNeighbors;
+
+        Builder(FrozenGraph graph)
+        {
+            this.graph = graph;
+            numNodes = graph.getNumNodes();
+            out = new IntList[numNodes];
+            in = new IntList[numNodes];
+            for (int i = 0; i < numNodes; i++)
+            {
+                out[i] = new IntList();
+                in[i] = new IntList();
+            }
+            deletedNeighbors = new int[numNodes];
+
+            // copy the original edges, dropping self loops and keeping the lightest of parallel edges
+            int[] edgeTo = new int[numNodes];
+            int[] stamp = new int[numNodes];
+            for (int u = 0; u < numNodes; u++)
+            {
+                for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++)
+                {
+                    int x = graph.getTarget(e);
+                    if (x == u) continue;
+                    if (stamp[x] == u + 1)
+                    {
+                        int existing = edgeTo[x];
+                        weight[existing] = Math.min(weight[existing], graph.getWeight(e));
+                        continue;
+                    }
+                    stamp[x] = u + 1;
+                    edgeTo[x] = addEdge(u, x, graph.getWeight(e), -1, -1);
+                }
+            }
+        }
+
+        int addEdge(int u, int x, double w, int a, int b)
+        {
+            if (numEdges == source.length)
+            {
+                int capacity = numEdges * 2;
+                source = Arrays.copyOf(source, capacity);
+                target = Arrays.copyOf(target, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+                first = Arrays.copyOf(first, capacity);
+                second = Arrays.copyOf(second, capacity);
+            }
+            int id = numEdges++;
+            source[id] = u;
+            target[id] = x;
+            weight[id] = w;
+            first[id] = a;
+            second[id] = b;
+            out[u].add(id);
+            in[x].add(id);
+            return id;
+        }
+
+        void addOrImproveShortcut(int u, int x, double w, int a, int b)
+        {
+            IntList edges = out[u];
+            for (int i = 0; i < edges.size(); i++)
+            {
+                int e = edges.get(i);
+                if (target[e] == x)
+                {
+                    // both ends are still uncontracted, so no shortcut refers to this edge yet
+                    if (w < weight[e])
+                    {
+                        weight[e] = w;
+                        first[e] = a;
+                        second[e] = b;
+                    }
+                    return;
+                }
+            }
+            addEdge(u, x, w, a, b);
+        }
+
+        /**
+         * Contracts v, or only counts the shortcuts contracting it would add.
+         */
+        int contract(int v, WitnessSearch witness, boolean simulate)
+        {
+            double maxOut = 0;
+            IntList outEdges = out[v];
+            for (int j = 0; j < outEdges.size(); j++)
+            {
+                maxOut = Math.max(maxOut, weight[outEdges.get(j)]);
+            }
+            int shortcuts = 0;
+            IntList inEdges = in[v];
+            for (int i = 0; i < inEdges.size(); i++)
+            {
+                int a = inEdges.get(i);
+                int u = source[a];
+                witness.run(this, u, v, weight[a] + maxOut);
+                for (int j = 0; j < outEdges.size(); j++)
+                {
+                    int b = outEdges.get(j);
+                    int x = target[b];
+                    if (x == u) continue;
+                    double w = weight[a] + weight[b];
+                    if (witness.distance[x] <= w) continue;
+                    shortcuts++;
+                    if (!simulate)
+                    {
+                        addOrImproveShortcut(u, x, w, a, b);
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        double priority(int v, WitnessSearch witness)
+        {
+            int removed = in[v].size() + out[v].size();
+            return contract(v, witness, true) - removed + deletedNeighbors[v];
+        }
+
+        ContractionHierarchy contractAll(ForkJoinPool pool)
+        {
+            double[] initial = new double[numNodes];
+            // a few chunks per thread, each with its own witness search that is dropped after
+            int numChunks = Math.max(1, Math.min(numNodes, pool.getParallelism() * 4));
+            pool.submit(() -> IntStream.range(0, numChunks).parallel().forEach(chunk ->
+            {
+                WitnessSearch chunkWitness = new WitnessSearch(numNodes);
+                int end = (int) ((long) numNodes * (chunk + 1) / numChunks);
+                for (int v = (int) ((long) numNodes * chunk / numChunks); v < end; v++)
+                {
+                    initial[v] = priority(v, chunkWitness);
+                }
+            })).join();
+
+            IndexedDaryHeap queue = new IndexedDaryHeap(numNodes);
+            for (int v = 0; v < numNodes; v++)
+            {
+                queue.insertOrDecrease(v, initial[v]);
+            }
+            WitnessSearch witness = new WitnessSearch(numNodes);
+            int[] rank = new int[numNodes];
+            int order = 0;
+            while (!queue.isEmpty())
+            {
+                int v = queue.popMin();
+                // lazy update: priorities go stale as neighbours are contracted
+                double p = priority(v, witness);
+                if (!queue.isEmpty() && p > queue.peekMinKey())
+                {
+                    queue.insertOrDecrease(v, p);
+                    continue;
+                }
+                contract(v, witness, false);
+                rank[v] = order++;
+                // unlink v, so later searches and priorities only see the remaining graph
+                for (int i = 0; i < in[v].size(); i++)
+                {
+                    int e = in[v].get(i);
+                    out[source[e]].removeSwap(e);
+                    deletedNeighbors[source[e]]++;
+                }
+                for (int i = 0; i < out[v].size(); i++)
+                {
+                    int e = out[v].get(i);
+                    in[target[e]].removeSwap(e);
+                    deletedNeighbors[target[e]]++;
+                }
+            }
+            return new ContractionHierarchy(graph, rank, numEdges, Arrays.copyOf(source, numEdges),
+                Arrays.copyOf(target, numEdges), Arrays.copyOf(weight, numEdges),
+                Arrays.copyOf(first, numEdges), Arrays.copyOf(second, numEdges));
+        }
+    }
+
+    /**
+     * A bounded Dijkstra among the uncontracted nodes that skips the node being contracted.
+     */
+    private static class WitnessSearch
+    {
+        final double[] distance;
+        final IndexedDaryHeap heap;
+        final IntStack touched = new IntStack();
+
+        WitnessSearch(int numNodes)
+        {
+            distance = new double[numNodes];
+            heap = new IndexedDaryHeap(numNodes);
+            Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        }
+
+        void run(Builder builder, int start, int excluded, double limit)
+        {
+            while (!touched.isEmpty())
+            {
+                distance[touched.pop()] = Double.POSITIVE_INFINITY;
+            }
+            heap.clear();
+            distance[start] = 0.0;
+            touched.push(start);
+            heap.insertOrDecrease(start, 0.0);
+            int settled = 0;
+            while (!heap.isEmpty() && heap.peekMinKey() <= limit && settled++ < WITNESS_SETTLE_LIMIT)
+            {
+                int u = heap.popMin();
+                IntList edges = builder.out[u];
+                for (int i = 0; i < edges.size(); i++)
+                {
+                    int e = edges.get(i);
+                    int x = builder.target[e];
+                    if (x == excluded) continue;
+                    double d = distance[u] + builder.weight[e];
+                    if (d < distance[x])
+                    {
+                        if (distance[x] == Double.POSITIVE_INFINITY) touched.push(x);
+                        distance[x] = d;
+                        heap.insertOrDecrease(x, d);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A query workspace. Queries on one instance are not thread-safe, but any number of
+     * Query objects can be used concurrently on the same hierarchy.
+     */
+    public class Query
+    {
+        private final double[] forwardDistance;
+        private final double[] backwardDistance;
+        private final int[] forwardEdge;
+        private final int[] backwardEdge;
+        private final IndexedDaryHeap forwardHeap;
+        private final IndexedDaryHeap backwardHeap;
+        private final IntStack touched = new IntStack();
+        private int settledCount;
+        private int meeting;
+
+        Query()
+        {
+            int numNodes = graph.getNumNodes();
+            forwardDistance = new double[numNodes];
+            backwardDistance = new double[numNodes];
+            forwardEdge = new int[numNodes];
+            backwardEdge = new int[numNodes];
+            forwardHeap = new IndexedDaryHeap(numNodes);
+            backwardHeap = new IndexedDaryHeap(numNodes);
+            Arrays.fill(forwardDistance, Double.POSITIVE_INFINITY);
+            Arrays.fill(backwardDistance, Double.POSITIVE_INFINITY);
+        }
+
+        private void reach(double[] distance, int[] viaEdge, IndexedDaryHeap heap, int node, double d, int edge)
+        {
+            if (forwardDistance[node] == Double.POSITIVE_INFINITY && backwardDistance[node] == Double.POSITIVE_INFINITY)
+            {
+                touched.push(node);
+            }
+            distance[node] = d;
+            viaEdge[node] = edge;
+            heap.insertOrDecrease(node, d);
+        }
+
+        // stall-on-demand: u was reached too expensively if a higher node already reached
+        // by this search gets to it more cheaply, so relaxing its edges cannot help
+        private boolean isStalled(int u, double d, double[] distance, int[] offsets, int[] ends, double[] weights)
+        {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++)
+            {
+                if (distance[ends[i]] + weights[i] < d) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Shortest path distance between two node ids, or {@link Double#POSITIVE_INFINITY}.
+         */
+        public double distance(int s, int t)
+        {
+            while (!touched.isEmpty())
+            {
+                int node = touched.pop();
+                forwardDistance[node] = Double.POSITIVE_INFINITY;
+                backwardDistance[node] = Double.POSITIVE_INFINITY;
+            }
+            forwardHeap.clear();
+            backwardHeap.clear();
+            settledCount = 0;
+            reach(forwardDistance, forwardEdge, forwardHeap, s, 0.0, -1);
+            reach(backwardDistance, backwardEdge, backwardHeap, t, 0.0, -1);
+            double best = Double.POSITIVE_INFINITY;
+            meeting = -1;
+            boolean forward = true;
+            while (true)
+            {
+                boolean forwardOpen = !forwardHeap.isEmpty() && forwardHeap.peekMinKey() < best;
+                boolean backwardOpen = !backwardHeap.isEmpty() && backwardHeap.peekMinKey() < best;
+                if (!forwardOpen && !backwardOpen) break;
+                // alternate between the directions while both can still improve the result
+                forward = forwardOpen && (!backwardOpen || !forward);
+                double[] distance = forward ? forwardDistance : backwardDistance;
+                double[] other = forward ? backwardDistance : forwardDistance;
+                int[] viaEdge = forward ? forwardEdge : backwardEdge;
+                IndexedDaryHeap heap = forward ? forwardHeap : backwardHeap;
+                int[] offsets = forward ? forwardOffsets : backwardOffsets;
+                int[] edges = forward ? forwardEdges : backwardEdges;
+                int[] ends = forward ? forwardEnds : backwardEnds;
+                double[] weights = forward ? forwardWeights : backwardWeights;
+                int[] downOffsets = forward ? backwardOffsets : forwardOffsets;
+                int[] downEnds = forward ? backwardEnds : forwardEnds;
+                double[] downWeights = forward ? backwardWeights : forwardWeights;
+
+                int u = heap.popMin();
+                settledCount++;
+                double d = distance[u];
+                if (d + other[u] < best)
+                {
+                    best = d + other[u];
+                    meeting = u;
+                }
+                if (isStalled(u, d, distance, downOffsets, downEnds, downWeights)) continue;
+                for (int i = offsets[u]; i < offsets[u + 1]; i++)
+                {
+                    int x = ends[i];
+                    double newDistance = d + weights[i];
+                    if (newDistance < distance[x])
+                    {
+                        reach(distance, viaEdge, heap, x, newDistance, edges[i]);
+                    }
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Nodes settled by both upward searches in the last query.
+         */
+        public int getSettledCount()
+        {
+            return settledCount;
+        }
+
+        public ShortestPath shortestPath(String sourceName, String targetName)
+        {
+            int s = graph.getId(sourceName);
+            int t = graph.getId(targetName);
+            double distance = distance(s, t);
+            if (meeting < 0)
+            {
+                return graph.toShortestPath(distance, new int[0], settledCount);
+            }
+            // the edges of the meeting path in order, before unpacking
+            IntList upward = new IntList();
+            for (int node = meeting; node != s; node = edgeSource[forwardEdge[node]])
+            {
+                upward.add(forwardEdge[node]);
+            }
+            IntList path = new IntList();
+            path.add(s);
+            for (int i = upward.size() - 1; i >= 0; i--)
+            {
+                unpack(upward.get(i), path);
+            }
+            for (int node = meeting; node != t; node = edgeTarget[backwardEdge[node]])
+            {
+                unpack(backwardEdge[node], path);
+            }
+            return graph.toShortestPath(distance, path.toArray(), settledCount);
+        }
+    }
+
+    // appends the original nodes after the source of edge e, up to its target
+    private void unpack(int e, IntList path)
+    {
+        IntStack stack = new IntStack();
+        stack.push(e);
+        while (!stack.isEmpty())
+        {
+            int edge = stack.pop();
+            if (edgeFirst[edge] < 0)
+            {
+                path.add(edgeTarget[edge]);
+            }
+            else
+            {
+                stack.push(edgeSecond[edge]);
+                stack.push(edgeFirst[edge]);
+            }
+        }
+    }
+
+    /**
+     * Creates a workspace for queries, one per thread.
+     */
+    public Query newQuery()
+    {
+        return new Query();
+    }
+
+    /**
+     * Shortest path between two nodes using a shared workspace; not thread-safe,
+     * use {@link #newQuery} per thread for concurrent queries.
+     */
+    public ShortestPath shortestPath(String sourceName, String targetName)
+    {
+        if (defaultQuery == null) defaultQuery = newQuery();
+        return defaultQuery.shortestPath(sourceName, targetName);
+    }
+
+    public double distance(int s, int t)
+    {
+        if (defaultQuery == null) defaultQuery = newQuery();
+        return defaultQuery.distance(s, t);
+    }
+
+    /**
+     * Writes the node order and all edges. The graph itself is not included, only its size
+     * and a checksum that {@link #read} compares with the graph it is given.
+     */
+    public void write(OutputStream out) throws IOException
+    {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(rank.length);
+        data.writeInt(graph.getNumEdges());
+        data.writeLong(checksum(graph));
+        data.writeInt(numEdges);
+        for (int r : rank)
+        {
+            data.writeInt(r);
+        }
+        for (int e = 0; e < numEdges; e++)
+        {
+            data.writeInt(edgeSource[e]);
+            data.writeInt(edgeTarget[e]);
+            data.writeDouble(edgeWeight[e]);
+            data.writeInt(edgeFirst[e]);
+            data.writeInt(edgeSecond[e]);
+        }
+        data.flush();
+    }
+
+    // CRC32C of the names (by hash), edges and weights of the graph in id order
+    private static long checksum(FrozenGraph graph)
+    {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 13);
+        for (int node = 0; node < graph.getNumNodes(); node++)
+        {
+            if (buffer.remaining() < 8)
+            {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+            buffer.putInt(graph.getName(node).hashCode());
+            buffer.putInt(graph.getDegree(node));
+            for (int e = graph.edgeStart(node); e < graph.edgeEnd(node); e++)
+            {
+                if (buffer.remaining() < 12)
+                {
+                    buffer.flip();
+                    crc.update(buffer);
+                    buffer.clear();
+                }
+                buffer.putInt(graph.getTarget(e));
+                buffer.putLong(Double.doubleToLongBits(graph.getWeight(e)));
+            }
+        }
+        buffer.flip();
+        crc.update(buffer);
+        return crc.getValue();
+    }
+
+    /**
+     * Reads a hierarchy written by {@link #write} for the same graph.
+     * @throws IOException if the input is not a hierarchy, was written for another graph,
+     * or is truncated or corrupt
+     */
+    public static ContractionHierarchy read(InputStream in, FrozenGraph graph) throws IOException
+    {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC)
+        {
+            throw new IOException("Not a contraction hierarchy");
+        }
+        int version = data.readInt();
+        if (version != VERSION)
+        {
+            throw new IOException("Unsupported contraction hierarchy version " + version);
+        }
+        int numNodes = data.readInt();
+        int numGraphEdges = data.readInt();
+        long checksum = data.readLong();
+        if (numNodes != graph.getNumNodes() || numGraphEdges != graph.getNumEdges())
+        {
+            throw new IOException("Hierarchy has " + numNodes + " nodes and " + numGraphEdges
+                + " edges but the graph has " + graph.getNumNodes() + " and " + graph.getNumEdges());
+        }
+        if (checksum != checksum(graph))
+        {
+            throw new IOException("Hierarchy was built for a different graph");
+        }
+        int numEdges = data.readInt();
+        if (numEdges < 0)
+        {
+            throw new IOException("Corrupt contraction hierarchy: " + numEdges + " edges");
+        }
+        int[] rank = new int[numNodes];
+        boolean[] ranked = new boolean[numNodes];
+        for (int i = 0; i < numNodes; i++)
+        {
+            rank[i] = data.readInt();
+            if (rank[i] < 0 || rank[i] >= numNodes || ranked[rank[i]])
+            {
+                throw new IOException("Corrupt contraction hierarchy: rank " + rank[i] + " of node " + i);
+            }
+            ranked[rank[i]] = true;
+        }
+        int[] source = new int[numEdges];
+        int[] target = new int[numEdges];
+        double[] weight = new double[numEdges];
+        int[] first = new int[numEdges];
+        int[] second = new int[numEdges];
+        for (int e = 0; e < numEdges; e++)
+        {
+            source[e] = data.readInt();
+            target[e] = data.readInt();
+            weight[e] = data.readDouble();
+            first[e] = data.readInt();
+            second[e] = data.readInt();
+            boolean original = first[e] == -1 && second[e] == -1;
+            boolean shortcut = first[e] >= 0 && first[e] < numEdges && second[e] >= 0 && second[e] < numEdges;
+            if (source[e] < 0 || source[e] >= numNodes || target[e] < 0 || target[e] >= numNodes
+                || !(weight[e] >= 0) || !(original || shortcut))
+            {
+                throw new IOException("Corrupt contraction hierarchy: edge " + e);
+            }
+        }
+        // a shortcut u -> x joins u -> v and v -> x for a v ranked below both, so unpacking
+        // always moves down the ranks and ends
+        for (int e = 0; e < numEdges; e++)
+        {
+            if (first[e] < 0) continue;
+            int a = first[e];
+            int b = second[e];
+            int middle = target[a];
+            if (source[a] != source[e] || source[b] != middle || target[b] != target[e]
+                || rank[middle] >= rank[source[e]] || rank[middle] >= rank[target[e]])
+            {
+                throw new IOException("Corrupt contraction hierarchy: shortcut " + e);
+            }
+        }
+        return new ContractionHierarchy(graph, rank, numEdges, source, target, weight, first, second);
+    }
+}
@@ -0,0 +1,321 @@
+package graphlib;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel single-source shortest paths on a {@link FrozenGraph} by delta-stepping (Meyer
+ * and Sanders, "Delta-stepping: a parallelizable shortest path algorithm").
+ *
+ * Tentative distances are kept in buckets of width delta. The lowest non-empty bucket is
+ * emptied in phases: each phase relaxes the light edges (weight at most delta) of all its
+ * nodes in parallel, which may put nodes back into the same bucket. Once it stays empty,
+ * the heavy edges of every node it held are relaxed in one more parallel step; those can
+ * only reach later buckets. Distances are lowered with a compare-and-set, and since the
+ * bit patterns of non-negative doubles order like longs, they are compared as longs.
+ *
+ * Every final distance is the smallest <code>d(u) + w(u, v)</code> over final d(u), the
+ * same sums {@link DijkstraSearch} takes the minimum of, so the distances are identical to
+ * {@link FrozenGraph#dijkstra}. The default delta is the largest edge weight divided by the
+ * average degree. The workspace is reused between runs, so an instance is not thread-safe.
+ */
+public class DeltaStepping
+{
+    // frontier nodes per task; smaller frontiers are relaxed on the calling thread
+    private static final int CHUNK = 1024;
+    private static final int MAX_BUCKETS = 1 << 20;
+
+    private final FrozenGraph graph;
+    private final ForkJoinPool pool;
+    private final double delta;
+    private final int numNodes;
+
+    private final AtomicLongArray distance;
+    // tentative distances only span a window of this many buckets, so they are kept in a ring
+    private final IntList[] buckets;
+    // the phase in which a node was last relaxed, and the bucket it was last settled in
+    private final int[] relaxedIn;
+    private final long[] settledIn;
+    private IntList[] improved = new IntList[0];
+    private int[] frontier;
+    private final IntList settled = new IntList();
+    private int phase;
+    private int source = -1;
+    private int numPhases;
+
+    public DeltaStepping(FrozenGraph graph)
+    {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public DeltaStepping(FrozenGraph graph, ForkJoinPool pool)
+    {
+        this(graph, pool, defaultDelta(graph));
+    }
+
+    /**
+     * @throws IllegalArgumentException if delta is not positive, is so small that the
+     * bucket window would exceed 2^20 buckets, or an edge weight is negative
+     */
+    public DeltaStepping(FrozenGraph graph, ForkJoinPool pool, double delta)
+    {
+        if (!(delta > 0))
+        {
+            throw new IllegalArgumentException("Delta must be positive: " + delta);
+        }
+        double maxWeight = maxWeight(graph);
+        double window = Math.ceil(maxWeight / delta) + 2;
+        if (window > MAX_BUCKETS)
+        {
+            throw new IllegalArgumentException("Delta " + delta + " is too small for a largest weight of " + maxWeight);
+        }
+        this.graph = graph;
+        this.pool = pool;
+        this.delta = delta;
+        numNodes = graph.getNumNodes();
+        distance = new AtomicLongArray(numNodes);
+        buckets = new IntList[(int) window];
+        for (int i = 0; i < buckets.length; i++)
+        {
+            buckets[i] = new IntList();
+        }
+        relaxedIn = new int[numNodes];
+        settledIn = new long[numNodes];
+        frontier = new int[16];
+    }
+
+    private static double maxWeight(FrozenGraph graph)
+    {
+        double max = 0.0;
+        for (int e = 0; e < graph.getNumEdges(); e++)
+        {
+            double weight = graph.getWeight(e);
+            if (weight < 0)
+            {
+                throw new IllegalArgumentException("Negative edge weight " + weight);
+            }
+            max = Math.max(max, weight);
+        }
+        return max;
+    }
+
+    /**
+     * The largest edge weight divided by the average degree, or 1 for a graph without
+     * positive weights.
+     */
+    static double defaultDelta(FrozenGraph graph)
+    {
+        double maxWeight = maxWeight(graph);
+        if (maxWeight == 0.0)
+        {
+            return 1.0;
+        }
+        double averageDegree = graph.getNumNodes() == 0 ? 1.0 : (double) graph.getNumEdges() / graph.getNumNodes();
+        return maxWeight / Math.max(1.0, averageDegree);
+    }
+
+    public FrozenGraph getGraph()
+    {
+        return graph;
+    }
+
+    public double getDelta()
+    {
+        return delta;
+    }
+
+    private long bucketOf(double d)
+    {
+        return (long) (d / delta);
+    }
+
+    private IntList bucket(long b)
+    {
+        return buckets[(int) (b % buckets.length)];
+    }
+
+    /**
+     * Computes shortest path distances from <code>source</code> to every reachable node.
+     */
+    public void run(int source)
+    {
+        if (source < 0 || source >= numNodes)
+        {
+            throw new IllegalArgumentException("Node " + source + " not found");
+        }
+        long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        pool.submit(() -> IntStream.range(0, (numNodes + CHUNK - 1) / CHUNK).parallel().forEach(c ->
+        {
+            for (int v = c * CHUNK; v < Math.min(numNodes, (c + 1) * CHUNK); v++)
+            {
+                distance.set(v, infinity);
+            }
+        })).join();
+        Arrays.fill(relaxedIn, 0);
+        Arrays.fill(settledIn, -1);
+        for (IntList bucket : buckets)
+        {
+            bucket.clear();
+        }
+        phase = 0;
+        numPhases = 0;
+        this.source = source;
+
+        distance.set(source, Double.doubleToRawLongBits(0.0));
+        bucket(0).add(source);
+        int pending = 1;
+        long current = 0;
+        while (pending > 0)
+        {
+            while (bucket(current).size() == 0)
+            {
+                current++;
+            }
+            settled.clear();
+            // light phases until the bucket stays empty
+            while (bucket(current).size() > 0)
+            {
+                IntList bucket = bucket(current);
+                pending -= bucket.size();
+                phase++;
+                numPhases++;
+                int size = 0;
+                for (int i = 0; i < bucket.size(); i++)
+                {
+                    int u = bucket.get(i);
+                    // skip stale entries and repeats; a node is only ever in the current bucket or later
+                    if (relaxedIn[u] == phase || bucketOf(getDistance(u)) != current) continue;
+                    relaxedIn[u] = phase;
+                    if (size == frontier.length)
+                    {
+                        frontier = Arrays.copyOf(frontier, size * 2);
+                    }
+                    frontier[size++] = u;
+                    if (settledIn[u] != current)
+                    {
+                        settledIn[u] = current;
+                        settled.add(u);
+                    }
+                }
+                bucket.clear();
+                pending += relax(frontier, size, true);
+            }
+            // heavy edges of everything settled in this bucket
+            int size = settled.size();
+            if (frontier.length < size)
+            {
+                frontier = new int[size];
+            }
+            settled.copyInto(frontier, 0);
+            pending += relax(frontier, size, false);
+        }
+    }
+
+    public void run(String sourceName)
+    {
+        run(graph.getId(sourceName));
+    }
+
+    // relaxes the light or heavy edges of the nodes and files the ones that improved;
+    // returns how many bucket entries were added
+    private int relax(int[] nodes, int size, boolean light)
+    {
+        int numChunks = (size + CHUNK - 1) / CHUNK;
+        if (improved.length < numChunks)
+        {
+            IntList[] grown = Arrays.copyOf(improved, numChunks);
+            for (int c = improved.length; c < numChunks; c++)
+            {
+                grown[c] = new IntList();
+            }
+            improved = grown;
+        }
+        if (numChunks == 1)
+        {
+            relaxChunk(nodes, 0, size, light, improved[0]);
+        }
+        else if (numChunks > 1)
+        {
+            IntList[] out = improved;
+            pool.submit(() -> IntStream.range(0, numChunks).parallel().forEach(c ->
+                relaxChunk(nodes, c * CHUNK, Math.min(size, (c + 1) * CHUNK), light, out[c]))).join();
+        }
+        int added = 0;
+        for (int c = 0; c < numChunks; c++)
+        {
+            IntList out = improved[c];
+            for (int i = 0; i < out.size(); i++)
+            {
+                int v = out.get(i);
+                bucket(bucketOf(getDistance(v))).add(v);
+            }
+            added += out.size();
+            out.clear();
+        }
+        return added;
+    }
+
+    private void relaxChunk(int[] nodes, int from, int to, boolean light, IntList out)
+    {
+        for (int i = from; i < to; i++)
+        {
+            int u = nodes[i];
+            double d = getDistance(u);
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++)
+            {
+                double weight = graph.getWeight(e);
+                if ((weight <= delta) != light) continue;
+                int v = graph.getTarget(e);
+                long candidate = Double.doubleToRawLongBits(d + weight);
+                long old = distance.get(v);
+                while (candidate < old)
+                {
+                    if (distance.compareAndSet(v, old, candidate))
+                    {
+                        out.add(v);
+                        break;
+                    }
+                    old = distance.get(v);
+                }
+            }
+        }
+    }
+
+    public int getSource()
+    {
+        return source;
+    }
+
+    /**
+     * The distance found by the last run, or {@link Double#POSITIVE_INFINITY} if the node
+     * was not reached.
+     */
+    public double getDistance(int node)
+    {
+        return Double.longBitsToDouble(distance.get(node));
+    }
+
+    /**
+     * A copy of the distances from the last run, indexed by node id.
+     */
+    public double[] getDistances()
+    {
+        double[] distances = new double[numNodes];
+        for (int v = 0; v < numNodes; v++)
+        {
+            distances[v] = getDistance(v);
+        }
+        return distances;
+    }
+
+    /**
+     * The number of parallel light-edge phases of the last run, a measure of how much
+     * delta let the buckets share work.
+     */
+    public int getNumPhases()
+    {
+        return numPhases;
+    }
+}
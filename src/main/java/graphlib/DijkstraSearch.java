@@ -0,0 +1,163 @@
+package graphlib;
+
+import java.util.Arrays;
+
+/**
+ * A reusable Dijkstra workspace for one {@link FrozenGraph}.
+ *
+ * The distance and predecessor arrays and the {@link IndexedDaryHeap} are allocated once;
+ * each run only resets the entries the previous run touched, so repeated queries (for
+ * example one per thread in a pool) do not allocate. Not thread-safe.
+ */
+public class DijkstraSearch
+{
+    private final FrozenGraph graph;
+    private final double[] distance;
+    private final int[] predecessor;
+    private final IndexedDaryHeap heap;
+    private final IntStack touched = new IntStack();
+    private int source = -1;
+    private int settledCount;
+
+    public DijkstraSearch(FrozenGraph graph)
+    {
+        this.graph = graph;
+        int numNodes = graph.getNumNodes();
+        distance = new double[numNodes];
+        predecessor = new int[numNodes];
+        heap = new IndexedDaryHeap(numNodes);
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        Arrays.fill(predecessor, -1);
+    }
+
+    public FrozenGraph getGraph()
+    {
+        return graph;
+    }
+
+    private void reset()
+    {
+        while (!touched.isEmpty())
+        {
+            int node = touched.pop();
+            distance[node] = Double.POSITIVE_INFINITY;
+            predecessor[node] = -1;
+        }
+        heap.clear();
+        settledCount = 0;
+    }
+
+    /**
+     * Computes shortest path distances from <code>source</code> to every reachable node.
+     */
+    public void run(int source)
+    {
+        run(source, -1);
+    }
+
+    /**
+     * Runs from <code>source</code> and stops as soon as <code>target</code> is settled.
+     * A negative target searches the whole reachable graph. After an early stop only the
+     * settled nodes (see {@link #isSettled}) have final distances.
+     */
+    public void run(int source, int target)
+    {
+        reset();
+        this.source = source;
+        distance[source] = 0.0;
+        touched.push(source);
+        heap.insertOrDecrease(source, 0.0);
+        while (!heap.isEmpty())
+        {
+            int node = heap.popMin();
+            settledCount++;
+            if (node == target) break;
+            double d = distance[node];
+            for (int e = graph.edgeStart(node); e < graph.edgeEnd(node); e++)
+            {
+                int neighbor = graph.getTarget(e);
+                double newDistance = d + graph.getWeight(e);
+                if (newDistance < distance[neighbor])
+                {
+                    if (distance[neighbor] == Double.POSITIVE_INFINITY)
+                    {
+                        touched.push(neighbor);
+                    }
+                    distance[neighbor] = newDistance;
+                    predecessor[neighbor] = node;
+                    heap.insertOrDecrease(neighbor, newDistance);
+                }
+            }
+        }
+    }
+
+    public int getSource()
+    {
+        return source;
+    }
+
+    /**
+     * The distance found by the last run, or {@link Double#POSITIVE_INFINITY} if the node
+     * was not reached.
+     */
+    public double getDistance(int node)
+    {
+        return distance[node];
+    }
+
+    /**
+     * The node before <code>node</code> on its shortest path, or -1 for the source and
+     * unreached nodes.
+     */
+    public int getPredecessor(int node)
+    {
+        return predecessor[node];
+    }
+
+    public boolean isSettled(int node)
+    {
+        return distance[node] != Double.POSITIVE_INFINITY && !heap.contains(node);
+    }
+
+    public int getSettledCount()
+    {
+        return settledCount;
+    }
+
+    /**
+     * A copy of the distances from the last run, indexed by node id.
+     */
+    public double[] getDistances()
+    {
+        return distance.clone();
+    }
+
+    // the distances of the last run without a copy, valid until the next run
+    double[] distances()
+    {
+        return distance;
+    }
+
+    /**
+     * The node ids on the shortest path from the source to <code>target</code>, or an
+     * empty array if it was not reached.
+     */
+    public int[] pathTo(int target)
+    {
+        if (distance[target] == Double.POSITIVE_INFINITY)
+        {
+            return new int[0];
+        }
+        int length = 1;
+        for (int node = target; node != source; node = predecessor[node])
+        {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = target, i = length - 1; i >= 0; node = predecessor[node], i--)
+        {
+            path[i] = node;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,224 @@
+package graphlib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A dense matrix of distances between node ids, as computed by
+ * {@link AllPairsShortestPaths}, in <code>float</code> or <code>double</code> precision.
+ * Unreachable pairs hold {@link Double#POSITIVE_INFINITY}.
+ *
+ * Rows are kept in chunks of at most 2GB, either on the heap or memory-mapped from a file,
+ * so a matrix may be larger than the heap. The file is a 16 byte header, magic "DISTMATX",
+ * int numNodes and int bytes per entry, followed by the rows, all little-endian.
+ * Reads and writes of different rows may run in parallel.
+ */
+public class DistanceMatrix
+{
+    private static final byte[] MAGIC = "DISTMATX".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = 16;
+
+    private final int numNodes;
+    private final boolean singlePrecision;
+    private final boolean mapped;
+    private final int rowsPerChunk;
+    // one of the two is null
+    private final FloatBuffer[] floats;
+    private final DoubleBuffer[] doubles;
+
+    private DistanceMatrix(int numNodes, boolean singlePrecision, boolean mapped, ByteBuffer[] chunks, int rowsPerChunk)
+    {
+        this.numNodes = numNodes;
+        this.singlePrecision = singlePrecision;
+        this.mapped = mapped;
+        this.rowsPerChunk = rowsPerChunk;
+        floats = singlePrecision ? new FloatBuffer[chunks.length] : null;
+        doubles = singlePrecision ? null : new DoubleBuffer[chunks.length];
+        for (int c = 0; c < chunks.length; c++)
+        {
+            chunks[c].order(ByteOrder.LITTLE_ENDIAN);
+            if (singlePrecision)
+            {
+                floats[c] = chunks[c].asFloatBuffer();
+            }
+            else
+            {
+                doubles[c] = chunks[c].asDoubleBuffer();
+            }
+        }
+    }
+
+    private static int rowsPerChunk(int numNodes, int bytesPerEntry)
+    {
+        long rowBytes = (long) numNodes * bytesPerEntry;
+        return (int) Math.max(1, Math.min(numNodes, (Integer.MAX_VALUE - 8) / Math.max(1, rowBytes)));
+    }
+
+    private static int numChunks(int numNodes, int rowsPerChunk)
+    {
+        return (numNodes + rowsPerChunk - 1) / rowsPerChunk;
+    }
+
+    private static long chunkBytes(int numNodes, int bytesPerEntry, int rowsPerChunk, int chunk)
+    {
+        int rows = Math.min(rowsPerChunk, numNodes - chunk * rowsPerChunk);
+        return (long) rows * numNodes * bytesPerEntry;
+    }
+
+    // a matrix on the heap, to be filled row by row
+    static DistanceMatrix allocate(int numNodes, boolean singlePrecision)
+    {
+        int bytesPerEntry = singlePrecision ? 4 : 8;
+        int rowsPerChunk = rowsPerChunk(numNodes, bytesPerEntry);
+        ByteBuffer[] chunks = new ByteBuffer[numChunks(numNodes, rowsPerChunk)];
+        for (int c = 0; c < chunks.length; c++)
+        {
+            chunks[c] = ByteBuffer.allocate((int) chunkBytes(numNodes, bytesPerEntry, rowsPerChunk, c));
+        }
+        return new DistanceMatrix(numNodes, singlePrecision, false, chunks, rowsPerChunk);
+    }
+
+    // a matrix mapped from a new file at path, replacing any file there, to be filled row by row
+    static DistanceMatrix create(Path path, int numNodes, boolean singlePrecision) throws IOException
+    {
+        int bytesPerEntry = singlePrecision ? 4 : 8;
+        int rowsPerChunk = rowsPerChunk(numNodes, bytesPerEntry);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(MAGIC).putInt(numNodes).putInt(bytesPerEntry).flip();
+            while (header.hasRemaining())
+            {
+                channel.write(header);
+            }
+            return new DistanceMatrix(numNodes, singlePrecision, true,
+                map(channel, FileChannel.MapMode.READ_WRITE, numNodes, bytesPerEntry, rowsPerChunk), rowsPerChunk);
+        }
+    }
+
+    /**
+     * Memory-maps, read-only, a matrix that {@link AllPairsShortestPaths#computeToFile} wrote.
+     * @throws IOException if it is not a matrix file or is truncated
+     */
+    public static DistanceMatrix open(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            if (channel.size() < HEADER_SIZE)
+            {
+                throw new IOException(path + " is not a distance matrix file");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            int numNodes = header.getInt();
+            int bytesPerEntry = header.getInt();
+            if (!Arrays.equals(magic, MAGIC) || numNodes < 0 || (bytesPerEntry != 4 && bytesPerEntry != 8))
+            {
+                throw new IOException(path + " is not a distance matrix file");
+            }
+            if (channel.size() != HEADER_SIZE + (long) numNodes * numNodes * bytesPerEntry)
+            {
+                throw new IOException(path + " is truncated or corrupt");
+            }
+            int rowsPerChunk = rowsPerChunk(numNodes, bytesPerEntry);
+            return new DistanceMatrix(numNodes, bytesPerEntry == 4, true,
+                map(channel, FileChannel.MapMode.READ_ONLY, numNodes, bytesPerEntry, rowsPerChunk), rowsPerChunk);
+        }
+    }
+
+    private static ByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, int numNodes, int bytesPerEntry,
+        int rowsPerChunk) throws IOException
+    {
+        ByteBuffer[] chunks = new ByteBuffer[numChunks(numNodes, rowsPerChunk)];
+        long position = HEADER_SIZE;
+        for (int c = 0; c < chunks.length; c++)
+        {
+            long size = chunkBytes(numNodes, bytesPerEntry, rowsPerChunk, c);
+            // the mappings stay valid after the channel is closed
+            chunks[c] = channel.map(mode, position, size);
+            position += size;
+        }
+        return chunks;
+    }
+
+    public int getNumNodes()
+    {
+        return numNodes;
+    }
+
+    public boolean isSinglePrecision()
+    {
+        return singlePrecision;
+    }
+
+    public boolean isMapped()
+    {
+        return mapped;
+    }
+
+    public long getSizeBytes()
+    {
+        return (long) numNodes * numNodes * (singlePrecision ? 4 : 8);
+    }
+
+    /**
+     * The distance from <code>from</code> to <code>to</code>, rounded to float precision
+     * in a single precision matrix.
+     */
+    public double get(int from, int to)
+    {
+        int chunk = from / rowsPerChunk;
+        int index = (from - chunk * rowsPerChunk) * numNodes + to;
+        return singlePrecision ? floats[chunk].get(index) : doubles[chunk].get(index);
+    }
+
+    /**
+     * Copies the distances from <code>from</code> to every node into <code>row</code>.
+     */
+    public void getRow(int from, double[] row)
+    {
+        int chunk = from / rowsPerChunk;
+        int index = (from - chunk * rowsPerChunk) * numNodes;
+        if (singlePrecision)
+        {
+            FloatBuffer buffer = floats[chunk];
+            for (int j = 0; j < numNodes; j++)
+            {
+                row[j] = buffer.get(index + j);
+            }
+        }
+        else
+        {
+            doubles[chunk].get(index, row, 0, numNodes);
+        }
+    }
+
+    // copies numNodes values starting at offset into the row
+    void setRow(int from, double[] values, int offset)
+    {
+        int chunk = from / rowsPerChunk;
+        int index = (from - chunk * rowsPerChunk) * numNodes;
+        if (singlePrecision)
+        {
+            FloatBuffer buffer = floats[chunk];
+            for (int j = 0; j < numNodes; j++)
+            {
+                buffer.put(index + j, (float) values[offset + j]);
+            }
+        }
+        else
+        {
+            doubles[chunk].put(index, values, offset, numNodes);
+        }
+    }
+}
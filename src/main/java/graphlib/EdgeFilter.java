@@ -0,0 +1,9 @@
+package graphlib;
+
+/**
+ * Chooses the edges {@link GraphVizWriter} writes.
+ */
+public interface EdgeFilter
+{
+    public boolean accept(String from, String to, double weight);
+}
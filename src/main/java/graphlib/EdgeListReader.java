@@ -0,0 +1,361 @@
+package graphlib;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * A streaming, whitespace-separated tokenizer for the text formats read by {@link Graph}.
+ *
+ * It replaces {@link java.util.Scanner}: tokens are parsed straight out of a reusable byte
+ * buffer, numbers are parsed without creating Strings, and node names are interned so a
+ * String and a {@link Node} are only created the first time a name is seen.
+ * Names are decoded as UTF-8.
+ */
+public class EdgeListReader implements Closeable
+{
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // powers of ten that are exactly representable as doubles
+    private static final double[] POWERS_OF_TEN = new double[23];
+    static
+    {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+        {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final InputStream in;
+    private final ReadableByteChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer channelBuffer;
+    private int position;
+    private int limit;
+    private boolean eof;
+    private long bytesRead;
+
+    private byte[] token = new byte[64];
+    private int tokenLength;
+    private boolean tokenReady;
+
+    // open-addressing intern table from name bytes to nodes
+    private Graph internGraph;
+    private byte[][] internKeys = new byte[1024][];
+    private Node[] internNodes = new Node[1024];
+    private int internSize;
+
+    public EdgeListReader(InputStream in)
+    {
+        this.in = in;
+        this.channel = null;
+        this.channelBuffer = null;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the channel is in non-blocking mode
+     */
+    public EdgeListReader(ReadableByteChannel channel)
+    {
+        if (channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking())
+        {
+            throw new IllegalArgumentException("Channel must be in blocking mode");
+        }
+        this.in = null;
+        this.channel = channel;
+        this.channelBuffer = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     * Total number of bytes consumed from the underlying stream so far.
+     */
+    public long getBytesRead()
+    {
+        return bytesRead;
+    }
+
+    private boolean fill()
+    {
+        if (eof) return false;
+        try
+        {
+            int n;
+            if (in != null)
+            {
+                n = in.read(buffer, 0, buffer.length);
+            }
+            else
+            {
+                channelBuffer.clear();
+                // a blocking channel reads at least one byte or reaches the end of the stream
+                n = channel.read(channelBuffer);
+            }
+            if (n < 0)
+            {
+                eof = true;
+                return false;
+            }
+            position = 0;
+            limit = n;
+            bytesRead += n;
+            return true;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isWhitespace(byte b)
+    {
+        // the ASCII characters Character.isWhitespace accepts
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F);
+    }
+
+    /**
+     * Returns true if another token is available.
+     */
+    public boolean hasNext()
+    {
+        if (tokenReady) return true;
+        // skip leading whitespace
+        while (true)
+        {
+            if (position == limit && !fill()) return false;
+            if (!isWhitespace(buffer[position])) break;
+            position++;
+        }
+        tokenLength = 0;
+        while (true)
+        {
+            if (position == limit && !fill()) break;
+            byte b = buffer[position];
+            if (isWhitespace(b)) break;
+            if (tokenLength == token.length)
+            {
+                token = Arrays.copyOf(token, tokenLength * 2);
+            }
+            token[tokenLength++] = b;
+            position++;
+        }
+        tokenReady = true;
+        return true;
+    }
+
+    /**
+     * Advances to the next token, which is then available through
+     * {@link #tokenLength()} and {@link #tokenByte(int)}.
+     * @throws NoSuchElementException if the input is exhausted
+     */
+    public void next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+        tokenReady = false;
+    }
+
+    public int tokenLength()
+    {
+        return tokenLength;
+    }
+
+    public byte tokenByte(int index)
+    {
+        if (index >= tokenLength)
+        {
+            throw new InputMismatchException("Token " + tokenString() + " is shorter than " + (index + 1));
+        }
+        return token[index];
+    }
+
+    private String tokenString()
+    {
+        return new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+    }
+
+    public String nextString()
+    {
+        next();
+        return tokenString();
+    }
+
+    public int nextInt()
+    {
+        next();
+        int i = 0;
+        boolean negative = false;
+        if (tokenLength > 0 && (token[0] == '-' || token[0] == '+'))
+        {
+            negative = token[0] == '-';
+            i++;
+        }
+        if (i == tokenLength)
+        {
+            throw new InputMismatchException(tokenString());
+        }
+        // accumulate negatively so Integer.MIN_VALUE parses
+        int value = 0;
+        for (; i < tokenLength; i++)
+        {
+            int digit = token[i] - '0';
+            if (digit < 0 || digit > 9 || value < (Integer.MIN_VALUE + digit) / 10)
+            {
+                throw new InputMismatchException(tokenString());
+            }
+            value = value * 10 - digit;
+        }
+        if (!negative)
+        {
+            if (value == Integer.MIN_VALUE) throw new InputMismatchException(tokenString());
+            value = -value;
+        }
+        return value;
+    }
+
+    public double nextDouble()
+    {
+        next();
+        // fast path: [sign] digits [. digits] with at most 18 significant digits, which is
+        // exact when the mantissa fits in 53 bits and the scale is an exact power of ten
+        int i = 0;
+        boolean negative = false;
+        if (tokenLength > 0 && (token[0] == '-' || token[0] == '+'))
+        {
+            negative = token[0] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        boolean sawDigit = false;
+        boolean simple = true;
+        for (; i < tokenLength && simple; i++)
+        {
+            byte b = token[i];
+            if (b >= '0' && b <= '9')
+            {
+                mantissa = mantissa * 10 + (b - '0');
+                sawDigit = true;
+                if (mantissa != 0) digits++;
+                if (scale >= 0) scale++;
+                simple = digits <= 18;
+            }
+            else if (b == '.' && scale < 0)
+            {
+                scale = 0;
+            }
+            else
+            {
+                simple = false;
+            }
+        }
+        if (simple && sawDigit)
+        {
+            if (scale < 0) scale = 0;
+            if (mantissa < (1L << 53) && scale < POWERS_OF_TEN.length)
+            {
+                double value = mantissa / POWERS_OF_TEN[scale];
+                return negative ? -value : value;
+            }
+        }
+        try
+        {
+            return Double.parseDouble(new String(token, 0, tokenLength, StandardCharsets.ISO_8859_1));
+        }
+        catch (NumberFormatException e)
+        {
+            throw new InputMismatchException(tokenString());
+        }
+    }
+
+    /**
+     * Reads the next token as a node name and returns the matching node of
+     * <code>graph</code>, creating it if needed.
+     */
+    public Node nextNode(Graph graph)
+    {
+        next();
+        if (graph != internGraph)
+        {
+            // names are interned per graph
+            internGraph = graph;
+            Arrays.fill(internKeys, null);
+            Arrays.fill(internNodes, null);
+            internSize = 0;
+        }
+        int hash = 1;
+        for (int i = 0; i < tokenLength; i++)
+        {
+            hash = 31 * hash + token[i];
+        }
+        int mask = internKeys.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (internKeys[slot] != null)
+        {
+            if (Arrays.equals(internKeys[slot], 0, internKeys[slot].length, token, 0, tokenLength))
+            {
+                return internNodes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        Node node = graph.getOrCreateNode(tokenString());
+        internKeys[slot] = Arrays.copyOf(token, tokenLength);
+        internNodes[slot] = node;
+        if (++internSize * 2 > internKeys.length)
+        {
+            growInternTable();
+        }
+        return node;
+    }
+
+    private void growInternTable()
+    {
+        byte[][] oldKeys = internKeys;
+        Node[] oldNodes = internNodes;
+        internKeys = new byte[oldKeys.length * 2][];
+        internNodes = new Node[oldKeys.length * 2];
+        int mask = internKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            byte[] key = oldKeys[i];
+            if (key == null) continue;
+            int hash = 1;
+            for (byte b : key)
+            {
+                hash = 31 * hash + b;
+            }
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (internKeys[slot] != null)
+            {
+                slot = (slot + 1) & mask;
+            }
+            internKeys[slot] = key;
+            internNodes[slot] = oldNodes[i];
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            if (in != null) in.close();
+            if (channel != null) channel.close();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package graphlib;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of a {@link Graph} in compressed sparse row (CSR) form.
+ *
+ * Nodes are identified by dense int ids in <code>[0, getNumNodes())</code>. The
+ * outgoing edges of node <code>u</code> are the edge indices in
+ * <code>[edgeStart(u), edgeEnd(u))</code>; each edge has a target id and a weight.
+ * Undirected edges appear once in each direction, exactly as they do in {@link Node}.
+ */
+public class FrozenGraph
+{
+    private final NameTable names;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final DoubleBuffer weights;
+    private final double[] xs;
+    private final double[] ys;
+
+    FrozenGraph(String[] names, int[] offsets, int[] targets, double[] weights)
+    {
+        this(new ArrayNameTable(names), IntBuffer.wrap(offsets), IntBuffer.wrap(targets), DoubleBuffer.wrap(weights));
+    }
+
+    /**
+     * The buffers may be heap buffers or views of a memory-mapped file (see {@link GraphFile}).
+     */
+    FrozenGraph(NameTable names, IntBuffer offsets, IntBuffer targets, DoubleBuffer weights)
+    {
+        this(names, offsets, targets, weights, null, null);
+    }
+
+    private FrozenGraph(NameTable names, IntBuffer offsets, IntBuffer targets, DoubleBuffer weights,
+        double[] xs, double[] ys)
+    {
+        int numNodes = names.size();
+        if (offsets.capacity() != numNodes + 1 || targets.capacity() != weights.capacity()
+            || offsets.get(numNodes) != targets.capacity())
+        {
+            throw new IllegalArgumentException("Inconsistent CSR arrays");
+        }
+        this.names = names;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    private static class ArrayNameTable implements NameTable
+    {
+        private final String[] names;
+        private final Map<String, Integer> ids;
+
+        ArrayNameTable(String[] names)
+        {
+            this.names = names;
+            this.ids = new HashMap<>(names.length * 4 / 3 + 1);
+            for (int i = 0; i < names.length; i++)
+            {
+                ids.put(names[i], i);
+            }
+        }
+
+        public int size()
+        {
+            return names.length;
+        }
+
+        public String getName(int id)
+        {
+            return names[id];
+        }
+
+        public int getId(String name)
+        {
+            Integer id = ids.get(name);
+            return id == null ? -1 : id;
+        }
+    }
+
+    public int getNumNodes()
+    {
+        return names.size();
+    }
+
+    public int getNumEdges()
+    {
+        return targets.capacity();
+    }
+
+    public boolean containsNode(String name)
+    {
+        return names.getId(name) >= 0;
+    }
+
+    /**
+     * Returns the id of the node with the given name.
+     * @throws IllegalArgumentException if there is no such node
+     */
+    public int getId(String name)
+    {
+        int id = names.getId(name);
+        if (id < 0)
+        {
+            throw new IllegalArgumentException("Node " + name + " not found");
+        }
+        return id;
+    }
+
+    public String getName(int node)
+    {
+        return names.getName(node);
+    }
+
+    public int getDegree(int node)
+    {
+        return offsets.get(node + 1) - offsets.get(node);
+    }
+
+    public int edgeStart(int node)
+    {
+        return offsets.get(node);
+    }
+
+    public int edgeEnd(int node)
+    {
+        return offsets.get(node + 1);
+    }
+
+    public int getTarget(int edge)
+    {
+        return targets.get(edge);
+    }
+
+    public double getWeight(int edge)
+    {
+        return weights.get(edge);
+    }
+
+    /**
+     * Returns a graph sharing this graph's storage, with the given node positions
+     * (indexed by node id, NaN for nodes without a position).
+     */
+    public FrozenGraph withCoordinates(double[] xs, double[] ys)
+    {
+        if (xs.length != getNumNodes() || ys.length != getNumNodes())
+        {
+            throw new IllegalArgumentException("Need one coordinate per node");
+        }
+        return new FrozenGraph(names, offsets, targets, weights, xs.clone(), ys.clone());
+    }
+
+    public boolean hasCoordinates()
+    {
+        return xs != null;
+    }
+
+    public double getX(int node)
+    {
+        return xs == null ? Double.NaN : xs[node];
+    }
+
+    public double getY(int node)
+    {
+        return ys == null ? Double.NaN : ys[node];
+    }
+
+    /**
+     * Returns the graph with every edge reversed, sharing names and coordinates with
+     * this graph. For an undirected graph this is an equivalent copy.
+     */
+    public FrozenGraph transpose()
+    {
+        int numNodes = getNumNodes();
+        int numEdges = getNumEdges();
+        int[] reverseOffsets = new int[numNodes + 1];
+        for (int e = 0; e < numEdges; e++)
+        {
+            reverseOffsets[targets.get(e) + 1]++;
+        }
+        for (int i = 0; i < numNodes; i++)
+        {
+            reverseOffsets[i + 1] += reverseOffsets[i];
+        }
+        int[] next = Arrays.copyOf(reverseOffsets, numNodes);
+        int[] reverseTargets = new int[numEdges];
+        double[] reverseWeights = new double[numEdges];
+        for (int node = 0; node < numNodes; node++)
+        {
+            for (int e = offsets.get(node); e < offsets.get(node + 1); e++)
+            {
+                int slot = next[targets.get(e)]++;
+                reverseTargets[slot] = node;
+                reverseWeights[slot] = weights.get(e);
+            }
+        }
+        return withEdges(reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    /**
+     * A graph over the same nodes, names and coordinates with the given CSR edges.
+     */
+    FrozenGraph withEdges(int[] offsets, int[] targets, double[] weights)
+    {
+        return new FrozenGraph(names, IntBuffer.wrap(offsets), IntBuffer.wrap(targets), DoubleBuffer.wrap(weights),
+            xs, ys);
+    }
+
+    public void bfs(String startNodeName, IntNodeVisitor visitor)
+    {
+        int start = getId(startNodeName);
+        int[] queue = new int[getNumNodes()];
+        boolean[] visited = new boolean[getNumNodes()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start] = true;
+        while (head < tail)
+        {
+            int node = queue[head++];
+            visitor.visit(node);
+            for (int e = offsets.get(node); e < offsets.get(node + 1); e++)
+            {
+                int neighbor = targets.get(e);
+                if (!visited[neighbor])
+                {
+                    // mark on enqueue so each node is queued at most once
+                    visited[neighbor] = true;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    public void dfs(String startNodeName, IntNodeVisitor visitor)
+    {
+        int start = getId(startNodeName);
+        boolean[] visited = new boolean[getNumNodes()];
+        IntStack stack = new IntStack();
+        stack.push(start);
+        while (!stack.isEmpty())
+        {
+            int node = stack.pop();
+            if (visited[node])
+            {
+                // skip nodes we have already visited
+                continue;
+            }
+            visitor.visit(node);
+            visited[node] = true;
+            for (int e = offsets.get(node); e < offsets.get(node + 1); e++)
+            {
+                int neighbor = targets.get(e);
+                if (!visited[neighbor])
+                {
+                    stack.push(neighbor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Breadth-first search that the visitor can prune or stop, without touching node
+     * objects; see {@link Graph#bfs(String, TraversalVisitor)}.
+     * @return the node the visitor stopped at, or -1 if the search ran out of nodes
+     */
+    public int bfs(String startNodeName, IntTraversalVisitor visitor)
+    {
+        int start = getId(startNodeName);
+        int[] queue = new int[getNumNodes()];
+        int[] parents = new int[getNumNodes()];
+        boolean[] visited = new boolean[getNumNodes()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        parents[start] = -1;
+        visited[start] = true;
+        for (int depth = 0; head < tail; depth++)
+        {
+            for (int levelEnd = tail; head < levelEnd; )
+            {
+                int node = queue[head++];
+                TraversalControl control = visitor.visit(node, parents[node], depth);
+                if (control == TraversalControl.STOP)
+                {
+                    return node;
+                }
+                if (control == TraversalControl.SKIP_SUBTREE)
+                {
+                    continue;
+                }
+                for (int e = offsets.get(node); e < offsets.get(node + 1); e++)
+                {
+                    int neighbor = targets.get(e);
+                    if (!visited[neighbor])
+                    {
+                        visited[neighbor] = true;
+                        parents[neighbor] = node;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Depth-first search that the visitor can prune or stop, in the same order as
+     * {@link #dfs(String, IntNodeVisitor)}; see {@link Graph#dfs(String, TraversalVisitor)}.
+     * @return the node the visitor stopped at, or -1 if the search ran out of nodes
+     */
+    public int dfs(String startNodeName, IntTraversalVisitor visitor)
+    {
+        int start = getId(startNodeName);
+        boolean[] visited = new boolean[getNumNodes()];
+        // node, parent and depth of each entry, pushed in that order
+        IntStack stack = new IntStack();
+        stack.push(start);
+        stack.push(-1);
+        stack.push(0);
+        while (!stack.isEmpty())
+        {
+            int depth = stack.pop();
+            int parent = stack.pop();
+            int node = stack.pop();
+            if (visited[node])
+            {
+                continue;
+            }
+            visited[node] = true;
+            TraversalControl control = visitor.visit(node, parent, depth);
+            if (control == TraversalControl.STOP)
+            {
+                return node;
+            }
+            if (control == TraversalControl.SKIP_SUBTREE)
+            {
+                continue;
+            }
+            for (int e = offsets.get(node); e < offsets.get(node + 1); e++)
+            {
+                int neighbor = targets.get(e);
+                if (!visited[neighbor])
+                {
+                    stack.push(neighbor);
+                    stack.push(node);
+                    stack.push(depth + 1);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Single-source shortest path distances, indexed by node id.
+     * Unreachable nodes have distance {@link Double#POSITIVE_INFINITY}.
+     */
+    public double[] dijkstra(String startNodeName)
+    {
+        DijkstraSearch search = new DijkstraSearch(this);
+        search.run(getId(startNodeName));
+        return search.getDistances();
+    }
+
+    /**
+     * Shortest path between two nodes. The search stops as soon as the target is settled.
+     */
+    public ShortestPath shortestPath(String sourceName, String targetName)
+    {
+        int target = getId(targetName);
+        DijkstraSearch search = new DijkstraSearch(this);
+        search.run(getId(sourceName), target);
+        return toShortestPath(search.getDistance(target), search.pathTo(target), search.getSettledCount());
+    }
+
+    ShortestPath toShortestPath(double distance, int[] path, int settledCount)
+    {
+        List<String> names = new ArrayList<>(path.length);
+        for (int node : path)
+        {
+            names.add(getName(node));
+        }
+        return new ShortestPath(distance, names, settledCount);
+    }
+
+    public int getNumComponents()
+    {
+        int numNodes = getNumNodes();
+        boolean[] visited = new boolean[numNodes];
+        IntStack stack = new IntStack();
+        int numComponents = 0;
+        for (int i = 0; i < numNodes; i++)
+        {
+            if (visited[i]) continue;
+            numComponents++;
+            visited[i] = true;
+            stack.push(i);
+            while (!stack.isEmpty())
+            {
+                int node = stack.pop();
+                for (int e = offsets.get(node); e < offsets.get(node + 1); e++)
+                {
+                    int neighbor = targets.get(e);
+                    if (!visited[neighbor])
+                    {
+                        visited[neighbor] = true;
+                        stack.push(neighbor);
+                    }
+                }
+            }
+        }
+        return numComponents;
+    }
+
+    /**
+     * For every node id, the set of node ids reachable from it (including itself).
+     */
+    public BitSet[] computeReachability()
+    {
+        TransitiveClosure closure = TransitiveClosure.compute(this);
+        StronglyConnectedComponents components = closure.getComponents();
+        BitSet[] reachable = new BitSet[getNumNodes()];
+        for (int c = 0; c < components.getNumComponents(); c++)
+        {
+            // every member of a component reaches the same nodes; expand the set once
+            BitSet set = closure.reachableFrom(components.getMember(components.memberStart(c)));
+            for (int i = components.memberStart(c); i < components.memberEnd(c); i++)
+            {
+                reachable[components.getMember(i)] = i == components.memberStart(c) ? set : (BitSet) set.clone();
+            }
+        }
+        return reachable;
+    }
+}
@@ -1,11 +1,12 @@
 package graphlib;
 
 import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.HashSet;
-import java.util.Scanner;
 import java.util.Queue;
 import java.util.LinkedList;
 import java.util.List;
@@ -16,10 +17,16 @@ import java.util.HashMap;
 public class Graph
 {
     private Map<String, Node> nodes;
+    private Map<String, double[]> coordinates;
+    // node indexes joined by edges, kept only once trackConnectivity() is called
+    private UnionFind connectivity;
+    // bumped by every node and edge added, so that derived results can tell they are stale
+    private long modificationCount;
 
     public Graph()
     {
         nodes = new HashMap<>();
+        coordinates = new HashMap<>();
     }
 
     public Node getOrCreateNode(String name)
@@ -27,12 +34,104 @@ public class Graph
         Node node = nodes.get(name);
         if (node == null)
         {
-            node = new Node(name);
+            node = new Node(name, this, nodes.size());
             nodes.put(name, node);
+            modificationCount++;
+            if (connectivity != null)
+            {
+                connectivity.add();
+            }
         }
         return node;
     }
 
+    /**
+     * Starts keeping the connected components up to date as nodes and edges are added, so
+     * that {@link #getNumWeakComponents}, {@link #connected} and {@link #getComponentSize} take
+     * near-constant time. Edges count in both directions, so for directed edges these are
+     * the weakly connected components. The existing edges are read once here.
+     */
+    public void trackConnectivity()
+    {
+        if (connectivity != null)
+        {
+            return;
+        }
+        UnionFind unionFind = new UnionFind(nodes.size());
+        for (int i = 0; i < nodes.size(); i++)
+        {
+            unionFind.add();
+        }
+        for (Node node : nodes.values())
+        {
+            for (Node neighbor : node.getNeighbors())
+            {
+                unionFind.union(node.index, neighbor.index);
+            }
+        }
+        connectivity = unionFind;
+    }
+
+    public boolean isTrackingConnectivity()
+    {
+        return connectivity != null;
+    }
+
+    // called by Node for every edge added to one of this graph's nodes
+    void edgeAdded(Node from, Node to)
+    {
+        modificationCount++;
+        if (connectivity != null && to.graph == this)
+        {
+            connectivity.union(from.index, to.index);
+        }
+    }
+
+    /**
+     * A counter that grows whenever a node or an edge is added (including an edge that
+     * replaces the weight of an existing one), for caches of results computed from the graph.
+     */
+    public long getModificationCount()
+    {
+        return modificationCount;
+    }
+
+    /**
+     * The number of components when edges count in both directions. Unlike
+     * {@link #getNumComponents}, which follows outgoing edges only, this is the same for a
+     * directed graph whatever order its nodes come in. Requires {@link #trackConnectivity}.
+     */
+    public int getNumWeakComponents()
+    {
+        return trackedConnectivity().getNumComponents();
+    }
+
+    /**
+     * Whether a path joins the two nodes, ignoring edge direction.
+     * Requires {@link #trackConnectivity}.
+     */
+    public boolean connected(String a, String b)
+    {
+        return trackedConnectivity().connected(getNode(a).index, getNode(b).index);
+    }
+
+    /**
+     * The number of nodes in the component of the node. Requires {@link #trackConnectivity}.
+     */
+    public int getComponentSize(String name)
+    {
+        return trackedConnectivity().getComponentSize(getNode(name).index);
+    }
+
+    private UnionFind trackedConnectivity()
+    {
+        if (connectivity == null)
+        {
+            throw new IllegalStateException("Connectivity tracking is not enabled");
+        }
+        return connectivity;
+    }
+
     public boolean containsNode(String name)
     {
         return nodes.containsKey(name);
@@ -43,9 +142,102 @@ public class Graph
         return nodes.values();
     }
 
+    /**
+     * Sets the position of a node, used by {@link BidirectionalAStar} and for drawing.
+     * The node does not need to exist yet.
+     */
+    public void setCoordinates(String name, double x, double y)
+    {
+        coordinates.put(name, new double[] {x, y});
+    }
+
+    /**
+     * Returns <code>{x, y}</code> for the node, or null if it has no position.
+     */
+    public double[] getCoordinates(String name)
+    {
+        double[] xy = coordinates.get(name);
+        return xy == null ? null : xy.clone();
+    }
+
+    public boolean hasCoordinates(String name)
+    {
+        return coordinates.containsKey(name);
+    }
+
+    /**
+     * Reads node positions in the <code>name x y</code> format of
+     * <code>datafiles/scotlandloc.txt</code>.
+     */
+    public void readCoordinates(InputStream in)
+    {
+        EdgeListReader reader = new EdgeListReader(in);
+        while (reader.hasNext())
+        {
+            String name = reader.nextString();
+            double x = reader.nextDouble();
+            double y = reader.nextDouble();
+            setCoordinates(name, x, y);
+        }
+        reader.close();
+    }
+
+    /**
+     * Returns an immutable CSR snapshot of this graph. Later changes to this
+     * graph are not reflected in the snapshot.
+     */
+    public FrozenGraph freeze()
+    {
+        int numNodes = nodes.size();
+        String[] names = new String[numNodes];
+        // ids by node index, so edges are resolved without hashing
+        int[] ids = new int[numNodes];
+        int[] offsets = new int[numNodes + 1];
+        int id = 0;
+        for (Node node : nodes.values())
+        {
+            names[id] = node.getName();
+            ids[node.index] = id;
+            offsets[id + 1] = offsets[id] + node.getDegree();
+            id++;
+        }
+        int[] targets = new int[offsets[numNodes]];
+        double[] weights = new double[offsets[numNodes]];
+        id = 0;
+        for (Node node : nodes.values())
+        {
+            int edge = offsets[id++];
+            for (int i = 0; i < node.getDegree(); i++)
+            {
+                Node neighbor = node.neighborAt(i);
+                if (neighbor.graph != this)
+                {
+                    throw new IllegalStateException("Node " + node + " has an edge to " + neighbor + " of another graph");
+                }
+                targets[edge] = ids[neighbor.index];
+                weights[edge] = node.weightAt(i);
+                edge++;
+            }
+        }
+        FrozenGraph frozen = new FrozenGraph(names, offsets, targets, weights);
+        if (coordinates.isEmpty())
+        {
+            return frozen;
+        }
+        double[] xs = new double[numNodes];
+        double[] ys = new double[numNodes];
+        for (int i = 0; i < numNodes; i++)
+        {
+            double[] xy = coordinates.get(names[i]);
+            xs[i] = xy == null ? Double.NaN : xy[0];
+            ys[i] = xy == null ? Double.NaN : xy[1];
+        }
+        return frozen.withCoordinates(xs, ys);
+    }
+
     public void bfs(String startNodeName, NodeVisitor visitor)
     {
-        Queue<Node> queue = new LinkedList<>();
+        Queue<Node> queue = new ArrayDeque<>();
         Set<Node> visited = new HashSet<>();
         Node start = nodes.get(startNodeName);
         if (start == null)
@@ -53,20 +245,15 @@ public class Graph
             throw new IllegalArgumentException("Node " + startNodeName + " not found");
         }
         queue.add(start);
+        visited.add(start);
         while (!queue.isEmpty())
         {
             Node node = queue.remove();
-            if (visited.contains(node))
-            {
-                // skip nodes we have already visited
-                continue;
-            }
-            // visit the node, and mark it as visited
             visitor.visit(node);
-            visited.add(node);
             for (Node neighbor : node.getNeighbors())
             {
-                if (!visited.contains(neighbor))
+                // mark on enqueue so each node is queued at most once
+                if (visited.add(neighbor))
                 {
                     queue.add(neighbor);
                 }
@@ -106,17 +293,112 @@ public class Graph
         }
     }
 
+    /**
+     * Breadth-first search that the visitor can prune or stop, e.g. to find the first node
+     * that matches or the nodes within some number of hops. Nodes are visited level by
+     * level; the neighbors of a node are only queued if it returns
+     * {@link TraversalControl#CONTINUE}.
+     * @return the node the visitor stopped at, or null if the search ran out of nodes
+     */
+    public Node bfs(String startNodeName, TraversalVisitor visitor)
+    {
+        Node start = getNode(startNodeName);
+        Queue<Node> queue = new ArrayDeque<>();
+        Map<Node, Node> parents = new HashMap<>();
+        queue.add(start);
+        parents.put(start, null);
+        for (int depth = 0; !queue.isEmpty(); depth++)
+        {
+            // the queue holds exactly the nodes of this level when it starts
+            for (int remaining = queue.size(); remaining > 0; remaining--)
+            {
+                Node node = queue.remove();
+                TraversalControl control = visitor.visit(node, parents.get(node), depth);
+                if (control == TraversalControl.STOP)
+                {
+                    return node;
+                }
+                if (control == TraversalControl.SKIP_SUBTREE)
+                {
+                    continue;
+                }
+                for (Node neighbor : node.getNeighbors())
+                {
+                    if (!parents.containsKey(neighbor))
+                    {
+                        parents.put(neighbor, node);
+                        queue.add(neighbor);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static class Frame
+    {
+        final Node node;
+        final Node parent;
+        final int depth;
+
+        Frame(Node node, Node parent, int depth)
+        {
+            this.node = node;
+            this.parent = parent;
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * Depth-first search that the visitor can prune or stop, in the same order as
+     * {@link #dfs(String, NodeVisitor)}. The depth is in the DFS tree, not the distance
+     * from the start.
+     * @return the node the visitor stopped at, or null if the search ran out of nodes
+     */
+    public Node dfs(String startNodeName, TraversalVisitor visitor)
+    {
+        Node start = getNode(startNodeName);
+        Set<Node> visited = new HashSet<>();
+        Deque<Frame> stack = new ArrayDeque<>();
+        stack.push(new Frame(start, null, 0));
+        while (!stack.isEmpty())
+        {
+            Frame frame = stack.pop();
+            if (!visited.add(frame.node))
+            {
+                continue;
+            }
+            TraversalControl control = visitor.visit(frame.node, frame.parent, frame.depth);
+            if (control == TraversalControl.STOP)
+            {
+                return frame.node;
+            }
+            if (control == TraversalControl.SKIP_SUBTREE)
+            {
+                continue;
+            }
+            for (Node neighbor : frame.node.getNeighbors())
+            {
+                if (!visited.contains(neighbor))
+                {
+                    stack.push(new Frame(neighbor, frame.node, frame.depth + 1));
+                }
+            }
+        }
+        return null;
+    }
+
     private static class Path implements Comparable<Path>
     {
         private Node node;
         private double weight;
-        // TODO: include the path
-        //private List<Node> path;
+        private Path previous;
 
-        public Path(Node node, double weight)
+        public Path(Node node, double weight, Path previous)
         {
             this.node = node;
             this.weight = weight;
+            this.previous = previous;
         }
 
         public Node getNode()
@@ -135,14 +417,24 @@ public class Graph
         }
     }
 
+    private Node getNode(String name)
+    {
+        Node node = nodes.get(name);
+        if (node == null)
+        {
+            throw new IllegalArgumentException("Node " + name + " not found");
+        }
+        return node;
+    }
+
     public Map<Node, Double> dijkstra(String startNodeName)
     {
         Map<Node, Double> distances = new HashMap<>();
         
-        Node start = nodes.get(startNodeName);
+        Node start = getNode(startNodeName);
         PriorityQueue<Path> pq = new PriorityQueue<>();
 
-        pq.add(new Path(start, 0.0));
+        pq.add(new Path(start, 0.0, null));
 
         while (!pq.isEmpty() && distances.size() < nodes.size())
         {
@@ -154,12 +446,13 @@ public class Graph
 
             distances.put(node, distance);
             
-            for (Node neighbor : node.getNeighbors())
+            for (int i = 0; i < node.getDegree(); i++)
             {
+                Node neighbor = node.neighborAt(i);
                 if (!distances.containsKey(neighbor))
                 {
-                    double newDistance = distance + node.getWeight(neighbor);
-                    pq.add(new Path(neighbor, newDistance));
+                    double newDistance = distance + node.weightAt(i);
+                    pq.add(new Path(neighbor, newDistance, null));
                 }
             }
         }
@@ -167,6 +460,44 @@ public class Graph
         return distances;
     }
 
+    /**
+     * Shortest path between two nodes, stopping as soon as the target is settled.
+     * For repeated or large queries use {@link FrozenGraph#shortestPath}, which uses an
+     * indexed heap instead of allocating a {@link Path} per relaxation.
+     */
+    public ShortestPath shortestPath(String sourceName, String targetName)
+    {
+        Node source = getNode(sourceName);
+        Node target = getNode(targetName);
+        Set<Node> settled = new HashSet<>();
+        PriorityQueue<Path> pq = new PriorityQueue<>();
+        pq.add(new Path(source, 0.0, null));
+        while (!pq.isEmpty())
+        {
+            Path path = pq.remove();
+            Node node = path.getNode();
+            if (!settled.add(node)) continue;
+            if (node == target)
+            {
+                LinkedList<String> names = new LinkedList<>();
+                for (Path p = path; p != null; p = p.previous)
+                {
+                    names.addFirst(p.getNode().getName());
+                }
+                return new ShortestPath(path.getWeight(), names, settled.size());
+            }
+            for (int i = 0; i < node.getDegree(); i++)
+            {
+                Node neighbor = node.neighborAt(i);
+                if (!settled.contains(neighbor))
+                {
+                    pq.add(new Path(neighbor, path.getWeight() + node.weightAt(i), path));
+                }
+            }
+        }
+        return new ShortestPath(Double.POSITIVE_INFINITY, new LinkedList<>(), settled.size());
+    }
+
     private static interface MyQueue
     {
         void add(Node node);
@@ -346,66 +677,58 @@ public class Graph
     public static Graph readUndirectedUnweightedGraph(InputStream in)
     {
         Graph graph = new Graph();
-        Scanner scanner = new Scanner(in);
-        while (scanner.hasNext())
+        EdgeListReader reader = new EdgeListReader(in);
+        while (reader.hasNext())
         {
-            String nameA = scanner.next();
-            String nameB = scanner.next();
-            Node nodeA = graph.getOrCreateNode(nameA);
-            Node nodeB = graph.getOrCreateNode(nameB);
+            Node nodeA = reader.nextNode(graph);
+            Node nodeB = reader.nextNode(graph);
             nodeA.addUnweightedUndirectedEdge(nodeB);
         }
-        scanner.close();
+        reader.close();
         return graph;
     }
 
     public static Graph readDirectedUnweightedGraph(InputStream in)
     {
         Graph graph = new Graph();
-        Scanner scanner = new Scanner(in);
-        while (scanner.hasNext())
+        EdgeListReader reader = new EdgeListReader(in);
+        while (reader.hasNext())
         {
-            String nameA = scanner.next();
-            String nameB = scanner.next();
-            Node nodeA = graph.getOrCreateNode(nameA);
-            Node nodeB = graph.getOrCreateNode(nameB);
+            Node nodeA = reader.nextNode(graph);
+            Node nodeB = reader.nextNode(graph);
             nodeA.addUnweightedDirectedEdge(nodeB);
         }
-        scanner.close();
+        reader.close();
         return graph;
     }
 
     public static Graph readUndirectedWeightedGraph(InputStream in)
     {
         Graph graph = new Graph();
-        Scanner scanner = new Scanner(in);
-        while (scanner.hasNext())
-        {
-            String nameA = scanner.next();
-            String nameB = scanner.next();
-            double weight = scanner.nextDouble();
-            Node nodeA = graph.getOrCreateNode(nameA);
-            Node nodeB = graph.getOrCreateNode(nameB);
+        EdgeListReader reader = new EdgeListReader(in);
+        while (reader.hasNext())
+        {
+            Node nodeA = reader.nextNode(graph);
+            Node nodeB = reader.nextNode(graph);
+            double weight = reader.nextDouble();
             nodeA.addUndirectedEdge(nodeB, weight);
         }
-        scanner.close();
+        reader.close();
         return graph;
     }
 
     public static Graph readDirectedWeightedGraph(InputStream in)
     {
         Graph graph = new Graph();
-        Scanner scanner = new Scanner(in);
-        while (scanner.hasNext())
-        {
-            String nameA = scanner.next();
-            String nameB = scanner.next();
-            double weight = scanner.nextDouble();
-            Node nodeA = graph.getOrCreateNode(nameA);
-            Node nodeB = graph.getOrCreateNode(nameB);
+        EdgeListReader reader = new EdgeListReader(in);
+        while (reader.hasNext())
+        {
+            Node nodeA = reader.nextNode(graph);
+            Node nodeB = reader.nextNode(graph);
+            double weight = reader.nextDouble();
             nodeA.addDirectedEdge(nodeB, weight);
         }
-        scanner.close();
+        reader.close();
         return graph;
     }
 
@@ -418,14 +741,8 @@ public class Graph
             if (!visited.contains(node))
             {
                 numComponents++;
-                dfs(node.getName(), new NodeVisitor()
-                {
-                    @Override
-                    public void visit(Node node)
-                    {
-                        visited.add(node);
-                    }
-                });
+                // one visited set shared by every search, and no lookups by name
+                dfsGetSize(node, visited);
             }
         }
         return numComponents;
@@ -480,19 +797,19 @@ public class Graph
     }
 
     public static int[][] readMatrix(InputStream in) {
-        Scanner scanner = new Scanner(in);
-        int numRows = scanner.nextInt();
-        int numCols = scanner.nextInt();
+        EdgeListReader reader = new EdgeListReader(in);
+        int numRows = reader.nextInt();
+        int numCols = reader.nextInt();
         int[][] matrix = new int[numRows][numCols];
 
         // Read the matrix
         for (int i = 0; i < numRows; i++) {
-            String line = scanner.next();
+            reader.next();
             for (int j = 0; j < numCols; j++) {
-                matrix[i][j] = line.charAt(j) - '0';
+                matrix[i][j] = reader.tokenByte(j) - '0';
             }
         }
-        scanner.close();
+        reader.close();
         return matrix;
     }
 
@@ -511,7 +828,7 @@ public class Graph
     }
 
     private int dfsGetSize(Node start, Set<Node> visited) {
-        Stack<Node> stack = new Stack<>();
+        Deque<Node> stack = new ArrayDeque<>();
         stack.push(start);
         int size = 0;
 
@@ -533,55 +850,39 @@ public class Graph
     }
 
     // Part 3: Inverse of a Graph
+    /**
+     * Materializes the complement of this graph (see {@link ComplementGraph}, which can
+     * also search the complement without building it).
+     */
     public Graph invertGraph() {
+        FrozenGraph frozen = freeze();
+        ComplementGraph complement = new ComplementGraph(frozen);
         Graph invertedGraph = new Graph();
+        Node[] invertedNodes = new Node[frozen.getNumNodes()];
 
         // Add all nodes to the inverted graph
-        for (Node node : nodes.values()) {
-            invertedGraph.getOrCreateNode(node.getName());
+        for (int u = 0; u < invertedNodes.length; u++) {
+            invertedNodes[u] = invertedGraph.getOrCreateNode(frozen.getName(u));
         }
 
-        // Add inverted edges
-        for (Node node : nodes.values()) {
-            for (Node potentialNeighbor : nodes.values()) {
-                if (!node.equals(potentialNeighbor) && !node.hasEdge(potentialNeighbor)) {
-                    invertedGraph.getOrCreateNode(node.getName())
-                                  .addUnweightedUndirectedEdge(invertedGraph.getOrCreateNode(potentialNeighbor.getName()));
-                }
-            }
+        // Add inverted edges, each undirected edge from its lower id
+        for (int u = 0; u < invertedNodes.length; u++) {
+            Node node = invertedNodes[u];
+            int id = u;
+            complement.neighbors(u).filter(v -> v > id)
+                .forEach(v -> node.addUnweightedUndirectedEdge(invertedNodes[v]));
         }
 
         return invertedGraph;
     }
 
     // Part 4: Reachability
+    /**
+     * For every node, the names of the nodes it can reach, itself included. Computed over
+     * the strongly connected components (see {@link TransitiveClosure}); the result is a
+     * read-only view over compact bitsets rather than a set of strings per node.
+     */
     public Map<String, Set<String>> computeReachability() {
-        Map<String, Set<String>> reachabilityMap = new HashMap<>();
-
-        for (Node node : nodes.values()) {
-            Set<String> reachableNodes = new HashSet<>();
-            dfsReachability(node, reachableNodes);
-            reachabilityMap.put(node.getName(), reachableNodes);
-        }
-
-        return reachabilityMap;
-    }
-
-    private void dfsReachability(Node start, Set<String> reachableNodes) {
-        Stack<Node> stack = new Stack<>();
-        stack.push(start);
-
-        while (!stack.isEmpty()) {
-            Node node = stack.pop();
-            if (reachableNodes.contains(node.getName())) {
-                continue;
-            }
-            reachableNodes.add(node.getName());
-            for (Node neighbor : node.getNeighbors()) {
-                if (!reachableNodes.contains(neighbor.getName())) {
-                    stack.push(neighbor);
-                }
-            }
-        }
+        return TransitiveClosure.compute(freeze()).asMap();
     }
 }
@@ -0,0 +1,352 @@
+package graphlib;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * A versioned binary file format for {@link FrozenGraph}, opened by memory-mapping so a
+ * large graph is queryable without parsing or copying it onto the heap.
+ *
+ * All values are little-endian. The file is a 40 byte header followed by sections,
+ * each starting on an 8 byte boundary:
+ * <pre>
+ *   header      magic "GRAPHLIB", int version, int numNodes, int numEdges,
+ *               int reserved, long nameBytes, long CRC32C of everything after the header
+ *   nameOffsets int[numNodes + 1]   start of each UTF-8 name in nameBytes
+ *   sortedIds   int[numNodes]       node ids ordered by their UTF-8 name bytes
+ *   nameBytes   byte[nameBytes]
+ *   offsets     int[numNodes + 1]   CSR row offsets
+ *   targets     int[numEdges]
+ *   weights     double[numEdges]
+ * </pre>
+ * A single mapping is limited to 2GB, so a file holds at most about 268 million edges.
+ */
+public class GraphFile
+{
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = "GRAPHLIB".getBytes(StandardCharsets.US_ASCII);
+    private static final int HEADER_SIZE = 40;
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private GraphFile()
+    {
+    }
+
+    private static long align(long position)
+    {
+        return (position + 7) & ~7L;
+    }
+
+    private static class SectionWriter
+    {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C crc = new CRC32C();
+        private long position = HEADER_SIZE;
+
+        SectionWriter(FileChannel channel)
+        {
+            this.channel = channel;
+        }
+
+        void ensure(int bytes) throws IOException
+        {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        void putInt(int value) throws IOException
+        {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putDouble(double value) throws IOException
+        {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException
+        {
+            int offset = 0;
+            while (offset < bytes.length)
+            {
+                ensure(1);
+                int n = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, n);
+                offset += n;
+            }
+        }
+
+        void pad() throws IOException
+        {
+            long written = position + buffer.position();
+            for (long i = written; i < align(written); i++)
+            {
+                ensure(1);
+                buffer.put((byte) 0);
+            }
+        }
+
+        void flush() throws IOException
+        {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining())
+            {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Writes the graph to <code>path</code>, replacing any existing file.
+     */
+    public static void write(FrozenGraph graph, Path path) throws IOException
+    {
+        int numNodes = graph.getNumNodes();
+        int numEdges = graph.getNumEdges();
+        byte[][] names = new byte[numNodes][];
+        long nameBytes = 0;
+        for (int i = 0; i < numNodes; i++)
+        {
+            names[i] = graph.getName(i).getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[i].length;
+        }
+        if (nameBytes > Integer.MAX_VALUE || 8L * numEdges > Integer.MAX_VALUE)
+        {
+            throw new IOException("Graph is too large for a single mapped section");
+        }
+        Integer[] sorted = new Integer[numNodes];
+        for (int i = 0; i < numNodes; i++)
+        {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, (a, b) -> Arrays.compareUnsigned(names[a], names[b]));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            SectionWriter out = new SectionWriter(channel);
+            int nameOffset = 0;
+            for (int i = 0; i < numNodes; i++)
+            {
+                out.putInt(nameOffset);
+                nameOffset += names[i].length;
+            }
+            out.putInt(nameOffset);
+            out.pad();
+            for (int id : sorted)
+            {
+                out.putInt(id);
+            }
+            out.pad();
+            for (byte[] name : names)
+            {
+                out.putBytes(name);
+            }
+            out.pad();
+            for (int i = 0; i < numNodes; i++)
+            {
+                out.putInt(graph.edgeStart(i));
+            }
+            out.putInt(numEdges);
+            out.pad();
+            for (int e = 0; e < numEdges; e++)
+            {
+                out.putInt(graph.getTarget(e));
+            }
+            out.pad();
+            for (int e = 0; e < numEdges; e++)
+            {
+                out.putDouble(graph.getWeight(e));
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.put(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(numNodes);
+            header.putInt(numEdges);
+            header.putInt(0);
+            header.putLong(nameBytes);
+            header.putLong(out.crc.getValue());
+            header.flip();
+            while (header.hasRemaining())
+            {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    /**
+     * Memory-maps a file written by {@link #write} without verifying its checksum.
+     */
+    public static FrozenGraph open(Path path) throws IOException
+    {
+        return open(path, false);
+    }
+
+    /**
+     * Memory-maps a file written by {@link #write}. Verifying the checksum reads the whole
+     * file once; without it, opening only touches the header.
+     * @throws IOException if the file is truncated, of an unknown version, or fails the checksum
+     */
+    public static FrozenGraph open(Path path, boolean verifyChecksum) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if (size < HEADER_SIZE)
+            {
+                throw new IOException(path + " is not a graph file");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC))
+            {
+                throw new IOException(path + " is not a graph file");
+            }
+            int version = header.getInt();
+            if (version != VERSION)
+            {
+                throw new IOException("Unsupported graph file version " + version);
+            }
+            int numNodes = header.getInt();
+            int numEdges = header.getInt();
+            header.getInt();
+            long nameBytes = header.getLong();
+            long checksum = header.getLong();
+
+            long nameOffsetsAt = HEADER_SIZE;
+            long sortedIdsAt = align(nameOffsetsAt + 4L * (numNodes + 1));
+            long nameBytesAt = align(sortedIdsAt + 4L * numNodes);
+            long offsetsAt = align(nameBytesAt + nameBytes);
+            long targetsAt = align(offsetsAt + 4L * (numNodes + 1));
+            long weightsAt = align(targetsAt + 4L * numEdges);
+            long end = weightsAt + 8L * numEdges;
+            if (numNodes < 0 || numEdges < 0 || nameBytes < 0 || size != end)
+            {
+                throw new IOException(path + " is truncated or corrupt");
+            }
+            if (verifyChecksum)
+            {
+                CRC32C crc = new CRC32C();
+                for (long position = HEADER_SIZE; position < end; position += Integer.MAX_VALUE)
+                {
+                    crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(Integer.MAX_VALUE, end - position)));
+                }
+                if (crc.getValue() != checksum)
+                {
+                    throw new IOException(path + " failed its checksum");
+                }
+            }
+
+            MappedNameTable names = new MappedNameTable(numNodes,
+                map(channel, nameOffsetsAt, 4L * (numNodes + 1)).asIntBuffer(),
+                map(channel, sortedIdsAt, 4L * numNodes).asIntBuffer(),
+                map(channel, nameBytesAt, nameBytes));
+            IntBuffer offsets = map(channel, offsetsAt, 4L * (numNodes + 1)).asIntBuffer();
+            IntBuffer targets = map(channel, targetsAt, 4L * numEdges).asIntBuffer();
+            DoubleBuffer weights = map(channel, weightsAt, 8L * numEdges).asDoubleBuffer();
+            // the mappings stay valid after the channel is closed
+            return new FrozenGraph(names, offsets, targets, weights);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long size) throws IOException
+    {
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new IOException("Section too large to map");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Name dictionary read directly from the mapped file: names are decoded on demand
+     * and looked up by binary search over the ids sorted by name.
+     */
+    private static class MappedNameTable implements NameTable
+    {
+        private final int size;
+        private final IntBuffer nameOffsets;
+        private final IntBuffer sortedIds;
+        private final ByteBuffer nameBytes;
+
+        MappedNameTable(int size, IntBuffer nameOffsets, IntBuffer sortedIds, ByteBuffer nameBytes)
+        {
+            this.size = size;
+            this.nameOffsets = nameOffsets;
+            this.sortedIds = sortedIds;
+            this.nameBytes = nameBytes;
+        }
+
+        public int size()
+        {
+            return size;
+        }
+
+        public String getName(int id)
+        {
+            int start = nameOffsets.get(id);
+            byte[] bytes = new byte[nameOffsets.get(id + 1) - start];
+            nameBytes.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        public int getId(String name)
+        {
+            byte[] key = name.getBytes(StandardCharsets.UTF_8);
+            int lo = 0;
+            int hi = size - 1;
+            while (lo <= hi)
+            {
+                int mid = (lo + hi) >>> 1;
+                int id = sortedIds.get(mid);
+                int c = compare(id, key);
+                if (c < 0)
+                {
+                    lo = mid + 1;
+                }
+                else if (c > 0)
+                {
+                    hi = mid - 1;
+                }
+                else
+                {
+                    return id;
+                }
+            }
+            return -1;
+        }
+
+        private int compare(int id, byte[] key)
+        {
+            int start = nameOffsets.get(id);
+            int length = nameOffsets.get(id + 1) - start;
+            int n = Math.min(length, key.length);
+            for (int i = 0; i < n; i++)
+            {
+                int c = Byte.toUnsignedInt(nameBytes.get(start + i)) - Byte.toUnsignedInt(key[i]);
+                if (c != 0) return c;
+            }
+            return length - key.length;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package graphlib;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Writes a {@link Graph} or {@link FrozenGraph} in GraphViz format as it goes, for graphs
+ * too large for the <code>to*GraphViz</code> methods, which build the whole document in
+ * memory with a <code>String.format</code> per edge.
+ *
+ * The output has the lines of those methods: one per edge, with the weight to one decimal
+ * as its label if weighted. Each undirected edge is written once, from the node created
+ * first (the lower id of a FrozenGraph) rather than the one whose name sorts first, so
+ * no names are compared. Weights and positions are formatted by hand. Optionally nodes
+ * with coordinates get a <code>pos</code> attribute pinning them, as GraphViz's neato
+ * expects, and edges can be filtered, sampled or capped to make a huge graph drawable.
+ */
+public class GraphVizWriter
+{
+    private static final int FLUSH_SIZE = 1 << 13;
+
+    private final boolean directed;
+    private final boolean weighted;
+    private boolean positions;
+    private EdgeFilter filter;
+    private double sampleRate = 1.0;
+    private long seed;
+    private long maxEdges = Long.MAX_VALUE;
+
+    public GraphVizWriter(boolean directed, boolean weighted)
+    {
+        this.directed = directed;
+        this.weighted = weighted;
+    }
+
+    /**
+     * Whether to write a node statement with <code>pos="x,y!"</code> for every node that has
+     * coordinates, before the edges.
+     */
+    public void setPositions(boolean positions)
+    {
+        this.positions = positions;
+    }
+
+    /**
+     * Only writes the edges the filter accepts, or all edges if it is null.
+     */
+    public void setEdgeFilter(EdgeFilter filter)
+    {
+        this.filter = filter;
+    }
+
+    /**
+     * Writes each edge that passes the filter with probability <code>rate</code>, drawn
+     * from <code>seed</code> so that the same graph gives the same sample.
+     */
+    public void setSampleRate(double rate, long seed)
+    {
+        if (!(rate >= 0.0 && rate <= 1.0))
+        {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + rate);
+        }
+        this.sampleRate = rate;
+        this.seed = seed;
+    }
+
+    /**
+     * Stops after this many edges.
+     */
+    public void setMaxEdges(long maxEdges)
+    {
+        this.maxEdges = maxEdges;
+    }
+
+    /**
+     * Writes the graph to <code>out</code> and returns the number of edges written.
+     */
+    public long write(Graph graph, Appendable out) throws IOException
+    {
+        StringBuilder sb = new StringBuilder(FLUSH_SIZE + 256);
+        sb.append(directed ? "digraph G {\n" : "graph G {\n");
+        if (positions)
+        {
+            for (Node node : graph.getAllNodes())
+            {
+                double[] xy = graph.getCoordinates(node.getName());
+                if (xy != null)
+                {
+                    appendPosition(sb, node.getName(), xy[0], xy[1]);
+                    flushIfFull(sb, out);
+                }
+            }
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        long written = 0;
+        for (Node node : graph.getAllNodes())
+        {
+            if (written == maxEdges) break;
+            for (int i = 0; i < node.getDegree(); i++)
+            {
+                Node neighbor = node.neighborAt(i);
+                if (!directed && !before(node, neighbor)) continue;
+                double weight = node.weightAt(i);
+                if (!keep(node.getName(), neighbor.getName(), weight, random)) continue;
+                if (written == maxEdges) break;
+                appendEdge(sb, node.getName(), neighbor.getName(), weight);
+                written++;
+                flushIfFull(sb, out);
+            }
+        }
+        sb.append("}\n");
+        out.append(sb);
+        return written;
+    }
+
+    /**
+     * Writes the graph to <code>out</code> as UTF-8 and returns the number of edges written.
+     * The stream is flushed but not closed.
+     */
+    public long writeUtf8(Graph graph, OutputStream out) throws IOException
+    {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        long written = write(graph, writer);
+        writer.flush();
+        return written;
+    }
+
+    /**
+     * Writes the graph to <code>out</code>, with positions from
+     * {@link FrozenGraph#getX}/{@link FrozenGraph#getY}, and returns the number of edges written.
+     */
+    public long write(FrozenGraph graph, Appendable out) throws IOException
+    {
+        StringBuilder sb = new StringBuilder(FLUSH_SIZE + 256);
+        sb.append(directed ? "digraph G {\n" : "graph G {\n");
+        if (positions && graph.hasCoordinates())
+        {
+            for (int u = 0; u < graph.getNumNodes(); u++)
+            {
+                if (!Double.isNaN(graph.getX(u)))
+                {
+                    appendPosition(sb, graph.getName(u), graph.getX(u), graph.getY(u));
+                    flushIfFull(sb, out);
+                }
+            }
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        long written = 0;
+        for (int u = 0; u < graph.getNumNodes() && written < maxEdges; u++)
+        {
+            String name = null;
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++)
+            {
+                int v = graph.getTarget(e);
+                if (!directed && v <= u) continue;
+                if (name == null) name = graph.getName(u);
+                String neighbor = graph.getName(v);
+                if (!keep(name, neighbor, graph.getWeight(e), random)) continue;
+                if (written == maxEdges) break;
+                appendEdge(sb, name, neighbor, graph.getWeight(e));
+                written++;
+                flushIfFull(sb, out);
+            }
+        }
+        sb.append("}\n");
+        out.append(sb);
+        return written;
+    }
+
+    /**
+     * Writes the graph to <code>out</code> as UTF-8 and returns the number of edges written.
+     * The stream is flushed but not closed.
+     */
+    public long writeUtf8(FrozenGraph graph, OutputStream out) throws IOException
+    {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        long written = write(graph, writer);
+        writer.flush();
+        return written;
+    }
+
+    // writes each undirected edge from the node created first, falling back to names for
+    // nodes of different graphs
+    private static boolean before(Node node, Node neighbor)
+    {
+        if (node.graph != null && node.graph == neighbor.graph)
+        {
+            return node.index < neighbor.index;
+        }
+        return node.getName().compareTo(neighbor.getName()) < 0;
+    }
+
+    private boolean keep(String from, String to, double weight, SplittableRandom random)
+    {
+        if (filter != null && !filter.accept(from, to, weight))
+        {
+            return false;
+        }
+        return sampleRate >= 1.0 || random.nextDouble() < sampleRate;
+    }
+
+    private static void flushIfFull(StringBuilder sb, Appendable out) throws IOException
+    {
+        if (sb.length() >= FLUSH_SIZE)
+        {
+            out.append(sb);
+            sb.setLength(0);
+        }
+    }
+
+    private void appendEdge(StringBuilder sb, String from, String to, double weight)
+    {
+        sb.append("  ");
+        appendId(sb, from);
+        sb.append(directed ? " -> " : " -- ");
+        appendId(sb, to);
+        if (weighted)
+        {
+            sb.append(" [label=\"");
+            appendOneDecimal(sb, weight);
+            sb.append("\"]");
+        }
+        sb.append(";\n");
+    }
+
+    private static void appendPosition(StringBuilder sb, String name, double x, double y)
+    {
+        sb.append("  ");
+        appendId(sb, name);
+        sb.append(" [pos=\"");
+        appendNumber(sb, x);
+        sb.append(',');
+        appendNumber(sb, y);
+        sb.append("!\"];\n");
+    }
+
+    // names that are not a plain GraphViz id are quoted
+    static void appendId(StringBuilder sb, String name)
+    {
+        boolean plain = !name.isEmpty() && !Character.isDigit(name.charAt(0));
+        boolean numeral = !name.isEmpty();
+        for (int i = 0; i < name.length() && (plain || numeral); i++)
+        {
+            char c = name.charAt(i);
+            plain &= c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+            numeral &= c >= '0' && c <= '9';
+        }
+        if (plain || numeral)
+        {
+            sb.append(name);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < name.length(); i++)
+        {
+            char c = name.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    // as String.format("%.1f") but without a Formatter. The Formatter rounds the shortest
+    // decimal form half up, so a value whose tenths are within rounding error of a half
+    // is rounded from that form, as 3 * 0.15 = 0.44999999999999996 is to 0.4
+    static void appendOneDecimal(StringBuilder sb, double value)
+    {
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e15)
+        {
+            sb.append(String.format("%.1f", value));
+            return;
+        }
+        if (value < 0 || (value == 0 && 1 / value < 0))
+        {
+            sb.append('-');
+        }
+        double abs = Math.abs(value);
+        double scaled = abs * 10;
+        long tenths;
+        if (abs < 1e9 && Math.abs(scaled - Math.floor(scaled) - 0.5) > 1e-3)
+        {
+            tenths = Math.round(scaled);
+        }
+        else
+        {
+            tenths = BigDecimal.valueOf(abs).setScale(1, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
+        sb.append(tenths / 10).append('.').append((char) ('0' + tenths % 10));
+    }
+
+    // integers without a fraction, as in scotlandloc.txt
+    static void appendNumber(StringBuilder sb, double value)
+    {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15)
+        {
+            sb.append((long) value);
+        }
+        else
+        {
+            sb.append(value);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package graphlib;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * The 8-connected islands of a {@link BitGrid}, the same islands {@link Graph#readIslandFile}
+ * builds a node per cell for.
+ *
+ * Labeled in two passes over horizontal runs of land rather than cells. The grid is split
+ * into bands of rows that are labeled in parallel: each run gets a provisional label and is
+ * unioned with every run of the row above that touches it, diagonals included, and the
+ * band resolves its labels to band-local components. A merge pass then unions the
+ * components that touch across each band border and adds up their areas. Islands are
+ * numbered in the order of their first cell in row-major order.
+ */
+public class GridIslands
+{
+    // rows per band at least, so that borders stay a small part of the work
+    private static final int MIN_BAND_ROWS = 64;
+
+    private final int cols;
+    private final long[] areas;
+    private final int largest;
+    // island of every cell in row-major order, -1 for water; null unless requested
+    private final int[] cells;
+
+    private GridIslands(int cols, long[] areas, int[] cells)
+    {
+        this.cols = cols;
+        this.areas = areas;
+        this.cells = cells;
+        int best = -1;
+        for (int i = 0; i < areas.length; i++)
+        {
+            if (best < 0 || areas[i] > areas[best]) best = i;
+        }
+        this.largest = best;
+    }
+
+    public static GridIslands label(BitGrid grid)
+    {
+        return label(grid, ForkJoinPool.commonPool(), false);
+    }
+
+    /**
+     * Labels the islands on <code>pool</code>. With <code>cellLabels</code> the island of
+     * every cell is kept too (see {@link #getIsland}), at four bytes per cell.
+     * @throws IllegalArgumentException if cell labels are asked for a grid of more than
+     * about 2^31 cells
+     */
+    public static GridIslands label(BitGrid grid, ForkJoinPool pool, boolean cellLabels)
+    {
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        if (cellLabels && (long) rows * cols > Integer.MAX_VALUE - 8)
+        {
+            throw new IllegalArgumentException("Grid of " + rows + " x " + cols + " is too large for cell labels");
+        }
+        int bandRows = Math.max(MIN_BAND_ROWS, (rows + 4 * pool.getParallelism() - 1) / (4 * pool.getParallelism()));
+        int numBands = Math.max(1, (rows + bandRows - 1) / bandRows);
+        Band[] bands = new Band[numBands];
+        pool.submit(() -> IntStream.range(0, numBands).parallel().forEach(b ->
+        {
+            bands[b] = new Band(grid, b * bandRows, Math.min(rows, (b + 1) * bandRows));
+        })).join();
+
+        // merge pass: band components get global ids, unioned across the borders
+        int[] offsets = new int[numBands + 1];
+        for (int b = 0; b < numBands; b++)
+        {
+            offsets[b + 1] = offsets[b] + bands[b].numComponents;
+        }
+        UnionFind components = new UnionFind(offsets[numBands]);
+        for (int c = 0; c < offsets[numBands]; c++)
+        {
+            components.add();
+        }
+        for (int b = 1; b < numBands; b++)
+        {
+            Band above = bands[b - 1];
+            Band below = bands[b];
+            if (above.rowCount() == 0 || below.rowCount() == 0) continue;
+            int j = above.rowStart(above.rowCount() - 1);
+            int aboveEnd = above.rowStart(above.rowCount());
+            for (int i = below.rowStart(0); i < below.rowStart(1); i++)
+            {
+                while (j < aboveEnd && above.ends.get(j) < below.starts.get(i))
+                {
+                    j++;
+                }
+                for (int k = j; k < aboveEnd && above.starts.get(k) <= below.ends.get(i); k++)
+                {
+                    components.union(offsets[b - 1] + above.component[k], offsets[b] + below.component[i]);
+                }
+            }
+        }
+        // every component comes after the earlier components of its island, so numbering
+        // roots in component order numbers islands by their first cell
+        int[] island = new int[offsets[numBands]];
+        int[] rootIsland = new int[offsets[numBands]];
+        Arrays.fill(rootIsland, -1);
+        long[] areas = new long[components.getNumComponents()];
+        int numIslands = 0;
+        for (int b = 0; b < numBands; b++)
+        {
+            for (int local = 0; local < bands[b].numComponents; local++)
+            {
+                int c = offsets[b] + local;
+                int root = components.find(c);
+                if (rootIsland[root] < 0)
+                {
+                    rootIsland[root] = numIslands++;
+                }
+                island[c] = rootIsland[root];
+                areas[island[c]] += bands[b].areas[local];
+            }
+        }
+
+        int[] cells = null;
+        if (cellLabels)
+        {
+            int[] labels = new int[rows * cols];
+            pool.submit(() -> IntStream.range(0, numBands).parallel().forEach(b ->
+                bands[b].fill(labels, cols, island, offsets[b]))).join();
+            cells = labels;
+        }
+        return new GridIslands(cols, areas, cells);
+    }
+
+    // the runs of a range of rows, labeled with band-local components
+    private static class Band
+    {
+        final int firstRow;
+        final int endRow;
+        final IntList starts = new IntList();
+        final IntList ends = new IntList();
+        // runs of row firstRow + r are rowStarts[r] .. rowStarts[r + 1]
+        final int[] rowStarts;
+        int[] component;
+        long[] areas;
+        int numComponents;
+
+        Band(BitGrid grid, int firstRow, int endRow)
+        {
+            this.firstRow = firstRow;
+            this.endRow = endRow;
+            rowStarts = new int[endRow - firstRow + 1];
+            int maxRuns = grid.getCols() / 2 + 1;
+            int[] rowStartCols = new int[maxRuns];
+            int[] rowEndCols = new int[maxRuns];
+            UnionFind runs = new UnionFind();
+            for (int row = firstRow; row < endRow; row++)
+            {
+                int count = grid.runs(row, rowStartCols, rowEndCols);
+                int previous = row == firstRow ? 0 : rowStarts[row - firstRow - 1];
+                int previousEnd = starts.size();
+                int j = previous;
+                for (int i = 0; i < count; i++)
+                {
+                    int label = runs.add();
+                    starts.add(rowStartCols[i]);
+                    ends.add(rowEndCols[i]);
+                    // runs of the row above that touch [start, end) share a side or a corner with it
+                    while (j < previousEnd && ends.get(j) < rowStartCols[i])
+                    {
+                        j++;
+                    }
+                    for (int k = j; k < previousEnd && starts.get(k) <= rowEndCols[i]; k++)
+                    {
+                        runs.union(label, k);
+                    }
+                }
+                rowStarts[row - firstRow + 1] = starts.size();
+            }
+
+            // second pass: band components in order of first appearance
+            component = new int[runs.size()];
+            int[] rootComponent = new int[runs.size()];
+            Arrays.fill(rootComponent, -1);
+            areas = new long[runs.getNumComponents()];
+            for (int run = 0; run < runs.size(); run++)
+            {
+                int root = runs.find(run);
+                if (rootComponent[root] < 0)
+                {
+                    rootComponent[root] = numComponents++;
+                }
+                component[run] = rootComponent[root];
+                areas[component[run]] += ends.get(run) - starts.get(run);
+            }
+        }
+
+        int rowCount()
+        {
+            return endRow - firstRow;
+        }
+
+        int rowStart(int r)
+        {
+            return rowStarts[r];
+        }
+
+        void fill(int[] labels, int cols, int[] island, int offset)
+        {
+            Arrays.fill(labels, firstRow * cols, endRow * cols, -1);
+            for (int r = 0; r < rowCount(); r++)
+            {
+                int base = (firstRow + r) * cols;
+                for (int run = rowStarts[r]; run < rowStarts[r + 1]; run++)
+                {
+                    Arrays.fill(labels, base + starts.get(run), base + ends.get(run), island[offset + component[run]]);
+                }
+            }
+        }
+    }
+
+    public int getNumIslands()
+    {
+        return areas.length;
+    }
+
+    /**
+     * The number of cells in the largest island, or 0 if there is no land.
+     */
+    public long getLargestIslandSize()
+    {
+        return largest < 0 ? 0 : areas[largest];
+    }
+
+    /**
+     * The island with the most cells, or -1 if there is no land.
+     */
+    public int getLargestIsland()
+    {
+        return largest;
+    }
+
+    public long getIslandSize(int island)
+    {
+        return areas[island];
+    }
+
+    /**
+     * A copy of the number of cells of every island, indexed by island.
+     */
+    public long[] getIslandSizes()
+    {
+        return areas.clone();
+    }
+
+    public boolean hasCellLabels()
+    {
+        return cells != null;
+    }
+
+    /**
+     * The island of a cell, or -1 for water.
+     * @throws IllegalStateException if the islands were labeled without cell labels
+     */
+    public int getIsland(int row, int col)
+    {
+        if (cells == null)
+        {
+            throw new IllegalStateException("Cell labels were not computed");
+        }
+        return cells[row * cols + col];
+    }
+
+    /**
+     * A copy of the island of every cell in row-major order, -1 for water.
+     * @throws IllegalStateException if the islands were labeled without cell labels
+     */
+    public int[] getCellLabels()
+    {
+        if (cells == null)
+        {
+            throw new IllegalStateException("Cell labels were not computed");
+        }
+        return cells.clone();
+    }
+}
@@ -0,0 +1,161 @@
+package graphlib;
+
+import java.util.Arrays;
+
+/**
+ * A min-heap of node ids in <code>[0, capacity)</code> keyed by doubles, with
+ * decrease-key. Everything lives in primitive arrays, so pushing and popping
+ * never allocates.
+ */
+class IndexedDaryHeap
+{
+    private static final int ARITY = 4;
+
+    // heap[i] is the node at heap position i, position[node] its index or -1
+    private final int[] heap;
+    private final int[] position;
+    private final double[] keys;
+    private int size;
+
+    public IndexedDaryHeap(int capacity)
+    {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public int capacity()
+    {
+        return heap.length;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean contains(int node)
+    {
+        return position[node] >= 0;
+    }
+
+    public double getKey(int node)
+    {
+        return keys[node];
+    }
+
+    public int peekMin()
+    {
+        return heap[0];
+    }
+
+    public double peekMinKey()
+    {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Inserts the node, or lowers its key if it is already queued with a larger one.
+     * Returns true if the heap changed.
+     */
+    public boolean insertOrDecrease(int node, double key)
+    {
+        int i = position[node];
+        if (i < 0)
+        {
+            keys[node] = key;
+            i = size++;
+            heap[i] = node;
+            position[node] = i;
+            siftUp(i);
+            return true;
+        }
+        if (key < keys[node])
+        {
+            keys[node] = key;
+            siftUp(i);
+            return true;
+        }
+        return false;
+    }
+
+    public int popMin()
+    {
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0)
+        {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Empties the heap in time proportional to its current size.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int i)
+    {
+        int node = heap[i];
+        double key = keys[node];
+        while (i > 0)
+        {
+            int parent = (i - 1) / ARITY;
+            int parentNode = heap[parent];
+            if (keys[parentNode] <= key) break;
+            heap[i] = parentNode;
+            position[parentNode] = i;
+            i = parent;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+
+    private void siftDown(int i)
+    {
+        int node = heap[i];
+        double key = keys[node];
+        while (true)
+        {
+            int first = i * ARITY + 1;
+            if (first >= size) break;
+            int last = Math.min(first + ARITY, size);
+            int best = first;
+            double bestKey = keys[heap[first]];
+            for (int c = first + 1; c < last; c++)
+            {
+                double k = keys[heap[c]];
+                if (k < bestKey)
+                {
+                    best = c;
+                    bestKey = k;
+                }
+            }
+            if (bestKey >= key) break;
+            int child = heap[best];
+            heap[i] = child;
+            position[child] = i;
+            i = best;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+}
@@ -0,0 +1,98 @@
+package graphlib;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from non-negative int keys to int values, with linear
+ * probing. There is no removal. Not thread-safe.
+ */
+class IntIntHashMap
+{
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    public IntIntHashMap()
+    {
+        this(16);
+    }
+
+    public IntIntHashMap(int expectedSize)
+    {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private static int slot(int key, int mask)
+    {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * The value of the key, or -1 if it is not in the map.
+     */
+    public int get(int key)
+    {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); keys[i] != EMPTY; i = (i + 1) & mask)
+        {
+            if (keys[i] == key)
+            {
+                return values[i];
+            }
+        }
+        return -1;
+    }
+
+    public void put(int key, int value)
+    {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != EMPTY)
+        {
+            if (keys[i] == key)
+            {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length)
+        {
+            grow();
+        }
+    }
+
+    private void grow()
+    {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++)
+        {
+            if (oldKeys[j] == EMPTY) continue;
+            int i = slot(oldKeys[j], mask);
+            while (keys[i] != EMPTY)
+            {
+                i = (i + 1) & mask;
+            }
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    public int size()
+    {
+        return size;
+    }
+}
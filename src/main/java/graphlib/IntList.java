@@ -0,0 +1,86 @@
+package graphlib;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive ints.
+ */
+class IntList
+{
+    private int[] elements;
+    private int size;
+
+    public IntList()
+    {
+        this(4);
+    }
+
+    public IntList(int initialCapacity)
+    {
+        elements = new int[Math.max(initialCapacity, 1)];
+    }
+
+    public void add(int value)
+    {
+        if (size == elements.length)
+        {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size++] = value;
+    }
+
+    public int get(int index)
+    {
+        return elements[index];
+    }
+
+    public void set(int index, int value)
+    {
+        elements[index] = value;
+    }
+
+    /**
+     * Removes the first occurrence of the value by moving the last element into its place,
+     * so the order is not preserved. Returns false if the value is not in the list.
+     */
+    public boolean removeSwap(int value)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            if (elements[i] == value)
+            {
+                elements[i] = elements[--size];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * Copies the elements into <code>dest</code> starting at <code>destPos</code>.
+     */
+    public void copyInto(int[] dest, int destPos)
+    {
+        System.arraycopy(elements, 0, dest, destPos, size);
+    }
+
+    public int[] toArray()
+    {
+        return Arrays.copyOf(elements, size);
+    }
+}
@@ -0,0 +1,6 @@
+package graphlib;
+
+public interface IntNodeVisitor
+{
+    public void visit(int node);
+}
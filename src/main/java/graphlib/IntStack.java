@@ -0,0 +1,56 @@
+package graphlib;
+
+import java.util.Arrays;
+
+/**
+ * A growable stack of primitive ints, used by the traversals over {@link FrozenGraph}.
+ */
+class IntStack
+{
+    private int[] elements;
+    private int size;
+
+    public IntStack()
+    {
+        this(16);
+    }
+
+    public IntStack(int initialCapacity)
+    {
+        elements = new int[Math.max(initialCapacity, 1)];
+    }
+
+    public void push(int value)
+    {
+        if (size == elements.length)
+        {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size++] = value;
+    }
+
+    public int pop()
+    {
+        return elements[--size];
+    }
+
+    public int peek()
+    {
+        return elements[size - 1];
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public void clear()
+    {
+        size = 0;
+    }
+}
@@ -0,0 +1,11 @@
+package graphlib;
+
+/**
+ * Visitor for the bounded {@link FrozenGraph#bfs(String, IntTraversalVisitor)} and
+ * {@link FrozenGraph#dfs(String, IntTraversalVisitor)}, with node ids rather than nodes.
+ * <code>parent</code> is -1 for the start node.
+ */
+public interface IntTraversalVisitor
+{
+    public TraversalControl visit(int node, int parent, int depth);
+}
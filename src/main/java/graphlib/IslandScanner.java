@@ -0,0 +1,262 @@
+package graphlib;
+
+import java.io.InputStream;
+
+/**
+ * Finds the 8-connected islands of a mask one row at a time, for masks too large to hold
+ * even as a {@link BitGrid}.
+ *
+ * Only the runs of land in the last row are kept, each tagged with its open island and
+ * that island's area and bounding box so far. Each new row unions its runs with the runs
+ * above that touch them; an island none of the new runs touches cannot grow any more, so it
+ * is reported to the visitor right away. Memory is O(cols) whatever the number of rows.
+ */
+public class IslandScanner
+{
+    private final int cols;
+    private final IslandVisitor visitor;
+
+    // runs of the last row and the open island of each
+    private int[] previousStarts;
+    private int[] previousEnds;
+    private int[] previousIslands;
+    private int previousCount;
+    private int[] starts;
+    private int[] ends;
+    private int[] islands;
+
+    // open islands are 0..open-1; while a row is merged, its runs follow as open..open+count-1
+    private int open;
+    private int[] parent;
+    private int[] newId;
+    private Stats stats;
+    private Stats nextStats;
+
+    private int row;
+    private long numIslands;
+    private long largest;
+    private int maxOpen;
+
+    private static class Stats
+    {
+        final long[] area;
+        final int[] top;
+        final int[] left;
+        final int[] bottom;
+        final int[] right;
+
+        Stats(int capacity)
+        {
+            area = new long[capacity];
+            top = new int[capacity];
+            left = new int[capacity];
+            bottom = new int[capacity];
+            right = new int[capacity];
+        }
+
+        void copy(int from, Stats to, int index)
+        {
+            to.area[index] = area[from];
+            to.top[index] = top[from];
+            to.left[index] = left[from];
+            to.bottom[index] = bottom[from];
+            to.right[index] = right[from];
+        }
+
+        void merge(int from, int into)
+        {
+            area[into] += area[from];
+            top[into] = Math.min(top[into], top[from]);
+            left[into] = Math.min(left[into], left[from]);
+            bottom[into] = Math.max(bottom[into], bottom[from]);
+            right[into] = Math.max(right[into], right[from]);
+        }
+    }
+
+    /**
+     * A scanner for rows of <code>cols</code> cells that reports each island to
+     * <code>visitor</code>, which may be null, as soon as it is complete.
+     */
+    public IslandScanner(int cols, IslandVisitor visitor)
+    {
+        this.cols = cols;
+        this.visitor = visitor;
+        int maxRuns = cols / 2 + 1;
+        previousStarts = new int[maxRuns];
+        previousEnds = new int[maxRuns];
+        previousIslands = new int[maxRuns];
+        starts = new int[maxRuns];
+        ends = new int[maxRuns];
+        islands = new int[maxRuns];
+        parent = new int[2 * maxRuns];
+        newId = new int[2 * maxRuns];
+        stats = new Stats(2 * maxRuns);
+        nextStats = new Stats(2 * maxRuns);
+    }
+
+    /**
+     * Reads a mask in the {@link Graph#readMatrix} format one row at a time, reports every
+     * island to <code>visitor</code> and returns the finished scanner for its totals.
+     */
+    public static IslandScanner scan(InputStream in, IslandVisitor visitor)
+    {
+        EdgeListReader reader = new EdgeListReader(in);
+        int rows = reader.nextInt();
+        int cols = reader.nextInt();
+        IslandScanner scanner = new IslandScanner(cols, visitor);
+        BitGrid line = new BitGrid(1, cols);
+        for (int i = 0; i < rows; i++)
+        {
+            line.readRow(reader, 0);
+            scanner.addRow(line, 0);
+        }
+        reader.close();
+        scanner.finish();
+        return scanner;
+    }
+
+    private int find(int x)
+    {
+        while (parent[x] != x)
+        {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * Adds row <code>index</code> of <code>grid</code> as the next row of the mask.
+     */
+    public void addRow(BitGrid grid, int index)
+    {
+        if (grid.getCols() != cols)
+        {
+            throw new IllegalArgumentException("Row has " + grid.getCols() + " cells, expected " + cols);
+        }
+        int count = grid.runs(index, starts, ends);
+        int n = open + count;
+        for (int x = 0; x < n; x++)
+        {
+            parent[x] = x;
+        }
+        int j = 0;
+        for (int i = 0; i < count; i++)
+        {
+            int run = open + i;
+            stats.area[run] = ends[i] - starts[i];
+            stats.top[run] = row;
+            stats.bottom[run] = row;
+            stats.left[run] = starts[i];
+            stats.right[run] = ends[i] - 1;
+            // runs above that touch [start, end) share a side or a corner with it
+            while (j < previousCount && previousEnds[j] < starts[i])
+            {
+                j++;
+            }
+            for (int k = j; k < previousCount && previousStarts[k] <= ends[i]; k++)
+            {
+                int a = find(run);
+                int b = find(previousIslands[k]);
+                if (a != b) parent[Math.max(a, b)] = Math.min(a, b);
+            }
+        }
+        for (int x = 0; x < n; x++)
+        {
+            newId[x] = -1;
+            int root = find(x);
+            if (root != x) stats.merge(x, root);
+        }
+
+        // islands still touching this row stay open, renumbered in run order
+        int next = 0;
+        for (int i = 0; i < count; i++)
+        {
+            int root = find(open + i);
+            if (newId[root] < 0)
+            {
+                newId[root] = next;
+                stats.copy(root, nextStats, next);
+                next++;
+            }
+            islands[i] = newId[root];
+        }
+        for (int c = 0; c < open; c++)
+        {
+            if (parent[c] == c && newId[c] < 0)
+            {
+                emit(stats, c);
+            }
+        }
+
+        Stats swapStats = stats;
+        stats = nextStats;
+        nextStats = swapStats;
+        int[] swap = previousStarts;
+        previousStarts = starts;
+        starts = swap;
+        swap = previousEnds;
+        previousEnds = ends;
+        ends = swap;
+        swap = previousIslands;
+        previousIslands = islands;
+        islands = swap;
+        previousCount = count;
+        open = next;
+        maxOpen = Math.max(maxOpen, open);
+        row++;
+    }
+
+    /**
+     * Reports the islands that reach the last row added. Call once after the last row.
+     */
+    public void finish()
+    {
+        for (int c = 0; c < open; c++)
+        {
+            emit(stats, c);
+        }
+        open = 0;
+        previousCount = 0;
+    }
+
+    private void emit(Stats from, int c)
+    {
+        numIslands++;
+        largest = Math.max(largest, from.area[c]);
+        if (visitor != null)
+        {
+            visitor.visit(from.area[c], from.top[c], from.left[c], from.bottom[c], from.right[c]);
+        }
+    }
+
+    public int getRowsScanned()
+    {
+        return row;
+    }
+
+    /**
+     * The number of islands reported so far.
+     */
+    public long getNumIslands()
+    {
+        return numIslands;
+    }
+
+    /**
+     * The area of the largest island reported so far, or 0 if there is none.
+     */
+    public long getLargestIslandSize()
+    {
+        return largest;
+    }
+
+    /**
+     * The most islands that were open at once, which with the row width bounds the memory
+     * used.
+     */
+    public int getMaxOpenIslands()
+    {
+        return maxOpen;
+    }
+}
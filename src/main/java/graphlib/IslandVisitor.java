@@ -0,0 +1,10 @@
+package graphlib;
+
+/**
+ * Receives each island found by an {@link IslandScanner}: its number of cells and its
+ * bounding box, with inclusive row and column bounds.
+ */
+public interface IslandVisitor
+{
+    public void visit(long area, int top, int left, int bottom, int right);
+}
@@ -0,0 +1,153 @@
+package graphlib;
+
+import java.util.Arrays;
+
+/**
+ * Goal-directed point-to-point search with {@link Landmarks} lower bounds, for graphs
+ * that have no coordinates.
+ *
+ * Each query uses only the few landmarks that give the best bound between its source and
+ * target, which keeps the per-node cost low. A node whose distance improves after it was
+ * settled is queued again, so the result is exact even where float rounding makes the
+ * bounds very slightly inconsistent.
+ *
+ * A query reuses the workspace of the previous one, so an instance is not thread-safe.
+ */
+public class LandmarkAStar
+{
+    private static final int ACTIVE_LANDMARKS = 4;
+
+    private final FrozenGraph graph;
+    private final Landmarks landmarks;
+    private final double[] distance;
+    private final int[] predecessor;
+    private final IndexedDaryHeap heap;
+    private final IntStack touched = new IntStack();
+    private final int[] active;
+    private final double[] activeBounds;
+    private final int[] single = new int[1];
+    private int activeCount;
+    private int settledCount;
+
+    public LandmarkAStar(Landmarks landmarks)
+    {
+        this.landmarks = landmarks;
+        this.graph = landmarks.getGraph();
+        int numNodes = graph.getNumNodes();
+        distance = new double[numNodes];
+        predecessor = new int[numNodes];
+        heap = new IndexedDaryHeap(numNodes);
+        active = new int[Math.min(ACTIVE_LANDMARKS, landmarks.size())];
+        activeBounds = new double[active.length];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        Arrays.fill(predecessor, -1);
+    }
+
+    public ShortestPath shortestPath(String sourceName, String targetName)
+    {
+        int s = graph.getId(sourceName);
+        int t = graph.getId(targetName);
+        double d = distance(s, t);
+        if (d == Double.POSITIVE_INFINITY)
+        {
+            return graph.toShortestPath(d, new int[0], settledCount);
+        }
+        int length = 1;
+        for (int node = t; node != s; node = predecessor[node])
+        {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = t, i = length - 1; i >= 0; node = predecessor[node], i--)
+        {
+            path[i] = node;
+        }
+        return graph.toShortestPath(d, path, settledCount);
+    }
+
+    /**
+     * Shortest path distance between two node ids, or {@link Double#POSITIVE_INFINITY}.
+     */
+    public double distance(int s, int t)
+    {
+        while (!touched.isEmpty())
+        {
+            int node = touched.pop();
+            distance[node] = Double.POSITIVE_INFINITY;
+            predecessor[node] = -1;
+        }
+        heap.clear();
+        settledCount = 0;
+        chooseActive(s, t);
+
+        double h = landmarks.lowerBound(s, t, active, activeCount);
+        if (h == Double.POSITIVE_INFINITY)
+        {
+            return h;
+        }
+        distance[s] = 0.0;
+        touched.push(s);
+        heap.insertOrDecrease(s, h);
+        while (!heap.isEmpty())
+        {
+            int node = heap.popMin();
+            settledCount++;
+            if (node == t)
+            {
+                return distance[t];
+            }
+            double d = distance[node];
+            for (int e = graph.edgeStart(node); e < graph.edgeEnd(node); e++)
+            {
+                int neighbor = graph.getTarget(e);
+                double newDistance = d + graph.getWeight(e);
+                if (newDistance < distance[neighbor])
+                {
+                    double bound = landmarks.lowerBound(neighbor, t, active, activeCount);
+                    // the target is unreachable from here
+                    if (bound == Double.POSITIVE_INFINITY) continue;
+                    if (distance[neighbor] == Double.POSITIVE_INFINITY)
+                    {
+                        touched.push(neighbor);
+                    }
+                    distance[neighbor] = newDistance;
+                    predecessor[neighbor] = node;
+                    heap.insertOrDecrease(neighbor, newDistance + bound);
+                }
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    public int getSettledCount()
+    {
+        return settledCount;
+    }
+
+    // keeps the landmarks with the largest individual bounds from s to t
+    private void chooseActive(int s, int t)
+    {
+        activeCount = 0;
+        for (int i = 0; i < landmarks.size(); i++)
+        {
+            single[0] = i;
+            double b = landmarks.lowerBound(s, t, single, 1);
+            if (activeCount < active.length)
+            {
+                active[activeCount] = i;
+                activeBounds[activeCount++] = b;
+                continue;
+            }
+            int weakest = 0;
+            for (int j = 1; j < activeCount; j++)
+            {
+                if (activeBounds[j] < activeBounds[weakest]) weakest = j;
+            }
+            if (b > activeBounds[weakest])
+            {
+                active[weakest] = i;
+                activeBounds[weakest] = b;
+            }
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package graphlib;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Landmark distance tables for the ALT (A*, landmarks, triangle inequality) technique.
+ *
+ * For a few landmark nodes L the tables hold d(L, v) and d(v, L) for every node v. By the
+ * triangle inequality d(v, t) &gt;= d(L, t) - d(L, v) and d(v, t) &gt;= d(v, L) - d(t, L),
+ * which gives lower bounds for goal-directed search ({@link LandmarkAStar}) on graphs
+ * without coordinates, and d(s, L) + d(L, t) gives an upper bound without any search.
+ *
+ * The tables are stored as floats, node by node, so the bounds for one node come from a
+ * single cache line. The bounds allow for the float rounding and stay valid.
+ */
+public class Landmarks
+{
+    public enum Selection
+    {
+        /** Each landmark is the node farthest from the ones already chosen. */
+        FARTHEST,
+        /**
+         * Goldberg and Werneck's "avoid": grow a shortest path tree from a node far from the
+         * current landmarks and pick the leaf of the subtree they bound worst.
+         */
+        AVOID
+    }
+
+    // float keeps 24 bits; twice the relative rounding error of one value, to be safe
+    private static final double SLACK = 0x1p-23;
+    private static final long SEED = 42;
+
+    private final FrozenGraph graph;
+    private final int[] landmarks;
+    private final int k;
+    // fromLandmark[v * k + i] = d(landmarks[i], v), toLandmark[v * k + i] = d(v, landmarks[i])
+    private final float[] fromLandmark;
+    private final float[] toLandmark;
+
+    private Landmarks(FrozenGraph graph, int[] landmarks, float[] fromLandmark, float[] toLandmark)
+    {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.k = landmarks.length;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    public static Landmarks build(FrozenGraph graph, int count)
+    {
+        return build(graph, count, Selection.AVOID, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Chooses <code>count</code> landmarks (fewer if the graph is smaller) and computes
+     * their distance tables. Choosing needs the forward table of each landmark before the
+     * next one, so that part is sequential; the backward tables, one Dijkstra on the
+     * transposed graph per landmark, are computed in parallel on <code>pool</code>.
+     */
+    public static Landmarks build(FrozenGraph graph, int count, Selection selection, ForkJoinPool pool)
+    {
+        if (count < 1)
+        {
+            throw new IllegalArgumentException("Need at least one landmark");
+        }
+        int numNodes = graph.getNumNodes();
+        int k = Math.min(count, numNodes);
+        int[] landmarks = new int[k];
+        float[] fromLandmark = new float[numNodes * k];
+        float[] toLandmark = new float[numNodes * k];
+
+        DijkstraSearch search = new DijkstraSearch(graph);
+        Selector selector = new Selector(graph, search, landmarks, fromLandmark, k);
+        for (int i = 0; i < k; i++)
+        {
+            landmarks[i] = selection == Selection.AVOID ? selector.avoid(i) : selector.farthest(i);
+            search.run(landmarks[i]);
+            for (int v = 0; v < numNodes; v++)
+            {
+                fromLandmark[v * k + i] = (float) search.getDistance(v);
+            }
+            selector.added(i);
+        }
+
+        FrozenGraph reverse = graph.transpose();
+        // landmarks cost about the same, so one chunk per thread, each with its own workspace
+        int numChunks = Math.min(k, pool.getParallelism());
+        pool.submit(() -> IntStream.range(0, numChunks).parallel().forEach(chunk ->
+        {
+            DijkstraSearch backward = new DijkstraSearch(reverse);
+            for (int i = k * chunk / numChunks; i < k * (chunk + 1) / numChunks; i++)
+            {
+                backward.run(landmarks[i]);
+                for (int v = 0; v < numNodes; v++)
+                {
+                    toLandmark[v * k + i] = (float) backward.getDistance(v);
+                }
+            }
+        })).join();
+        return new Landmarks(graph, landmarks, fromLandmark, toLandmark);
+    }
+
+    public FrozenGraph getGraph()
+    {
+        return graph;
+    }
+
+    public int size()
+    {
+        return k;
+    }
+
+    public int getLandmark(int i)
+    {
+        return landmarks[i];
+    }
+
+    public double getDistanceFrom(int landmark, int node)
+    {
+        return fromLandmark[node * k + landmark];
+    }
+
+    public double getDistanceTo(int node, int landmark)
+    {
+        return toLandmark[node * k + landmark];
+    }
+
+    /**
+     * A lower bound on d(v, t) over all landmarks. {@link Double#POSITIVE_INFINITY} means
+     * t is certainly unreachable from v.
+     */
+    public double lowerBound(int v, int t)
+    {
+        return lowerBound(v, t, null, k);
+    }
+
+    // the best bound over the first count landmark indexes in active, or all if active is null
+    double lowerBound(int v, int t, int[] active, int count)
+    {
+        int vk = v * k;
+        int tk = t * k;
+        double best = 0.0;
+        for (int j = 0; j < count; j++)
+        {
+            int i = active == null ? j : active[j];
+            double lt = fromLandmark[tk + i];
+            double lv = fromLandmark[vk + i];
+            // L reaches v but not t, so v cannot reach t either
+            if (lt == Double.POSITIVE_INFINITY && lv < Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+            if (lt < Double.POSITIVE_INFINITY && lv < Double.POSITIVE_INFINITY)
+            {
+                best = Math.max(best, lt - lv - (lt + lv) * SLACK);
+            }
+            double vl = toLandmark[vk + i];
+            double tl = toLandmark[tk + i];
+            // t reaches L but v does not, so v cannot reach t
+            if (vl == Double.POSITIVE_INFINITY && tl < Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+            if (vl < Double.POSITIVE_INFINITY && tl < Double.POSITIVE_INFINITY)
+            {
+                best = Math.max(best, vl - tl - (vl + tl) * SLACK);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * An upper bound on d(s, t): the shortest route from s to t through one of the
+     * landmarks, or {@link Double#POSITIVE_INFINITY} if no landmark connects them.
+     * Together with {@link #lowerBound} it estimates a distance without searching.
+     */
+    public double upperBound(int s, int t)
+    {
+        if (s == t)
+        {
+            return 0.0;
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < k; i++)
+        {
+            double through = (double) toLandmark[s * k + i] + fromLandmark[t * k + i];
+            best = Math.min(best, through + through * SLACK);
+        }
+        return best;
+    }
+
+    /**
+     * Chooses landmarks one at a time from the forward tables filled in so far.
+     */
+    private static class Selector
+    {
+        final FrozenGraph graph;
+        final DijkstraSearch search;
+        final int[] landmarks;
+        final float[] fromLandmark;
+        final int k;
+        final int numNodes;
+        final boolean[] isLandmark;
+        // min over the chosen landmarks of d(L, v)
+        final double[] nearest;
+        final SplittableRandom random = new SplittableRandom(SEED);
+
+        Selector(FrozenGraph graph, DijkstraSearch search, int[] landmarks, float[] fromLandmark, int k)
+        {
+            this.graph = graph;
+            this.search = search;
+            this.landmarks = landmarks;
+            this.fromLandmark = fromLandmark;
+            this.k = k;
+            this.numNodes = graph.getNumNodes();
+            this.isLandmark = new boolean[numNodes];
+            this.nearest = new double[numNodes];
+            Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        }
+
+        void added(int i)
+        {
+            int landmark = landmarks[i];
+            isLandmark[landmark] = true;
+            for (int v = 0; v < numNodes; v++)
+            {
+                nearest[v] = Math.min(nearest[v], fromLandmark[v * k + i]);
+            }
+        }
+
+        int farthest(int i)
+        {
+            if (i == 0)
+            {
+                search.run(start());
+                return farthestFrom(search.getDistances());
+            }
+            return farthestFrom(nearest);
+        }
+
+        // a random node of largest degree, likely in the main component of the graph
+        private int start()
+        {
+            int maxDegree = 0;
+            for (int v = 0; v < numNodes; v++)
+            {
+                maxDegree = Math.max(maxDegree, graph.getDegree(v));
+            }
+            int v = random.nextInt(numNodes);
+            while (graph.getDegree(v) < maxDegree)
+            {
+                v = (v + 1) % numNodes;
+            }
+            return v;
+        }
+
+        // the reached non-landmark node with the largest distance; landmarks in parts of the
+        // graph the others cannot reach would only help queries inside those parts
+        private int farthestFrom(double[] distance)
+        {
+            int best = -1;
+            for (int v = 0; v < numNodes; v++)
+            {
+                if (isLandmark[v]) continue;
+                if (best < 0 || distance[best] == Double.POSITIVE_INFINITY
+                    || (distance[v] > distance[best] && distance[v] < Double.POSITIVE_INFINITY))
+                {
+                    best = v;
+                }
+            }
+            return best;
+        }
+
+        int avoid(int i)
+        {
+            // a root far from the current landmarks covers the worst-served part of the graph
+            int root = i == 0 ? start() : farthestFrom(nearest);
+            search.run(root);
+
+            // the shortest path tree as child lists
+            int[] childOffsets = new int[numNodes + 1];
+            for (int v = 0; v < numNodes; v++)
+            {
+                int parent = search.getPredecessor(v);
+                if (parent >= 0) childOffsets[parent + 1]++;
+            }
+            for (int v = 0; v < numNodes; v++)
+            {
+                childOffsets[v + 1] += childOffsets[v];
+            }
+            int[] children = new int[childOffsets[numNodes]];
+            int[] next = Arrays.copyOf(childOffsets, numNodes);
+            for (int v = 0; v < numNodes; v++)
+            {
+                int parent = search.getPredecessor(v);
+                if (parent >= 0) children[next[parent]++] = v;
+            }
+
+            // size of a subtree: how much the landmarks underestimate d(root, v), summed,
+            // or zero if the subtree already contains a landmark
+            double[] size = new double[numNodes];
+            boolean[] covered = new boolean[numNodes];
+            int[] order = postOrder(root, childOffsets, children);
+            for (int v : order)
+            {
+                double weight = search.getDistance(v) - bound(root, v, i);
+                size[v] = weight;
+                covered[v] = isLandmark[v];
+                for (int c = childOffsets[v]; c < childOffsets[v + 1]; c++)
+                {
+                    int child = children[c];
+                    size[v] += size[child];
+                    covered[v] |= covered[child];
+                }
+                if (covered[v]) size[v] = 0;
+            }
+
+            // walk down the heaviest subtrees to a leaf
+            int node = root;
+            while (childOffsets[node] < childOffsets[node + 1])
+            {
+                int heaviest = children[childOffsets[node]];
+                for (int c = childOffsets[node] + 1; c < childOffsets[node + 1]; c++)
+                {
+                    if (size[children[c]] > size[heaviest]) heaviest = children[c];
+                }
+                node = heaviest;
+            }
+            return isLandmark[node] || size[root] == 0 ? farthestFrom(i == 0 ? search.getDistances() : nearest) : node;
+        }
+
+        // forward-table lower bound on d(root, v) from the first count landmarks
+        private double bound(int root, int v, int count)
+        {
+            double best = 0.0;
+            for (int j = 0; j < count; j++)
+            {
+                double lv = fromLandmark[v * k + j];
+                double lr = fromLandmark[root * k + j];
+                if (lv < Double.POSITIVE_INFINITY && lr < Double.POSITIVE_INFINITY) best = Math.max(best, lv - lr);
+            }
+            return best;
+        }
+
+        private int[] postOrder(int root, int[] childOffsets, int[] children)
+        {
+            IntList order = new IntList();
+            IntStack stack = new IntStack();
+            stack.push(root);
+            // children are pushed after their parent, so reversing the visit order puts
+            // every child before its parent
+            while (!stack.isEmpty())
+            {
+                int v = stack.pop();
+                order.add(v);
+                for (int c = childOffsets[v]; c < childOffsets[v + 1]; c++)
+                {
+                    stack.push(children[c]);
+                }
+            }
+            int[] result = order.toArray();
+            for (int a = 0, b = result.length - 1; a < b; a++, b--)
+            {
+                int tmp = result[a];
+                result[a] = result[b];
+                result[b] = tmp;
+            }
+            return result;
+        }
+    }
+}
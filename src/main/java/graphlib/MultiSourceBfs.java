@@ -0,0 +1,169 @@
+package graphlib;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Breadth-first searches from many sources of a {@link FrozenGraph} at once (Then et al.,
+ * "The More the Merrier: Efficient Multi-Source Graph Traversal").
+ *
+ * Sources are taken 64 at a time, one bit each in a <code>long</code> per node: a node's
+ * <code>seen</code> word holds the searches that have reached it and its
+ * <code>visit</code> word the searches for which it is on the frontier. Expanding a
+ * frontier node scans its edges once for every search it is in, passing
+ * <code>visit &amp; ~seen</code> on to each neighbour, so searches that overlap, as they do in
+ * most of a low-diameter graph, share their edge scans. Batches of 64 run in parallel on
+ * the pool, each with its own workspace of about 32 bytes per node.
+ *
+ * On graphs of long diameter such as meshes the searches rarely meet on a level, so there is
+ * little to share and the larger workspace makes it slower than one {@link FrozenGraph#bfs}
+ * per source.
+ */
+public class MultiSourceBfs
+{
+    private static final int BATCH = 64;
+
+    private final FrozenGraph graph;
+    private final ForkJoinPool pool;
+
+    public MultiSourceBfs(FrozenGraph graph)
+    {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public MultiSourceBfs(FrozenGraph graph, ForkJoinPool pool)
+    {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    public FrozenGraph getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * The hop distance from each source to every node, -1 where unreachable:
+     * <code>distances(sources)[i][v]</code> is the distance from <code>sources[i]</code> to
+     * <code>v</code>. Takes 4 bytes per source and node; use {@link #run} to consume the
+     * distances as they are found instead.
+     */
+    public int[][] distances(int... sources)
+    {
+        int[][] distances = new int[sources.length][];
+        pool.submit(() -> IntStream.range(0, sources.length).parallel().forEach(i ->
+        {
+            distances[i] = new int[graph.getNumNodes()];
+            Arrays.fill(distances[i], -1);
+        })).join();
+        run(sources, (source, node, depth) -> distances[source][node] = depth);
+        return distances;
+    }
+
+    public int[][] distances(String... sourceNames)
+    {
+        return distances(ids(sourceNames));
+    }
+
+    private int[] ids(String[] names)
+    {
+        int[] ids = new int[names.length];
+        for (int i = 0; i < names.length; i++)
+        {
+            ids[i] = graph.getId(names[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * Searches from every source, calling <code>visitor</code> for each source and node it
+     * reaches, the source itself included at depth 0. Within a batch of 64 sources the
+     * visits come in order of depth.
+     */
+    public void run(int[] sources, MultiSourceVisitor visitor)
+    {
+        for (int source : sources)
+        {
+            if (source < 0 || source >= graph.getNumNodes())
+            {
+                throw new IllegalArgumentException("Node " + source + " not found");
+            }
+        }
+        int numBatches = (sources.length + BATCH - 1) / BATCH;
+        pool.submit(() -> IntStream.range(0, numBatches).parallel().forEach(b ->
+            runBatch(sources, b * BATCH, Math.min(sources.length, (b + 1) * BATCH), visitor))).join();
+    }
+
+    public void run(String[] sourceNames, MultiSourceVisitor visitor)
+    {
+        run(ids(sourceNames), visitor);
+    }
+
+    private void runBatch(int[] sources, int first, int end, MultiSourceVisitor visitor)
+    {
+        int n = graph.getNumNodes();
+        long[] seen = new long[n];
+        long[] visit = new long[n];
+        long[] visitNext = new long[n];
+        int[] frontier = new int[n];
+        int[] next = new int[n];
+        int frontierSize = 0;
+        for (int i = first; i < end; i++)
+        {
+            int s = sources[i];
+            if (visit[s] == 0)
+            {
+                frontier[frontierSize++] = s;
+            }
+            seen[s] |= 1L << (i - first);
+            visit[s] |= 1L << (i - first);
+            visitor.visit(i, s, 0);
+        }
+
+        for (int depth = 1; frontierSize > 0; depth++)
+        {
+            int nextSize = 0;
+            for (int f = 0; f < frontierSize; f++)
+            {
+                int v = frontier[f];
+                long bits = visit[v];
+                for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++)
+                {
+                    int w = graph.getTarget(e);
+                    long reached = bits & ~seen[w];
+                    if (reached != 0)
+                    {
+                        if (visitNext[w] == 0)
+                        {
+                            next[nextSize++] = w;
+                        }
+                        visitNext[w] |= reached;
+                    }
+                }
+            }
+            // seen is only updated between levels, so every search sees the same level
+            for (int f = 0; f < nextSize; f++)
+            {
+                int w = next[f];
+                long reached = visitNext[w];
+                seen[w] |= reached;
+                for (; reached != 0; reached &= reached - 1)
+                {
+                    visitor.visit(first + Long.numberOfTrailingZeros(reached), w, depth);
+                }
+            }
+            for (int f = 0; f < frontierSize; f++)
+            {
+                visit[frontier[f]] = 0;
+            }
+            long[] swapBits = visit;
+            visit = visitNext;
+            visitNext = swapBits;
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            frontierSize = nextSize;
+        }
+    }
+}
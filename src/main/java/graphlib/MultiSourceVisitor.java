@@ -0,0 +1,12 @@
+package graphlib;
+
+/**
+ * Visitor for {@link MultiSourceBfs}, called once for every source and every node it
+ * reaches. <code>source</code> is the index of the source in the array the search was
+ * given, not its node id. Batches of sources run in parallel, so implementations must be
+ * thread-safe across different sources.
+ */
+public interface MultiSourceVisitor
+{
+    public void visit(int source, int node, int depth);
+}
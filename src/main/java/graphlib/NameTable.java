@@ -0,0 +1,16 @@
+package graphlib;
+
+/**
+ * The dictionary between dense node ids and node names of a {@link FrozenGraph}.
+ */
+interface NameTable
+{
+    int size();
+
+    String getName(int id);
+
+    /**
+     * Returns the id of the given name, or -1 if there is no such name.
+     */
+    int getId(String name);
+}
@@ -1,17 +1,46 @@
 package graphlib;
 
+import java.util.AbstractCollection;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Map;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
+/**
+ * A node of a {@link Graph} and its outgoing edges.
+ *
+ * Edges are kept in insertion order in two parallel arrays, the neighbours and their
+ * weights as primitive doubles, rather than in a map with an entry and a boxed weight per
+ * edge. Up to {@value #INLINE} neighbours are looked up by a linear scan; past that an
+ * open-addressing table of positions in the arrays, hashed on identity, is added. A node
+ * with no edges allocates no arrays.
+ */
 public class Node
 {
+    private static final int INLINE = 8;
+    private static final Node[] NO_NEIGHBORS = new Node[0];
+    private static final double[] NO_WEIGHTS = new double[0];
+
     private String name;
-    private Map<Node, Double> neighbors;
+    private Node[] neighbors = NO_NEIGHBORS;
+    private double[] weights = NO_WEIGHTS;
+    private int degree;
+    // positions in neighbors plus one, 0 for an empty slot; null while the degree is small
+    private int[] slots;
+    // the graph that created this node and its position there, or null and -1
+    final Graph graph;
+    final int index;
 
     public Node(String name)
+    {
+        this(name, null, -1);
+    }
+
+    Node(String name, Graph graph, int index)
     {
         this.name = name;
-        neighbors = new java.util.HashMap<>();
+        this.graph = graph;
+        this.index = index;
     }
 
     public String getName()
@@ -19,9 +48,87 @@ public class Node
         return name;
     }
 
+    private static int hash(Node node, int mask)
+    {
+        int h = System.identityHashCode(node) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    // the position of the neighbour in the arrays, or -1
+    private int indexOf(Node neighbor)
+    {
+        if (slots == null)
+        {
+            for (int i = 0; i < degree; i++)
+            {
+                if (neighbors[i] == neighbor) return i;
+            }
+            return -1;
+        }
+        int mask = slots.length - 1;
+        for (int s = hash(neighbor, mask); slots[s] != 0; s = (s + 1) & mask)
+        {
+            if (neighbors[slots[s] - 1] == neighbor) return slots[s] - 1;
+        }
+        return -1;
+    }
+
+    private void rebuildSlots()
+    {
+        slots = new int[Integer.highestOneBit(degree * 4 - 1)];
+        int mask = slots.length - 1;
+        for (int i = 0; i < degree; i++)
+        {
+            int s = hash(neighbors[i], mask);
+            while (slots[s] != 0)
+            {
+                s = (s + 1) & mask;
+            }
+            slots[s] = i + 1;
+        }
+    }
+
+    /**
+     * Adds an edge to the neighbour, or replaces the weight of the existing one.
+     */
     public void addDirectedEdge(Node neighbor, double weight)
     {
-        neighbors.put(neighbor, weight);
+        int i = indexOf(neighbor);
+        if (i >= 0)
+        {
+            weights[i] = weight;
+        }
+        else
+        {
+            if (degree == neighbors.length)
+            {
+                int capacity = Math.max(2, degree * 2);
+                neighbors = Arrays.copyOf(neighbors, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            neighbors[degree] = neighbor;
+            weights[degree] = weight;
+            degree++;
+            // keep the table at most half full
+            if (degree > INLINE && (slots == null || degree * 2 > slots.length))
+            {
+                rebuildSlots();
+            }
+            else if (slots != null)
+            {
+                int mask = slots.length - 1;
+                int s = hash(neighbor, mask);
+                while (slots[s] != 0)
+                {
+                    s = (s + 1) & mask;
+                }
+                slots[s] = degree;
+            }
+        }
+        if (graph != null)
+        {
+            graph.edgeAdded(this, neighbor);
+        }
     }
 
     public void addUndirectedEdge(Node neighbor, double weight)
@@ -41,17 +148,79 @@ public class Node
         neighbor.addUnweightedDirectedEdge(this);
     }
 
+    /**
+     * A read-only view of the neighbours in the order their edges were added. The view
+     * follows later additions.
+     */
     public Collection<Node> getNeighbors()
     {
-        return neighbors.keySet();
+        return new AbstractCollection<Node>()
+        {
+            public Iterator<Node> iterator()
+            {
+                return new Iterator<Node>()
+                {
+                    private int next;
+
+                    public boolean hasNext()
+                    {
+                        return next < degree;
+                    }
+
+                    public Node next()
+                    {
+                        if (next >= degree)
+                        {
+                            throw new NoSuchElementException();
+                        }
+                        return neighbors[next++];
+                    }
+                };
+            }
+
+            public int size()
+            {
+                return degree;
+            }
+
+            public boolean contains(Object o)
+            {
+                return o instanceof Node && indexOf((Node) o) >= 0;
+            }
+        };
     }
 
+    public int getDegree()
+    {
+        return degree;
+    }
+
+    // the neighbour and weight of the edge at a position in insertion order, for loops
+    // that want the weight without a lookup
+    Node neighborAt(int i)
+    {
+        return neighbors[i];
+    }
+
+    double weightAt(int i)
+    {
+        return weights[i];
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no edge to the neighbour
+     */
     public double getWeight(Node neighbor)
     {
-        return neighbors.get(neighbor);
+        int i = indexOf(neighbor);
+        if (i < 0)
+        {
+            throw new IllegalArgumentException("Node " + neighbor + " is not a neighbor of " + name);
+        }
+        return weights[i];
     }
 
-    
+
     public String toString()
     {
         return name;
@@ -59,7 +228,7 @@ public class Node
 
     public boolean hasEdge(Node neighbor)
     {
-        return neighbors.containsKey(neighbor);
+        return indexOf(neighbor) >= 0;
     }
 
 }
@@ -0,0 +1,362 @@
+package graphlib;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Level-synchronous parallel breadth-first search on a {@link FrozenGraph} that switches
+ * between top-down and bottom-up steps (Beamer, Asanovic and Patterson, "Direction-Optimizing
+ * Breadth-First Search").
+ *
+ * A top-down step scans the edges of the frontier and claims unvisited neighbours with a
+ * compare-and-set on the visited bitmap. When the frontier's edges outnumber a fraction of
+ * the unexplored edges, as in the middle levels of a low-diameter graph, a bottom-up step
+ * instead lets every unvisited node look for a parent in the frontier among its incoming
+ * edges, stopping at the first one; each thread owns a range of bitmap words, so this
+ * needs no atomics. The search switches back to top-down once the frontier is small.
+ *
+ * After a run, {@link #getDepth} and {@link #getParent} describe a BFS tree. The workspace is
+ * reused between runs, so an instance is not thread-safe.
+ */
+public class ParallelBfs
+{
+    // switch to bottom-up when frontier edges > unexplored edges / ALPHA,
+    // back to top-down when frontier nodes < nodes / BETA
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    // frontier nodes per task in top-down steps, bitmap words per task otherwise
+    private static final int NODE_CHUNK = 1024;
+    private static final int WORD_CHUNK = 32;
+
+    private final FrozenGraph graph;
+    private final FrozenGraph reverse;
+    private final ForkJoinPool pool;
+    private final int numNodes;
+    private final int numWords;
+
+    private final int[] parent;
+    private final int[] depth;
+    private final AtomicLongArray visited;
+    private final long[] frontierBits;
+    private final long[] nextBits;
+    private int[] frontier;
+    private int[] nextFrontier;
+    private int frontierSize;
+
+    private int source = -1;
+    private int visitedCount;
+    private int levels;
+    private int bottomUpLevels;
+
+    public ParallelBfs(FrozenGraph graph)
+    {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public ParallelBfs(FrozenGraph graph, ForkJoinPool pool)
+    {
+        this.graph = graph;
+        this.reverse = graph.transpose();
+        this.pool = pool;
+        numNodes = graph.getNumNodes();
+        numWords = (numNodes + 63) >>> 6;
+        parent = new int[numNodes];
+        depth = new int[numNodes];
+        visited = new AtomicLongArray(numWords);
+        frontierBits = new long[numWords];
+        nextBits = new long[numWords];
+        frontier = new int[numNodes];
+        nextFrontier = new int[numNodes];
+    }
+
+    public FrozenGraph getGraph()
+    {
+        return graph;
+    }
+
+    public void run(String startNodeName, ConcurrentNodeVisitor visitor)
+    {
+        run(graph.getId(startNodeName), visitor);
+    }
+
+    public void run(int source)
+    {
+        run(source, null);
+    }
+
+    /**
+     * Runs the search from <code>source</code>, calling <code>visitor</code> (which may be
+     * null) for every node reached, the source included with parent -1.
+     */
+    public void run(int source, ConcurrentNodeVisitor visitor)
+    {
+        reset();
+        this.source = source;
+        visited.set(source >>> 6, 1L << source);
+        depth[source] = 0;
+        frontier[0] = source;
+        frontierSize = 1;
+        visitedCount = 1;
+        if (visitor != null)
+        {
+            visitor.visit(source, -1, 0);
+        }
+
+        long unexploredEdges = graph.getNumEdges() - graph.getDegree(source);
+        long frontierEdges = graph.getDegree(source);
+        boolean bottomUp = false;
+        int level = 0;
+        while (frontierSize > 0)
+        {
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA)
+            {
+                bottomUp = true;
+                frontierToBits(level);
+            }
+            else if (bottomUp && frontierSize < numNodes / BETA)
+            {
+                bottomUp = false;
+                bitsToFrontier();
+            }
+            long[] step = bottomUp ? bottomUpStep(level, visitor) : topDownStep(level, visitor);
+            frontierSize = (int) step[0];
+            frontierEdges = step[1];
+            unexploredEdges -= frontierEdges;
+            visitedCount += frontierSize;
+            if (bottomUp) bottomUpLevels++;
+            level++;
+        }
+        levels = level;
+    }
+
+    private void reset()
+    {
+        int chunks = (numNodes + NODE_CHUNK - 1) / NODE_CHUNK;
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c ->
+        {
+            int from = c * NODE_CHUNK;
+            int to = Math.min(numNodes, from + NODE_CHUNK);
+            Arrays.fill(parent, from, to, -1);
+            Arrays.fill(depth, from, to, -1);
+            for (int w = from >>> 6; w < (to + 63) >>> 6; w++)
+            {
+                visited.set(w, 0L);
+            }
+        })).join();
+        levels = 0;
+        bottomUpLevels = 0;
+    }
+
+    // marks the node visited; true if this thread was the one to do it
+    private boolean claim(int node)
+    {
+        int word = node >>> 6;
+        long bit = 1L << node;
+        long old = visited.get(word);
+        while ((old & bit) == 0)
+        {
+            if (visited.compareAndSet(word, old, old | bit))
+            {
+                return true;
+            }
+            old = visited.get(word);
+        }
+        return false;
+    }
+
+    // returns {nodes in the next frontier, sum of their out-degrees}
+    private long[] topDownStep(int level, ConcurrentNodeVisitor visitor)
+    {
+        int chunks = (frontierSize + NODE_CHUNK - 1) / NODE_CHUNK;
+        IntList[] found = new IntList[chunks];
+        long[] edges = new long[chunks];
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c ->
+        {
+            IntList next = new IntList();
+            long degrees = 0;
+            int end = Math.min(frontierSize, (c + 1) * NODE_CHUNK);
+            for (int i = c * NODE_CHUNK; i < end; i++)
+            {
+                int u = frontier[i];
+                for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++)
+                {
+                    int v = graph.getTarget(e);
+                    if (claim(v))
+                    {
+                        parent[v] = u;
+                        depth[v] = level + 1;
+                        next.add(v);
+                        degrees += graph.getDegree(v);
+                        if (visitor != null) visitor.visit(v, u, level + 1);
+                    }
+                }
+            }
+            found[c] = next;
+            edges[c] = degrees;
+        })).join();
+        return new long[] {gather(found), Arrays.stream(edges).sum()};
+    }
+
+    // returns {nodes in the next frontier, sum of their out-degrees}
+    private long[] bottomUpStep(int level, ConcurrentNodeVisitor visitor)
+    {
+        int chunks = (numWords + WORD_CHUNK - 1) / WORD_CHUNK;
+        long[] counts = new long[chunks];
+        long[] edges = new long[chunks];
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c ->
+        {
+            long count = 0;
+            long degrees = 0;
+            int end = Math.min(numWords, (c + 1) * WORD_CHUNK);
+            for (int w = c * WORD_CHUNK; w < end; w++)
+            {
+                long seen = visited.get(w);
+                long unvisited = ~seen & validBits(w);
+                long claimed = 0;
+                while (unvisited != 0)
+                {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(unvisited);
+                    unvisited &= unvisited - 1;
+                    for (int e = reverse.edgeStart(v); e < reverse.edgeEnd(v); e++)
+                    {
+                        int u = reverse.getTarget(e);
+                        if ((frontierBits[u >>> 6] & (1L << u)) != 0)
+                        {
+                            parent[v] = u;
+                            depth[v] = level + 1;
+                            claimed |= 1L << v;
+                            count++;
+                            degrees += graph.getDegree(v);
+                            if (visitor != null) visitor.visit(v, u, level + 1);
+                            break;
+                        }
+                    }
+                }
+                nextBits[w] = claimed;
+                if (claimed != 0)
+                {
+                    // this task owns word w during the step, so a plain set is enough
+                    visited.set(w, seen | claimed);
+                }
+            }
+            counts[c] = count;
+            edges[c] = degrees;
+        })).join();
+        System.arraycopy(nextBits, 0, frontierBits, 0, numWords);
+        return new long[] {Arrays.stream(counts).sum(), Arrays.stream(edges).sum()};
+    }
+
+    private long validBits(int word)
+    {
+        int remaining = numNodes - (word << 6);
+        return remaining >= 64 ? -1L : (1L << remaining) - 1;
+    }
+
+    // builds the frontier bitmap from the nodes at the given depth
+    private void frontierToBits(int level)
+    {
+        int chunks = (numWords + WORD_CHUNK - 1) / WORD_CHUNK;
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c ->
+        {
+            int end = Math.min(numWords, (c + 1) * WORD_CHUNK);
+            for (int w = c * WORD_CHUNK; w < end; w++)
+            {
+                long bits = 0;
+                int last = Math.min(numNodes, (w + 1) << 6);
+                for (int v = w << 6; v < last; v++)
+                {
+                    if (depth[v] == level) bits |= 1L << v;
+                }
+                frontierBits[w] = bits;
+            }
+        })).join();
+    }
+
+    private void bitsToFrontier()
+    {
+        int chunks = (numWords + WORD_CHUNK - 1) / WORD_CHUNK;
+        IntList[] found = new IntList[chunks];
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c ->
+        {
+            IntList nodes = new IntList();
+            int end = Math.min(numWords, (c + 1) * WORD_CHUNK);
+            for (int w = c * WORD_CHUNK; w < end; w++)
+            {
+                for (long bits = frontierBits[w]; bits != 0; bits &= bits - 1)
+                {
+                    nodes.add((w << 6) + Long.numberOfTrailingZeros(bits));
+                }
+            }
+            found[c] = nodes;
+        })).join();
+        frontierSize = gather(found);
+    }
+
+    // concatenates the per-task lists into the frontier array and returns its size
+    private int gather(IntList[] parts)
+    {
+        int[] offsets = new int[parts.length + 1];
+        for (int i = 0; i < parts.length; i++)
+        {
+            offsets[i + 1] = offsets[i] + parts[i].size();
+        }
+        pool.submit(() -> IntStream.range(0, parts.length).parallel()
+            .forEach(i -> parts[i].copyInto(nextFrontier, offsets[i]))).join();
+        int[] swap = frontier;
+        frontier = nextFrontier;
+        nextFrontier = swap;
+        return offsets[parts.length];
+    }
+
+    public int getSource()
+    {
+        return source;
+    }
+
+    /**
+     * The number of edges from the source, or -1 if the node was not reached.
+     */
+    public int getDepth(int node)
+    {
+        return depth[node];
+    }
+
+    /**
+     * The node that discovered <code>node</code>, or -1 for the source and unreached nodes.
+     */
+    public int getParent(int node)
+    {
+        return parent[node];
+    }
+
+    /**
+     * A copy of the depths from the last run, indexed by node id.
+     */
+    public int[] getDepths()
+    {
+        return depth.clone();
+    }
+
+    public int getVisitedCount()
+    {
+        return visitedCount;
+    }
+
+    /**
+     * The number of levels expanded, which is the largest depth plus one.
+     */
+    public int getNumLevels()
+    {
+        return levels;
+    }
+
+    /**
+     * How many of those levels ran bottom-up; useful when tuning on a new kind of graph.
+     */
+    public int getBottomUpLevels()
+    {
+        return bottomUpLevels;
+    }
+}
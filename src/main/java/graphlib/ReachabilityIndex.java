@@ -0,0 +1,224 @@
+package graphlib;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Answers "can a reach b" without materializing the transitive closure, using GRAIL
+ * interval labels (Yildirim, Chaoji and Zaki) over the condensed DAG of
+ * {@link StronglyConnectedComponents}.
+ *
+ * Each of k randomized DFS traversals of the DAG gives every component an interval
+ * [lowest post-order number below it, its own post-order number]. If c reaches d then
+ * d's interval lies inside c's in every traversal, so a single non-nested pair proves d
+ * is unreachable. Otherwise a DFS from c decides, pruned by the same test and by the
+ * topological order of the component ids. Building takes time and memory linear in the
+ * graph; most negative queries are answered by the labels alone.
+ *
+ * Queries share a visited-stamp workspace, so an instance is not thread-safe.
+ */
+public class ReachabilityIndex
+{
+    private static final int DEFAULT_LABELINGS = 5;
+
+    private final FrozenGraph graph;
+    private final StronglyConnectedComponents components;
+    private final int k;
+    // low[c * k + i], post[c * k + i]: the interval of component c in traversal i
+    private final int[] low;
+    private final int[] post;
+
+    private final int[] visited;
+    private final IntStack stack = new IntStack();
+    private int stamp;
+    private int lastVisited;
+
+    private ReachabilityIndex(FrozenGraph graph, StronglyConnectedComponents components, int k, int[] low, int[] post)
+    {
+        this.graph = graph;
+        this.components = components;
+        this.k = k;
+        this.low = low;
+        this.post = post;
+        this.visited = new int[components.getNumComponents()];
+    }
+
+    public static ReachabilityIndex build(FrozenGraph graph)
+    {
+        return build(graph, DEFAULT_LABELINGS);
+    }
+
+    /**
+     * Builds the index with <code>labelings</code> interval labels per component; more
+     * labels answer more queries without a search, at 8 bytes per component each.
+     */
+    public static ReachabilityIndex build(FrozenGraph graph, int labelings)
+    {
+        if (labelings < 1)
+        {
+            throw new IllegalArgumentException("Need at least one labeling");
+        }
+        StronglyConnectedComponents components = StronglyConnectedComponents.compute(graph);
+        int numComponents = components.getNumComponents();
+        int[] low = new int[numComponents * labelings];
+        int[] post = new int[numComponents * labelings];
+        boolean[] hasPredecessor = new boolean[numComponents];
+        for (int i = 0; i < components.getNumCondensedEdges(); i++)
+        {
+            hasPredecessor[components.getSuccessor(i)] = true;
+        }
+        SplittableRandom random = new SplittableRandom(numComponents);
+        for (int i = 0; i < labelings; i++)
+        {
+            label(components, hasPredecessor, i, labelings, low, post, random.split());
+        }
+        return new ReachabilityIndex(graph, components, labelings, low, post);
+    }
+
+    // one randomized post-order traversal from the sources of the DAG
+    private static void label(StronglyConnectedComponents components, boolean[] hasPredecessor, int i, int k,
+        int[] low, int[] post, SplittableRandom random)
+    {
+        int numComponents = components.getNumComponents();
+        // children are visited cyclically from first[c] - 1; 0 marks a component not yet entered
+        int[] first = new int[numComponents];
+        int[] seen = new int[numComponents];
+        IntStack stack = new IntStack();
+        int counter = 0;
+        int start = numComponents == 0 ? 0 : random.nextInt(numComponents);
+        for (int r = 0; r < numComponents; r++)
+        {
+            int root = (start + r) % numComponents;
+            if (hasPredecessor[root]) continue;
+            stack.push(root);
+            enter(components, root, first, seen, random);
+            while (!stack.isEmpty())
+            {
+                int c = stack.peek();
+                int from = components.successorStart(c);
+                int degree = components.successorEnd(c) - from;
+                if (seen[c] < degree)
+                {
+                    int d = components.getSuccessor(from + (first[c] + seen[c]++) % degree);
+                    if (first[d] == 0)
+                    {
+                        enter(components, d, first, seen, random);
+                        stack.push(d);
+                    }
+                    continue;
+                }
+                stack.pop();
+                int p = ++counter;
+                int lowest = p;
+                for (int e = from; e < from + degree; e++)
+                {
+                    lowest = Math.min(lowest, low[components.getSuccessor(e) * k + i]);
+                }
+                low[c * k + i] = lowest;
+                post[c * k + i] = p;
+            }
+        }
+    }
+
+    private static void enter(StronglyConnectedComponents components, int c, int[] first, int[] seen,
+        SplittableRandom random)
+    {
+        int degree = components.successorEnd(c) - components.successorStart(c);
+        first[c] = degree == 0 ? 1 : 1 + random.nextInt(degree);
+        seen[c] = 0;
+    }
+
+    public FrozenGraph getGraph()
+    {
+        return graph;
+    }
+
+    public StronglyConnectedComponents getComponents()
+    {
+        return components;
+    }
+
+    // whether d's intervals all lie inside c's, which is necessary for c to reach d
+    private boolean mayReach(int c, int d)
+    {
+        int ck = c * k;
+        int dk = d * k;
+        for (int i = 0; i < k; i++)
+        {
+            if (low[dk + i] < low[ck + i] || post[dk + i] > post[ck + i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean canReach(String from, String to)
+    {
+        return canReach(graph.getId(from), graph.getId(to));
+    }
+
+    /**
+     * Whether there is a path from node u to node v. Every node reaches itself.
+     */
+    public boolean canReach(int u, int v)
+    {
+        int source = components.getComponent(u);
+        int target = components.getComponent(v);
+        lastVisited = 0;
+        if (source == target)
+        {
+            return true;
+        }
+        // ids decrease along condensed edges, and the labels must nest
+        if (target > source || !mayReach(source, target))
+        {
+            return false;
+        }
+        if (++stamp == 0)
+        {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+        stack.clear();
+        stack.push(source);
+        visited[source] = stamp;
+        while (!stack.isEmpty())
+        {
+            int c = stack.pop();
+            lastVisited++;
+            for (int e = components.successorStart(c); e < components.successorEnd(c); e++)
+            {
+                int d = components.getSuccessor(e);
+                if (d == target)
+                {
+                    return true;
+                }
+                if (d < target || visited[d] == stamp || !mayReach(d, target)) continue;
+                visited[d] = stamp;
+                stack.push(d);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Components the last {@link #canReach} query expanded in its fallback search; zero
+     * when the labels alone answered it.
+     */
+    public int getLastVisitedCount()
+    {
+        return lastVisited;
+    }
+
+    /**
+     * Approximate memory of the index: the labels, the component of every node and the
+     * condensed DAG.
+     */
+    public long getSizeBytes()
+    {
+        long numComponents = components.getNumComponents();
+        return 8L * k * numComponents + 4L * graph.getNumNodes() * 2 + 4L * (numComponents + 1) * 2
+            + 4L * components.getNumCondensedEdges();
+    }
+}
@@ -0,0 +1,55 @@
+package graphlib;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a point-to-point shortest path query.
+ */
+public class ShortestPath
+{
+    private final double distance;
+    private final List<String> path;
+    private final int settledCount;
+
+    public ShortestPath(double distance, List<String> path, int settledCount)
+    {
+        this.distance = distance;
+        this.path = Collections.unmodifiableList(path);
+        this.settledCount = settledCount;
+    }
+
+    /**
+     * The length of the path, or {@link Double#POSITIVE_INFINITY} if the target is unreachable.
+     */
+    public double getDistance()
+    {
+        return distance;
+    }
+
+    /**
+     * The node names from source to target, or an empty list if the target is unreachable.
+     */
+    public List<String> getPath()
+    {
+        return path;
+    }
+
+    public boolean isReachable()
+    {
+        return !path.isEmpty();
+    }
+
+    /**
+     * How many nodes the search settled before it finished, a measure of the work done.
+     */
+    public int getSettledCount()
+    {
+        return settledCount;
+    }
+
+    public String toString()
+    {
+        return distance + " " + path;
+    }
+}
@@ -0,0 +1,336 @@
+package graphlib;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of single-source shortest path distances of a {@link Graph}, for
+ * workloads where a few sources account for most queries.
+ *
+ * Each entry is the distances from one source as a <code>double[]</code> over the node ids of
+ * a {@link FrozenGraph} snapshot, computed with {@link DijkstraSearch}. Every entry has
+ * the same size, so the byte budget caps the number of entries. Eviction follows W-TinyLFU
+ * (Einziger, Friedman and Manes, "TinyLFU: A Highly Efficient Cache Admission Policy"): new
+ * entries go to a small LRU window, and an entry leaving the window only displaces the
+ * least recently used entry of the main area if a frequency sketch of recent queries
+ * counts its source more often. The main area is a segmented LRU, so entries hit twice
+ * are protected from one-off scans.
+ *
+ * The cache checks {@link Graph#getModificationCount} on every query and drops all
+ * entries, and its snapshot, once the graph has changed. Not thread-safe.
+ */
+public class ShortestPathCache
+{
+    // bytes of an entry besides its distances: map nodes, array header, the entry itself
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final Graph graph;
+    private final long maxBytes;
+
+    private long modificationCount = -1;
+    private FrozenGraph snapshot;
+    private Node[] nodesById;
+    private DijkstraSearch search;
+    private int windowCapacity;
+    private int protectedCapacity;
+    private int mainCapacity;
+
+    // the segments in LRU order, least recently used first
+    private final LinkedHashMap<String, double[]> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, double[]> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, double[]> protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+    private FrequencySketch sketch;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * A cache of <code>graph</code> holding about <code>maxBytes</code> of distances, and at
+     * least one entry.
+     */
+    public ShortestPathCache(Graph graph, long maxBytes)
+    {
+        if (maxBytes <= 0)
+        {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxBytes);
+        }
+        this.graph = graph;
+        this.maxBytes = maxBytes;
+    }
+
+    // counts the number of times a source was queried lately, in 4-bit counters that are
+    // halved every 10 queries per entry so old popularity fades
+    static class FrequencySketch
+    {
+        private final byte[] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        // an odd seed per row, so that keys whose hashes are close do not share counters
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+        // 2^30 counters at most, a gigabyte
+        private static final int MAX_SIZE = 1 << 30;
+
+        FrequencySketch(int capacity)
+        {
+            int size = size(capacity);
+            counters = new byte[size];
+            mask = size - 1;
+            sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(capacity, 16));
+        }
+
+        // a power of two of at least four counters per entry
+        static int size(int capacity)
+        {
+            long wanted = Math.max(16, 4L * capacity);
+            return (int) Math.min(MAX_SIZE, Long.highestOneBit(wanted - 1) << 1);
+        }
+
+        private int index(int hash, int row)
+        {
+            int h = hash * SEEDS[row];
+            h ^= h >>> 16;
+            h *= 0x7FEB352D;
+            h ^= h >>> 15;
+            return h & mask;
+        }
+
+        int frequency(String key)
+        {
+            int hash = key.hashCode();
+            int min = 15;
+            for (int row = 0; row < 4; row++)
+            {
+                min = Math.min(min, counters[index(hash, row)]);
+            }
+            return min;
+        }
+
+        void increment(String key)
+        {
+            int hash = key.hashCode();
+            for (int row = 0; row < 4; row++)
+            {
+                int i = index(hash, row);
+                if (counters[i] < 15) counters[i]++;
+            }
+            if (++additions == sampleSize)
+            {
+                for (int i = 0; i < counters.length; i++)
+                {
+                    counters[i] >>= 1;
+                }
+                additions /= 2;
+            }
+        }
+    }
+
+    private void validate()
+    {
+        if (modificationCount == graph.getModificationCount())
+        {
+            return;
+        }
+        if (snapshot != null)
+        {
+            invalidations++;
+        }
+        window.clear();
+        probation.clear();
+        protectedArea.clear();
+        snapshot = graph.freeze();
+        search = new DijkstraSearch(snapshot);
+        nodesById = new Node[snapshot.getNumNodes()];
+        for (Node node : graph.getAllNodes())
+        {
+            nodesById[snapshot.getId(node.getName())] = node;
+        }
+        int capacity = (int) Math.max(1, Math.min(Integer.MAX_VALUE / 2, maxBytes / getEntryBytes()));
+        windowCapacity = Math.max(1, capacity / 100);
+        mainCapacity = capacity - windowCapacity;
+        protectedCapacity = mainCapacity * 4 / 5;
+        if (sketch == null || sketch.counters.length < FrequencySketch.size(capacity))
+        {
+            sketch = new FrequencySketch(capacity);
+        }
+        modificationCount = graph.getModificationCount();
+    }
+
+    private double[] lookup(String source)
+    {
+        validate();
+        int id = snapshot.getId(source);
+        sketch.increment(source);
+        double[] distances = window.get(source);
+        if (distances == null)
+        {
+            distances = protectedArea.get(source);
+        }
+        if (distances == null)
+        {
+            distances = probation.remove(source);
+            if (distances != null)
+            {
+                promote(source, distances);
+            }
+        }
+        if (distances != null)
+        {
+            hits++;
+            return distances;
+        }
+
+        misses++;
+        search.run(id);
+        distances = search.getDistances();
+        window.put(source, distances);
+        if (window.size() > windowCapacity)
+        {
+            Map.Entry<String, double[]> candidate = removeEldest(window);
+            admit(candidate.getKey(), candidate.getValue());
+        }
+        return distances;
+    }
+
+    // a second hit moves an entry from probation to protected, which may demote another
+    private void promote(String source, double[] distances)
+    {
+        protectedArea.put(source, distances);
+        if (protectedArea.size() > protectedCapacity)
+        {
+            Map.Entry<String, double[]> demoted = removeEldest(protectedArea);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    // an entry leaving the window joins probation if there is room or it is queried more
+    // often than the entry probation would evict
+    private void admit(String source, double[] distances)
+    {
+        if (probation.size() + protectedArea.size() < mainCapacity)
+        {
+            probation.put(source, distances);
+            return;
+        }
+        LinkedHashMap<String, double[]> from = probation.isEmpty() ? protectedArea : probation;
+        if (from.isEmpty())
+        {
+            evictions++;
+            return;
+        }
+        String victim = from.keySet().iterator().next();
+        if (sketch.frequency(source) > sketch.frequency(victim))
+        {
+            from.remove(victim);
+            probation.put(source, distances);
+        }
+        evictions++;
+    }
+
+    private static Map.Entry<String, double[]> removeEldest(LinkedHashMap<String, double[]> map)
+    {
+        Iterator<Map.Entry<String, double[]>> it = map.entrySet().iterator();
+        Map.Entry<String, double[]> eldest = it.next();
+        Map.Entry<String, double[]> copy = Map.entry(eldest.getKey(), eldest.getValue());
+        it.remove();
+        return copy;
+    }
+
+    /**
+     * The shortest path distance between two nodes, or {@link Double#POSITIVE_INFINITY} if
+     * there is no path, computing and caching the distances from <code>source</code> on a miss.
+     * @throws IllegalArgumentException if either node is not in the graph
+     */
+    public double getDistance(String source, String target)
+    {
+        double[] distances = lookup(source);
+        return distances[snapshot.getId(target)];
+    }
+
+    /**
+     * The same as {@link Graph#dijkstra}, from the cache: the distance to every node
+     * reachable from <code>source</code>.
+     */
+    public Map<Node, Double> dijkstra(String source)
+    {
+        double[] distances = lookup(source);
+        Map<Node, Double> result = new HashMap<>();
+        for (int v = 0; v < distances.length; v++)
+        {
+            if (distances[v] != Double.POSITIVE_INFINITY)
+            {
+                result.put(nodesById[v], distances[v]);
+            }
+        }
+        return result;
+    }
+
+    public boolean contains(String source)
+    {
+        return modificationCount == graph.getModificationCount()
+            && (window.containsKey(source) || probation.containsKey(source) || protectedArea.containsKey(source));
+    }
+
+    public int size()
+    {
+        return window.size() + probation.size() + protectedArea.size();
+    }
+
+    public long getMaxBytes()
+    {
+        return maxBytes;
+    }
+
+    /**
+     * The bytes of one entry for the graph as of the last query, distances plus overhead.
+     */
+    public long getEntryBytes()
+    {
+        return 8L * (snapshot == null ? graph.getAllNodes().size() : snapshot.getNumNodes()) + ENTRY_OVERHEAD;
+    }
+
+    public long getSizeBytes()
+    {
+        return size() * getEntryBytes();
+    }
+
+    public long getHitCount()
+    {
+        return hits;
+    }
+
+    public long getMissCount()
+    {
+        return misses;
+    }
+
+    /**
+     * The fraction of queries answered from the cache, or 0 before the first query.
+     */
+    public double getHitRate()
+    {
+        long queries = hits + misses;
+        return queries == 0 ? 0.0 : (double) hits / queries;
+    }
+
+    /**
+     * The number of entries dropped, or not admitted, for lack of room.
+     */
+    public long getEvictionCount()
+    {
+        return evictions;
+    }
+
+    /**
+     * The number of times the cache was emptied because the graph changed.
+     */
+    public long getInvalidationCount()
+    {
+        return invalidations;
+    }
+}
@@ -0,0 +1,198 @@
+package graphlib;
+
+import java.util.Arrays;
+
+/**
+ * The strongly connected components of a {@link FrozenGraph} and the DAG they condense to.
+ *
+ * Found with an iterative version of Tarjan's algorithm, so deep graphs cannot overflow the
+ * call stack. Tarjan completes a component only after every component it reaches, so the
+ * components are numbered in reverse topological order: each condensed edge goes from a
+ * higher component id to a lower one.
+ */
+public class StronglyConnectedComponents
+{
+    private final FrozenGraph graph;
+    private final int[] component;
+    private final int numComponents;
+    // members of component c are members[memberOffsets[c] .. memberOffsets[c + 1])
+    private final int[] memberOffsets;
+    private final int[] members;
+    // the condensed DAG, without duplicate edges or self loops
+    private final int[] successorOffsets;
+    private final int[] successors;
+
+    private StronglyConnectedComponents(FrozenGraph graph, int[] component, int numComponents)
+    {
+        this.graph = graph;
+        this.component = component;
+        this.numComponents = numComponents;
+        int numNodes = graph.getNumNodes();
+
+        memberOffsets = new int[numComponents + 1];
+        for (int v = 0; v < numNodes; v++)
+        {
+            memberOffsets[component[v] + 1]++;
+        }
+        for (int c = 0; c < numComponents; c++)
+        {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        members = new int[numNodes];
+        int[] next = Arrays.copyOf(memberOffsets, numComponents);
+        for (int v = 0; v < numNodes; v++)
+        {
+            members[next[component[v]]++] = v;
+        }
+
+        successorOffsets = new int[numComponents + 1];
+        IntList edges = new IntList();
+        int[] stamp = new int[numComponents];
+        Arrays.fill(stamp, -1);
+        for (int c = 0; c < numComponents; c++)
+        {
+            stamp[c] = c;
+            for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++)
+            {
+                int v = members[i];
+                for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++)
+                {
+                    int d = component[graph.getTarget(e)];
+                    if (stamp[d] != c)
+                    {
+                        stamp[d] = c;
+                        edges.add(d);
+                    }
+                }
+            }
+            successorOffsets[c + 1] = edges.size();
+        }
+        successors = edges.toArray();
+    }
+
+    public static StronglyConnectedComponents compute(FrozenGraph graph)
+    {
+        int numNodes = graph.getNumNodes();
+        int[] index = new int[numNodes];
+        int[] low = new int[numNodes];
+        int[] nextEdge = new int[numNodes];
+        int[] component = new int[numNodes];
+        boolean[] onStack = new boolean[numNodes];
+        Arrays.fill(index, -1);
+        IntStack calls = new IntStack();
+        IntStack open = new IntStack();
+        int counter = 0;
+        int numComponents = 0;
+
+        for (int root = 0; root < numNodes; root++)
+        {
+            if (index[root] >= 0) continue;
+            index[root] = low[root] = counter++;
+            nextEdge[root] = graph.edgeStart(root);
+            open.push(root);
+            onStack[root] = true;
+            calls.push(root);
+            while (!calls.isEmpty())
+            {
+                int u = calls.peek();
+                if (nextEdge[u] < graph.edgeEnd(u))
+                {
+                    int v = graph.getTarget(nextEdge[u]++);
+                    if (index[v] < 0)
+                    {
+                        // descend into v
+                        index[v] = low[v] = counter++;
+                        nextEdge[v] = graph.edgeStart(v);
+                        open.push(v);
+                        onStack[v] = true;
+                        calls.push(v);
+                    }
+                    else if (onStack[v])
+                    {
+                        low[u] = Math.min(low[u], index[v]);
+                    }
+                    continue;
+                }
+                // all edges of u done: return to the caller
+                calls.pop();
+                if (!calls.isEmpty())
+                {
+                    int caller = calls.peek();
+                    low[caller] = Math.min(low[caller], low[u]);
+                }
+                if (low[u] == index[u])
+                {
+                    int v;
+                    do
+                    {
+                        v = open.pop();
+                        onStack[v] = false;
+                        component[v] = numComponents;
+                    }
+                    while (v != u);
+                    numComponents++;
+                }
+            }
+        }
+        return new StronglyConnectedComponents(graph, component, numComponents);
+    }
+
+    public FrozenGraph getGraph()
+    {
+        return graph;
+    }
+
+    public int getNumComponents()
+    {
+        return numComponents;
+    }
+
+    public int getComponent(int node)
+    {
+        return component[node];
+    }
+
+    public int getComponentSize(int c)
+    {
+        return memberOffsets[c + 1] - memberOffsets[c];
+    }
+
+    public int memberStart(int c)
+    {
+        return memberOffsets[c];
+    }
+
+    public int memberEnd(int c)
+    {
+        return memberOffsets[c + 1];
+    }
+
+    public int getMember(int i)
+    {
+        return members[i];
+    }
+
+    /**
+     * The condensed edges of component c are <code>successorStart(c)</code> to
+     * <code>successorEnd(c)</code>, read with {@link #getSuccessor}.
+     */
+    public int successorStart(int c)
+    {
+        return successorOffsets[c];
+    }
+
+    public int successorEnd(int c)
+    {
+        return successorOffsets[c + 1];
+    }
+
+    public int getSuccessor(int i)
+    {
+        return successors[i];
+    }
+
+    public int getNumCondensedEdges()
+    {
+        return successors.length;
+    }
+}
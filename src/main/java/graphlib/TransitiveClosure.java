@@ -0,0 +1,262 @@
+package graphlib;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The transitive closure of a {@link FrozenGraph}, stored per strongly connected component.
+ *
+ * All nodes of a component reach the same set, so there is one bitset per component,
+ * over component ids. Components are processed in reverse topological order, so the sets
+ * of all successors are ready when a component is reached. A successor whose bit is
+ * already set is skipped, since every stored set is closed and so already contains
+ * everything that successor reaches.
+ */
+public class TransitiveClosure
+{
+    private final FrozenGraph graph;
+    private final StronglyConnectedComponents components;
+    private final BitSet[] reach;
+
+    private TransitiveClosure(FrozenGraph graph, StronglyConnectedComponents components, BitSet[] reach)
+    {
+        this.graph = graph;
+        this.components = components;
+        this.reach = reach;
+    }
+
+    public static TransitiveClosure compute(FrozenGraph graph)
+    {
+        StronglyConnectedComponents components = StronglyConnectedComponents.compute(graph);
+        int numComponents = components.getNumComponents();
+        BitSet[] reach = new BitSet[numComponents];
+        for (int c = 0; c < numComponents; c++)
+        {
+            // successors have smaller ids; the largest first tend to cover the rest
+            int from = components.successorStart(c);
+            int to = components.successorEnd(c);
+            int[] successors = new int[to - from];
+            for (int i = from; i < to; i++)
+            {
+                successors[i - from] = components.getSuccessor(i);
+            }
+            Arrays.sort(successors);
+            BitSet set = new BitSet(c + 1);
+            set.set(c);
+            for (int i = successors.length - 1; i >= 0; i--)
+            {
+                if (!set.get(successors[i]))
+                {
+                    set.or(reach[successors[i]]);
+                }
+            }
+            reach[c] = set;
+        }
+        return new TransitiveClosure(graph, components, reach);
+    }
+
+    public FrozenGraph getGraph()
+    {
+        return graph;
+    }
+
+    public StronglyConnectedComponents getComponents()
+    {
+        return components;
+    }
+
+    /**
+     * Whether there is a path from u to v. Every node reaches itself.
+     */
+    public boolean isReachable(int u, int v)
+    {
+        return reach[components.getComponent(u)].get(components.getComponent(v));
+    }
+
+    public boolean isReachable(String from, String to)
+    {
+        return isReachable(graph.getId(from), graph.getId(to));
+    }
+
+    /**
+     * The number of nodes reachable from u, including u.
+     */
+    public int getReachableCount(int u)
+    {
+        BitSet set = reach[components.getComponent(u)];
+        int count = 0;
+        for (int c = set.nextSetBit(0); c >= 0; c = set.nextSetBit(c + 1))
+        {
+            count += components.getComponentSize(c);
+        }
+        return count;
+    }
+
+    /**
+     * A new bitset of the node ids reachable from u, including u.
+     */
+    public BitSet reachableFrom(int u)
+    {
+        BitSet set = reach[components.getComponent(u)];
+        BitSet nodes = new BitSet(graph.getNumNodes());
+        for (int c = set.nextSetBit(0); c >= 0; c = set.nextSetBit(c + 1))
+        {
+            for (int i = components.memberStart(c); i < components.memberEnd(c); i++)
+            {
+                nodes.set(components.getMember(i));
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Approximate memory of the component bitsets, which grows with the square of the
+     * number of components.
+     */
+    public long getSizeBytes()
+    {
+        long bytes = 0;
+        for (BitSet set : reach)
+        {
+            bytes += set.size() / 8;
+        }
+        return bytes;
+    }
+
+    /**
+     * A read-only view from each node name to the names it reaches. Nothing is copied:
+     * lookups and iteration read the component bitsets directly.
+     */
+    public Map<String, Set<String>> asMap()
+    {
+        return new AbstractMap<String, Set<String>>()
+        {
+            @Override
+            public Set<String> get(Object key)
+            {
+                if (!(key instanceof String) || !graph.containsNode((String) key))
+                {
+                    return null;
+                }
+                return new ReachableSet(graph.getId((String) key));
+            }
+
+            @Override
+            public boolean containsKey(Object key)
+            {
+                return key instanceof String && graph.containsNode((String) key);
+            }
+
+            @Override
+            public int size()
+            {
+                return graph.getNumNodes();
+            }
+
+            @Override
+            public Set<Entry<String, Set<String>>> entrySet()
+            {
+                return new AbstractSet<Entry<String, Set<String>>>()
+                {
+                    @Override
+                    public int size()
+                    {
+                        return graph.getNumNodes();
+                    }
+
+                    @Override
+                    public Iterator<Entry<String, Set<String>>> iterator()
+                    {
+                        return new Iterator<Entry<String, Set<String>>>()
+                        {
+                            private int next;
+
+                            @Override
+                            public boolean hasNext()
+                            {
+                                return next < graph.getNumNodes();
+                            }
+
+                            @Override
+                            public Entry<String, Set<String>> next()
+                            {
+                                if (!hasNext())
+                                {
+                                    throw new NoSuchElementException();
+                                }
+                                int u = next++;
+                                return new SimpleImmutableEntry<>(graph.getName(u), new ReachableSet(u));
+                            }
+                        };
+                    }
+                };
+            }
+        };
+    }
+
+    private class ReachableSet extends AbstractSet<String>
+    {
+        private final int node;
+        private int size = -1;
+
+        ReachableSet(int node)
+        {
+            this.node = node;
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            return o instanceof String && graph.containsNode((String) o) && isReachable(node, graph.getId((String) o));
+        }
+
+        @Override
+        public int size()
+        {
+            if (size < 0)
+            {
+                size = getReachableCount(node);
+            }
+            return size;
+        }
+
+        @Override
+        public Iterator<String> iterator()
+        {
+            BitSet set = reach[components.getComponent(node)];
+            return new Iterator<String>()
+            {
+                private int c = set.nextSetBit(0);
+                private int i = c < 0 ? 0 : components.memberStart(c);
+
+                @Override
+                public boolean hasNext()
+                {
+                    return c >= 0;
+                }
+
+                @Override
+                public String next()
+                {
+                    if (c < 0)
+                    {
+                        throw new NoSuchElementException();
+                    }
+                    String name = graph.getName(components.getMember(i++));
+                    if (i == components.memberEnd(c))
+                    {
+                        c = set.nextSetBit(c + 1);
+                        if (c >= 0) i = components.memberStart(c);
+                    }
+                    return name;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package graphlib;
+
+/**
+ * What a {@link TraversalVisitor} or {@link IntTraversalVisitor} tells the traversal to do
+ * after visiting a node.
+ */
+public enum TraversalControl
+{
+    /** Go on, and search the neighbors of the node. */
+    CONTINUE,
+    /** Go on, but do not search onwards from this node. */
+    SKIP_SUBTREE,
+    /** End the traversal now. */
+    STOP
+}
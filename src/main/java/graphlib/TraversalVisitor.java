@@ -0,0 +1,12 @@
+package graphlib;
+
+/**
+ * Visitor for the bounded {@link Graph#bfs(String, TraversalVisitor)} and
+ * {@link Graph#dfs(String, TraversalVisitor)}. <code>parent</code> is the node the visited
+ * node was reached from, null for the start node, and <code>depth</code> its number of
+ * edges from the start in the traversal tree.
+ */
+public interface TraversalVisitor
+{
+    public TraversalControl visit(Node node, Node parent, int depth);
+}
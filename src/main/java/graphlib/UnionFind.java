@@ -0,0 +1,98 @@
+package graphlib;
+
+import java.util.Arrays;
+
+/**
+ * A growable disjoint-set forest over the ids <code>0..size()-1</code>, with union by size
+ * and path halving, so every operation is close to constant time. Not thread-safe.
+ */
+class UnionFind
+{
+    private int[] parent;
+    private int[] componentSize;
+    private int size;
+    private int numComponents;
+
+    public UnionFind()
+    {
+        this(16);
+    }
+
+    public UnionFind(int initialCapacity)
+    {
+        parent = new int[Math.max(initialCapacity, 1)];
+        componentSize = new int[parent.length];
+    }
+
+    /**
+     * Adds a new singleton set and returns its id.
+     */
+    public int add()
+    {
+        if (size == parent.length)
+        {
+            parent = Arrays.copyOf(parent, size * 2);
+            componentSize = Arrays.copyOf(componentSize, size * 2);
+        }
+        parent[size] = size;
+        componentSize[size] = 1;
+        numComponents++;
+        return size++;
+    }
+
+    public int find(int x)
+    {
+        while (parent[x] != x)
+        {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * Merges the sets of a and b. Returns false if they were already the same set.
+     */
+    public boolean union(int a, int b)
+    {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB)
+        {
+            return false;
+        }
+        if (componentSize[rootA] < componentSize[rootB])
+        {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        componentSize[rootA] += componentSize[rootB];
+        numComponents--;
+        return true;
+    }
+
+    public boolean connected(int a, int b)
+    {
+        return find(a) == find(b);
+    }
+
+    /**
+     * The number of elements in the set containing x.
+     */
+    public int getComponentSize(int x)
+    {
+        return componentSize[find(x)];
+    }
+
+    public int getNumComponents()
+    {
+        return numComponents;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+}
@@ -0,0 +1,125 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class AStarTest
+{
+    @Test
+    public void testReadCoordinates() throws Exception
+    {
+        Graph g = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt"));
+        g.readCoordinates(new FileInputStream("datafiles/scotlandloc.txt"));
+        assertEquals(143.0, g.getCoordinates("1")[0]);
+        assertEquals(45.0, g.getCoordinates("1")[1]);
+        assertNull(g.getCoordinates("no such node"));
+        FrozenGraph f = g.freeze();
+        assertTrue(f.hasCoordinates());
+        assertEquals(329.0, f.getX(f.getId("2")));
+    }
+
+    @Test
+    public void testScotlandMatchesDijkstra() throws Exception
+    {
+        Graph g = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt"));
+        g.readCoordinates(new FileInputStream("datafiles/scotlandloc.txt"));
+        FrozenGraph f = g.freeze();
+        BidirectionalAStar astar = new BidirectionalAStar(f);
+        DijkstraSearch dijkstra = new DijkstraSearch(f);
+        for (int s = 0; s < f.getNumNodes(); s++)
+        {
+            dijkstra.run(s);
+            for (int t = 0; t < f.getNumNodes(); t++)
+            {
+                assertEquals(dijkstra.getDistance(t), astar.distance(s, t));
+            }
+        }
+    }
+
+    @Test
+    public void testPathOnRandomGeometricGraph()
+    {
+        // points on a jittered grid, connected to their grid neighbours with distance weights
+        Random random = new Random(3);
+        int side = 40;
+        Graph g = new Graph();
+        double[][] xy = new double[side * side][];
+        for (int i = 0; i < side * side; i++)
+        {
+            xy[i] = new double[] {i % side + random.nextDouble() * 0.5, i / side + random.nextDouble() * 0.5};
+            g.setCoordinates(String.valueOf(i), xy[i][0], xy[i][1]);
+        }
+        for (int i = 0; i < side * side; i++)
+        {
+            Node node = g.getOrCreateNode(String.valueOf(i));
+            int[] neighbors = {i % side + 1 < side ? i + 1 : -1, i + side < side * side ? i + side : -1};
+            for (int j : neighbors)
+            {
+                if (j < 0 || random.nextInt(10) == 0) continue;
+                double length = Math.hypot(xy[i][0] - xy[j][0], xy[i][1] - xy[j][1]);
+                node.addUndirectedEdge(g.getOrCreateNode(String.valueOf(j)), length * (1 + random.nextDouble()));
+            }
+        }
+        FrozenGraph f = g.freeze();
+        BidirectionalAStar astar = new BidirectionalAStar(f);
+        DijkstraSearch dijkstra = new DijkstraSearch(f);
+        long astarSettled = 0;
+        long dijkstraSettled = 0;
+        for (int q = 0; q < 200; q++)
+        {
+            String s = String.valueOf(random.nextInt(side * side));
+            String t = String.valueOf(random.nextInt(side * side));
+            ShortestPath path = astar.shortestPath(s, t);
+            dijkstra.run(f.getId(s), f.getId(t));
+            assertEquals(dijkstra.getDistance(f.getId(t)), path.getDistance(), 1e-9);
+            if (path.isReachable())
+            {
+                List<String> nodes = path.getPath();
+                assertEquals(s, nodes.get(0));
+                assertEquals(t, nodes.get(nodes.size() - 1));
+                double length = 0;
+                for (int i = 1; i < nodes.size(); i++)
+                {
+                    Node a = g.getOrCreateNode(nodes.get(i - 1));
+                    length += a.getWeight(g.getOrCreateNode(nodes.get(i)));
+                }
+                assertEquals(path.getDistance(), length, 1e-9);
+            }
+            astarSettled += path.getSettledCount();
+            dijkstraSettled += dijkstra.getSettledCount();
+        }
+        assertTrue(astarSettled < dijkstraSettled, astarSettled + " vs " + dijkstraSettled);
+    }
+
+    @Test
+    public void testDirected() throws Exception
+    {
+        Graph g = Graph.readDirectedWeightedGraph(new FileInputStream("datafiles/graph2.txt"));
+        String[] names = {"A", "B", "C", "D", "E"};
+        for (int i = 0; i < names.length; i++)
+        {
+            g.setCoordinates(names[i], i, 0);
+        }
+        BidirectionalAStar astar = new BidirectionalAStar(g.freeze());
+        assertEquals(List.of("A", "B", "C", "D"), astar.shortestPath("A", "D").getPath());
+        assertEquals(Double.POSITIVE_INFINITY, astar.shortestPath("D", "A").getDistance());
+        assertEquals(List.of("C"), astar.shortestPath("C", "C").getPath());
+    }
+
+    @Test
+    public void testMissingCoordinates() throws Exception
+    {
+        Graph g = Graph.readDirectedWeightedGraph(new FileInputStream("datafiles/graph2.txt"));
+        assertThrows(IllegalArgumentException.class, () -> new BidirectionalAStar(g.freeze()));
+        g.setCoordinates("A", 0, 0);
+        assertThrows(IllegalArgumentException.class, () -> new BidirectionalAStar(g.freeze()));
+    }
+}
@@ -0,0 +1,108 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+public class AllPairsShortestPathsTest
+{
+    // integer weights, so that distances are exact whatever the order of the additions
+    private static FrozenGraph randomGraph(int n, int m, long seed)
+    {
+        return TestGraphs.random(n, m, true, random -> 1 + random.nextInt(20), seed).freeze();
+    }
+
+    private static void assertMatchesDijkstra(FrozenGraph graph, DistanceMatrix matrix, double delta)
+    {
+        assertEquals(graph.getNumNodes(), matrix.getNumNodes());
+        double[] row = new double[graph.getNumNodes()];
+        for (int u = 0; u < graph.getNumNodes(); u++)
+        {
+            double[] expected = graph.dijkstra(graph.getName(u));
+            matrix.getRow(u, row);
+            for (int v = 0; v < graph.getNumNodes(); v++)
+            {
+                assertEquals(expected[v], matrix.get(u, v), delta);
+                assertEquals(expected[v], row[v], delta);
+            }
+        }
+    }
+
+    @Test
+    public void testDijkstraAndFloydWarshallMatch()
+    {
+        // not a whole number of blocks, so the padding is exercised
+        FrozenGraph graph = randomGraph(150, 600, 1);
+        assertFalse(AllPairsShortestPaths.useFloydWarshall(graph));
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try
+        {
+            DistanceMatrix dijkstra = DistanceMatrix.allocate(graph.getNumNodes(), false);
+            AllPairsShortestPaths.dijkstra(graph, pool, dijkstra);
+            assertMatchesDijkstra(graph, dijkstra, 0.0);
+            DistanceMatrix floydWarshall = DistanceMatrix.allocate(graph.getNumNodes(), false);
+            AllPairsShortestPaths.floydWarshall(graph, pool, floydWarshall);
+            assertMatchesDijkstra(graph, floydWarshall, 0.0);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testDenseGraphUsesFloydWarshall() throws Exception
+    {
+        FrozenGraph complete = Graph.readUndirectedUnweightedGraph(new FileInputStream("datafiles/completeGraph.txt")).freeze();
+        assertTrue(AllPairsShortestPaths.useFloydWarshall(complete));
+        assertMatchesDijkstra(complete, AllPairsShortestPaths.compute(complete), 0.0);
+
+        FrozenGraph dense = randomGraph(200, 20000, 2);
+        assertTrue(AllPairsShortestPaths.useFloydWarshall(dense));
+        DistanceMatrix matrix = AllPairsShortestPaths.compute(dense);
+        assertFalse(matrix.isSinglePrecision());
+        assertFalse(matrix.isMapped());
+        assertMatchesDijkstra(dense, matrix, 0.0);
+    }
+
+    @Test
+    public void testSinglePrecision()
+    {
+        FrozenGraph graph = randomGraph(100, 300, 3);
+        DistanceMatrix matrix = AllPairsShortestPaths.compute(graph, ForkJoinPool.commonPool(), true);
+        assertTrue(matrix.isSinglePrecision());
+        assertEquals(4L * 100 * 100, matrix.getSizeBytes());
+        assertMatchesDijkstra(graph, matrix, 1e-3);
+    }
+
+    @Test
+    public void testSpillToFile() throws IOException
+    {
+        FrozenGraph graph = randomGraph(120, 400, 4);
+        Path path = Files.createTempFile("distances", ".bin");
+        try
+        {
+            DistanceMatrix written = AllPairsShortestPaths.computeToFile(graph, ForkJoinPool.commonPool(), false, path);
+            assertTrue(written.isMapped());
+            assertEquals(16 + 8L * 120 * 120, Files.size(path));
+            DistanceMatrix reopened = DistanceMatrix.open(path);
+            assertMatchesDijkstra(graph, reopened, 0.0);
+
+            Files.write(path, new byte[] {1, 2, 3});
+            assertThrows(IOException.class, () -> DistanceMatrix.open(path));
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ComplementGraphTest
+{
+    // hop distances by plain BFS over a materialized graph
+    private static int[] distances(FrozenGraph graph, int source)
+    {
+        int[] depth = new int[graph.getNumNodes()];
+        Arrays.fill(depth, -1);
+        int[] queue = new int[graph.getNumNodes()];
+        int head = 0;
+        int tail = 0;
+        depth[source] = 0;
+        queue[tail++] = source;
+        while (head < tail)
+        {
+            int u = queue[head++];
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++)
+            {
+                int v = graph.getTarget(e);
+                if (depth[v] < 0)
+                {
+                    depth[v] = depth[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return depth;
+    }
+
+    @Test
+    public void testMatchesMaterializedComplement()
+    {
+        // dense originals leave sparse complements with several components
+        for (int edges : new int[] {50, 1500, 2900})
+        {
+            for (boolean directed : new boolean[] {false, true})
+            {
+                FrozenGraph f = TestGraphs.random(80, edges, directed, TestGraphs.UNWEIGHTED, edges).freeze();
+                ComplementGraph complement = new ComplementGraph(f);
+                FrozenGraph materialized = complement.materialize();
+                assertEquals(complement.getNumEdges(), materialized.getNumEdges());
+                assertEquals(materialized.getNumComponents(), complement.getNumComponents());
+                for (int u = 0; u < f.getNumNodes(); u++)
+                {
+                    assertEquals(materialized.getDegree(u), complement.getDegree(u));
+                    assertArrayEquals(distances(materialized, u), complement.distances(u));
+                    int[] neighbors = new int[materialized.getDegree(u)];
+                    for (int e = materialized.edgeStart(u); e < materialized.edgeEnd(u); e++)
+                    {
+                        neighbors[e - materialized.edgeStart(u)] = materialized.getTarget(e);
+                        assertTrue(complement.hasEdge(u, materialized.getTarget(e)));
+                    }
+                    assertArrayEquals(neighbors, complement.neighbors(u).toArray());
+                    assertEquals(complement.reachableFrom(u).cardinality(),
+                        (int) Arrays.stream(complement.distances(u)).filter(d -> d >= 0).count());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testComponentLabels()
+    {
+        // the complement of two disjoint cliques is a complete bipartite graph
+        Graph g = new Graph();
+        for (int i = 0; i < 4; i++)
+        {
+            for (int j = i + 1; j < 4; j++)
+            {
+                g.getOrCreateNode("a" + i).addUnweightedUndirectedEdge(g.getOrCreateNode("a" + j));
+                g.getOrCreateNode("b" + i).addUnweightedUndirectedEdge(g.getOrCreateNode("b" + j));
+            }
+        }
+        ComplementGraph complement = new ComplementGraph(g.freeze());
+        assertEquals(1, complement.getNumComponents());
+        assertFalse(complement.hasEdge(complement.getGraph().getId("a0"), complement.getGraph().getId("a1")));
+        assertTrue(complement.hasEdge(complement.getGraph().getId("a0"), complement.getGraph().getId("b1")));
+        List<String> visited = new ArrayList<>();
+        complement.bfs("a0", node -> visited.add(complement.getGraph().getName(node)));
+        assertEquals(8, visited.size());
+        assertEquals(2, complement.distances(complement.getGraph().getId("a0"))[complement.getGraph().getId("a3")]);
+    }
+
+    @Test
+    public void testCompleteGraphHasEmptyComplement() throws Exception
+    {
+        Graph g = Graph.readUndirectedUnweightedGraph(new FileInputStream("datafiles/completeGraph.txt"));
+        ComplementGraph complement = new ComplementGraph(g.freeze());
+        assertEquals(0, complement.getNumEdges());
+        assertEquals(g.getAllNodes().size(), complement.getNumComponents());
+        assertEquals(0, complement.materialize().getNumEdges());
+    }
+}
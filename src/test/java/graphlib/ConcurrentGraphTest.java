@@ -0,0 +1,196 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentGraphTest
+{
+    private static Map<String, Double> edges(ConcurrentGraph.Snapshot snapshot, String name)
+    {
+        Map<String, Double> edges = new HashMap<>();
+        int u = snapshot.getId(name);
+        for (int i = 0; i < snapshot.getDegree(u); i++)
+        {
+            edges.put(snapshot.getName(snapshot.getTarget(u, i)), snapshot.getWeight(u, i));
+        }
+        return edges;
+    }
+
+    @Test
+    public void testSnapshotIsolation()
+    {
+        ConcurrentGraph g = new ConcurrentGraph();
+        g.addDirectedEdge("A", "B", 2.0);
+        g.addUndirectedEdge("B", "C", 3.0);
+        ConcurrentGraph.Snapshot before = g.snapshot();
+
+        g.addDirectedEdge("A", "B", 5.0);
+        g.addDirectedEdge("A", "D", 1.0);
+        for (int i = 0; i < 20; i++)
+        {
+            g.addUnweightedDirectedEdge("A", "n" + i);
+        }
+        ConcurrentGraph.Snapshot after = g.snapshot();
+        g.addDirectedEdge("A", "E", 1.0);
+
+        assertEquals(3, before.getNumNodes());
+        assertEquals(Map.of("B", 2.0), edges(before, "A"));
+        assertFalse(before.containsNode("D"));
+        assertThrows(IllegalArgumentException.class, () -> before.getId("D"));
+        assertEquals(3, before.getNumEdges());
+        assertEquals(22, edges(after, "A").size());
+        assertEquals(5.0, (double) edges(after, "A").get("B"));
+        assertFalse(edges(after, "A").containsKey("E"));
+        assertEquals(Map.of("B", 3.0), edges(after, "C"));
+
+        List<String> visited = new ArrayList<>();
+        before.bfs("A", node -> visited.add(before.getName(node)));
+        assertEquals(List.of("A", "B", "C"), visited);
+        before.close();
+        after.close();
+
+        FrozenGraph frozen = g.freeze();
+        assertEquals(g.getNumNodes(), frozen.getNumNodes());
+        assertEquals(25, frozen.getNumEdges());
+        assertEquals(5.0, frozen.shortestPath("A", "B").getDistance());
+    }
+
+    @Test
+    public void testVersionsAreKeptForOpenSnapshotsOnly()
+    {
+        ConcurrentGraph g = new ConcurrentGraph();
+        ConcurrentGraph.Snapshot[] snapshots = new ConcurrentGraph.Snapshot[10];
+        for (int i = 0; i < snapshots.length; i++)
+        {
+            g.addUnweightedDirectedEdge("hub", "n" + i);
+            snapshots[i] = g.snapshot();
+        }
+        snapshots[3].close();
+        g.addUnweightedDirectedEdge("hub", "last");
+        for (int i = 0; i < snapshots.length; i++)
+        {
+            if (i != 3)
+            {
+                assertEquals(i + 1, snapshots[i].getDegree(snapshots[i].getId("hub")));
+                snapshots[i].close();
+            }
+        }
+        try (ConcurrentGraph.Snapshot snapshot = g.snapshot())
+        {
+            assertEquals(11, snapshot.getDegree(snapshot.getId("hub")));
+        }
+    }
+
+    @Test
+    public void testConcurrentWritersAndReaders() throws Exception
+    {
+        int writers = 4;
+        int readers = 2;
+        int edgesPerWriter = 20000;
+        int n = 2000;
+        ConcurrentGraph g = new ConcurrentGraph();
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        AtomicBoolean done = new AtomicBoolean();
+        List<Future<?>> writes = new ArrayList<>();
+        for (int w = 0; w < writers; w++)
+        {
+            long seed = w;
+            writes.add(executor.submit(() ->
+            {
+                Random random = new Random(seed);
+                for (int k = 0; k < edgesPerWriter; k++)
+                {
+                    g.addUnweightedUndirectedEdge("n" + random.nextInt(n), "n" + random.nextInt(n));
+                }
+            }));
+        }
+        List<Future<Integer>> reads = new ArrayList<>();
+        for (int r = 0; r < readers; r++)
+        {
+            reads.add(executor.submit(() ->
+            {
+                int checked = 0;
+                long lastEdges = 0;
+                while (!done.get() || checked == 0)
+                {
+                    try (ConcurrentGraph.Snapshot snapshot = g.snapshot())
+                    {
+                        // undirected edges appear in both directions or not at all
+                        long edges = 0;
+                        for (int u = 0; u < snapshot.getNumNodes(); u++)
+                        {
+                            for (int i = 0; i < snapshot.getDegree(u); i++)
+                            {
+                                int v = snapshot.getTarget(u, i);
+                                assertTrue(v < snapshot.getNumNodes());
+                                boolean back = false;
+                                for (int j = 0; j < snapshot.getDegree(v) && !back; j++)
+                                {
+                                    back = snapshot.getTarget(v, j) == u;
+                                }
+                                assertTrue(back);
+                                edges++;
+                            }
+                        }
+                        assertEquals(edges, snapshot.getNumEdges());
+                        assertTrue(edges >= lastEdges);
+                        lastEdges = edges;
+                        checked++;
+                    }
+                }
+                return checked;
+            }));
+        }
+        for (Future<?> write : writes)
+        {
+            write.get();
+        }
+        done.set(true);
+        for (Future<Integer> read : reads)
+        {
+            assertTrue(read.get() > 0);
+        }
+        executor.shutdown();
+
+        // the same edges added sequentially
+        Set<String> expected = new HashSet<>();
+        for (int w = 0; w < writers; w++)
+        {
+            Random random = new Random(w);
+            for (int k = 0; k < edgesPerWriter; k++)
+            {
+                String a = "n" + random.nextInt(n);
+                String b = "n" + random.nextInt(n);
+                expected.add(a + " " + b);
+                expected.add(b + " " + a);
+            }
+        }
+        FrozenGraph frozen = g.freeze();
+        Set<String> actual = new HashSet<>();
+        for (int u = 0; u < frozen.getNumNodes(); u++)
+        {
+            for (int e = frozen.edgeStart(u); e < frozen.edgeEnd(u); e++)
+            {
+                actual.add(frozen.getName(u) + " " + frozen.getName(frozen.getTarget(e)));
+            }
+        }
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), frozen.getNumEdges());
+    }
+}
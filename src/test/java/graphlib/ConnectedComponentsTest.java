@@ -0,0 +1,88 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.FileInputStream;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+public class ConnectedComponentsTest
+{
+    // labels from a sequential search that follows edges both ways
+    private static int[] expectedLabels(FrozenGraph graph)
+    {
+        FrozenGraph reverse = graph.transpose();
+        int[] labels = new int[graph.getNumNodes()];
+        Arrays.fill(labels, -1);
+        IntStack stack = new IntStack();
+        int next = 0;
+        for (int s = 0; s < graph.getNumNodes(); s++)
+        {
+            if (labels[s] >= 0) continue;
+            labels[s] = next;
+            stack.push(s);
+            while (!stack.isEmpty())
+            {
+                int u = stack.pop();
+                for (FrozenGraph g : new FrozenGraph[] {graph, reverse})
+                {
+                    for (int e = g.edgeStart(u); e < g.edgeEnd(u); e++)
+                    {
+                        int v = g.getTarget(e);
+                        if (labels[v] < 0)
+                        {
+                            labels[v] = next;
+                            stack.push(v);
+                        }
+                    }
+                }
+            }
+            next++;
+        }
+        return labels;
+    }
+
+    @Test
+    public void testMatchesSequentialSearch()
+    {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int edges : new int[] {2000, 6000, 30000})
+        {
+            FrozenGraph undirected = TestGraphs.random(10000, edges, false, TestGraphs.UNWEIGHTED, edges).freeze();
+            FrozenGraph directed = TestGraphs.random(10000, edges, true, TestGraphs.UNWEIGHTED, edges).freeze();
+            assertEquals(Arrays.toString(expectedLabels(undirected)),
+                Arrays.toString(ConnectedComponents.compute(undirected, true, pool).getLabels()));
+            assertEquals(Arrays.toString(expectedLabels(undirected)),
+                Arrays.toString(ConnectedComponents.compute(undirected, false, pool).getLabels()));
+            assertEquals(Arrays.toString(expectedLabels(directed)),
+                Arrays.toString(ConnectedComponents.compute(directed, false, pool).getLabels()));
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void testSizesAndLargestIsland() throws Exception
+    {
+        for (String file : new String[] {"datafiles/island1.txt", "datafiles/islands2.txt", "datafiles/largestIsland1.txt"})
+        {
+            Graph g = Graph.readIslandFile(new FileInputStream(file));
+            ConnectedComponents components = ConnectedComponents.compute(g.freeze());
+            assertEquals(g.getNumComponents(), components.getNumComponents());
+            assertEquals(g.getLargestIslandSize(), components.getLargestComponentSize());
+            assertEquals(g.getAllNodes().size(), Arrays.stream(components.getSizes()).sum());
+        }
+        Graph g = Graph.readUndirectedUnweightedGraph(new FileInputStream("datafiles/part1.txt"));
+        ConnectedComponents components = ConnectedComponents.compute(g.freeze());
+        assertEquals(2, components.getNumComponents());
+        for (Node node : g.getAllNodes())
+        {
+            int c = components.getComponent(node.getName());
+            assertEquals(c, components.getComponent(components.getGraph().getId(node.getName())));
+        }
+        ConnectedComponents empty = ConnectedComponents.compute(new Graph().freeze());
+        assertEquals(0, empty.getNumComponents());
+        assertEquals(0, empty.getLargestComponentSize());
+    }
+}
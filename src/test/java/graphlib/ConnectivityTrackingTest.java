@@ -0,0 +1,86 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ConnectivityTrackingTest
+{
+    @Test
+    public void testMatchesRecomputation()
+    {
+        Random random = new Random(1);
+        Graph tracked = new Graph();
+        Graph plain = new Graph();
+        tracked.trackConnectivity();
+        for (int i = 0; i < 3000; i++)
+        {
+            String a = String.valueOf(random.nextInt(2000));
+            String b = String.valueOf(random.nextInt(2000));
+            tracked.getOrCreateNode(a).addUnweightedUndirectedEdge(tracked.getOrCreateNode(b));
+            plain.getOrCreateNode(a).addUnweightedUndirectedEdge(plain.getOrCreateNode(b));
+            if (i % 250 == 0)
+            {
+                assertEquals(plain.getNumComponents(), tracked.getNumWeakComponents());
+                ConnectedComponents components = ConnectedComponents.compute(plain.freeze());
+                for (Node node : plain.getAllNodes())
+                {
+                    assertEquals(components.getComponentSize(components.getComponent(node.getName())),
+                        tracked.getComponentSize(node.getName()));
+                    assertEquals(components.getComponent(node.getName()) == components.getComponent(a),
+                        tracked.connected(node.getName(), a));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEnableOnExistingGraph() throws Exception
+    {
+        Graph g = Graph.readUndirectedUnweightedGraph(new FileInputStream("datafiles/part1.txt"));
+        int expected = g.getNumComponents();
+        assertFalse(g.isTrackingConnectivity());
+        g.trackConnectivity();
+        assertTrue(g.isTrackingConnectivity());
+        assertEquals(expected, g.getNumWeakComponents());
+
+        g.getOrCreateNode("lonely");
+        assertEquals(expected + 1, g.getNumWeakComponents());
+        assertEquals(expected + 1, g.getNumComponents());
+        assertEquals(1, g.getComponentSize("lonely"));
+    }
+
+    @Test
+    public void testDirectedEdgesJoinComponents()
+    {
+        Graph g = new Graph();
+        g.trackConnectivity();
+        Node a = g.getOrCreateNode("A");
+        Node b = g.getOrCreateNode("B");
+        Node c = g.getOrCreateNode("C");
+        a.addDirectedEdge(b, 2.0);
+        c.addUnweightedDirectedEdge(b);
+        assertTrue(g.connected("C", "A"));
+        assertEquals(1, g.getNumWeakComponents());
+        // following outgoing edges only, tracking or not
+        assertEquals(2, g.getNumComponents());
+        assertEquals(3, g.getComponentSize("B"));
+        assertThrows(IllegalArgumentException.class, () -> g.connected("A", "X"));
+    }
+
+    @Test
+    public void testRequiresTracking()
+    {
+        Graph g = new Graph();
+        g.getOrCreateNode("A");
+        assertThrows(IllegalStateException.class, () -> g.connected("A", "A"));
+        assertThrows(IllegalStateException.class, () -> g.getComponentSize("A"));
+        assertThrows(IllegalStateException.class, () -> g.getNumWeakComponents());
+    }
+}
@@ -0,0 +1,160 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ContractionHierarchyTest
+{
+    private static void assertValidPath(FrozenGraph graph, ShortestPath path)
+    {
+        List<String> nodes = path.getPath();
+        double length = 0;
+        for (int i = 1; i < nodes.size(); i++)
+        {
+            int u = graph.getId(nodes.get(i - 1));
+            int v = graph.getId(nodes.get(i));
+            double best = Double.POSITIVE_INFINITY;
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++)
+            {
+                if (graph.getTarget(e) == v) best = Math.min(best, graph.getWeight(e));
+            }
+            assertTrue(best < Double.POSITIVE_INFINITY, "no edge " + nodes.get(i - 1) + " -> " + nodes.get(i));
+            length += best;
+        }
+        assertEquals(path.getDistance(), length, 1e-9);
+    }
+
+    @Test
+    public void testScotlandMatchesDijkstra() throws Exception
+    {
+        Graph g = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt"));
+        FrozenGraph f = g.freeze();
+        ContractionHierarchy ch = ContractionHierarchy.build(f);
+        for (Node source : g.getAllNodes())
+        {
+            Map<Node, Double> expected = g.dijkstra(source.getName());
+            for (Node target : g.getAllNodes())
+            {
+                ShortestPath path = ch.shortestPath(source.getName(), target.getName());
+                Double d = expected.get(target);
+                assertEquals(d == null ? Double.POSITIVE_INFINITY : d, path.getDistance());
+                if (d != null)
+                {
+                    assertEquals(source.getName(), path.getPath().get(0));
+                    assertEquals(target.getName(), path.getPath().get(path.getPath().size() - 1));
+                    assertValidPath(f, path);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRandomDirectedGraph()
+    {
+        int n = 300;
+        FrozenGraph f = TestGraphs.random(n, 1200, true, random -> 1 + random.nextInt(20), 11).freeze();
+        Random random = new Random(12);
+        ContractionHierarchy ch = ContractionHierarchy.build(f);
+        ContractionHierarchy.Query query = ch.newQuery();
+        DijkstraSearch dijkstra = new DijkstraSearch(f);
+        for (int s = 0; s < n; s += 7)
+        {
+            dijkstra.run(s);
+            for (int t = 0; t < n; t++)
+            {
+                assertEquals(dijkstra.getDistance(t), query.distance(s, t));
+            }
+            int t = random.nextInt(n);
+            ShortestPath path = query.shortestPath(f.getName(s), f.getName(t));
+            if (path.isReachable()) assertValidPath(f, path);
+        }
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception
+    {
+        FrozenGraph f = Graph.readDirectedWeightedGraph(new FileInputStream("datafiles/graph2.txt")).freeze();
+        ContractionHierarchy ch = ContractionHierarchy.build(f);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ch.write(out);
+        ContractionHierarchy loaded = ContractionHierarchy.read(new ByteArrayInputStream(out.toByteArray()), f);
+        assertEquals(ch.getNumEdges(), loaded.getNumEdges());
+        assertEquals(List.of("A", "B", "C", "D"), loaded.shortestPath("A", "D").getPath());
+        assertEquals(8.0, loaded.shortestPath("A", "D").getDistance());
+        assertFalse(loaded.shortestPath("D", "A").isReachable());
+
+        FrozenGraph other = Graph.readDirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt")).freeze();
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(new ByteArrayInputStream(out.toByteArray()), other));
+    }
+
+    @Test
+    public void testReadRejectsOtherGraphsAndCorruptInput() throws Exception
+    {
+        Graph g = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt"));
+        FrozenGraph f = g.freeze();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ContractionHierarchy.build(f).write(out);
+        byte[] bytes = out.toByteArray();
+        assertEquals(f.getNumEdges(), ContractionHierarchy.read(new ByteArrayInputStream(bytes), f).getGraph().getNumEdges());
+
+        // same nodes and edges, one weight changed
+        Node node = g.getAllNodes().iterator().next();
+        Node neighbor = node.getNeighbors().iterator().next();
+        node.addDirectedEdge(neighbor, node.getWeight(neighbor) + 1);
+        FrozenGraph changed = g.freeze();
+        assertEquals(f.getNumEdges(), changed.getNumEdges());
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(new ByteArrayInputStream(bytes), changed));
+
+        // header: magic, version, nodes, graph edges, checksum, edges; then ranks, then edges
+        // of source, target, weight, first and second
+        int n = f.getNumNodes();
+        int ranks = 28;
+        int edges = ranks + 4 * n;
+        assertThrows(IOException.class, () -> read(bytes, f, 24, -1));
+        assertThrows(IOException.class, () -> read(bytes, f, ranks, n));
+        assertThrows(IOException.class, () -> read(bytes, f, ranks + 4, ByteBuffer.wrap(bytes).getInt(ranks)));
+        assertThrows(IOException.class, () -> read(bytes, f, edges, -2));
+        assertThrows(IOException.class, () -> read(bytes, f, edges + 4, n));
+        assertThrows(IOException.class, () -> read(bytes, f, edges + 16, 0));
+        assertThrows(IOException.class, () -> read(bytes, f, edges + 20, 1 << 30));
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(new ByteArrayInputStream(bytes, 0, bytes.length - 1), f));
+
+        // a shortcut whose two halves are swapped no longer joins its ends
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int shortcut = edges;
+        while (buffer.getInt(shortcut + 16) < 0)
+        {
+            shortcut += 24;
+        }
+        int at = shortcut;
+        int first = buffer.getInt(at + 16);
+        int second = buffer.getInt(at + 20);
+        assertThrows(IOException.class, () -> read(replace(bytes, at + 16, second), f, at + 20, first));
+    }
+
+    // reads the bytes with the int at position replaced
+    private static ContractionHierarchy read(byte[] bytes, FrozenGraph f, int position, int value) throws IOException
+    {
+        return ContractionHierarchy.read(new ByteArrayInputStream(replace(bytes, position, value)), f);
+    }
+
+    private static byte[] replace(byte[] bytes, int position, int value)
+    {
+        byte[] corrupt = bytes.clone();
+        ByteBuffer.wrap(corrupt).putInt(position, value);
+        return corrupt;
+    }
+}
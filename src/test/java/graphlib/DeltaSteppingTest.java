@@ -0,0 +1,88 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+public class DeltaSteppingTest
+{
+    private static FrozenGraph randomGraph(int n, int m, boolean directed, double maxWeight, long seed)
+    {
+        return TestGraphs.random(n, m, directed, random -> random.nextDouble() * maxWeight, seed).freeze();
+    }
+
+    private static void assertMatchesDijkstra(DeltaStepping search, int... sources)
+    {
+        FrozenGraph graph = search.getGraph();
+        for (int source : sources)
+        {
+            search.run(source);
+            assertEquals(source, search.getSource());
+            assertArrayEquals(graph.dijkstra(graph.getName(source)), search.getDistances());
+        }
+    }
+
+    @Test
+    public void testIdenticalToDijkstra()
+    {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            // large enough for frontiers to be split into parallel chunks
+            FrozenGraph directed = randomGraph(20000, 120000, true, 10.0, 1);
+            FrozenGraph undirected = randomGraph(20000, 60000, false, 1.0, 2);
+            for (FrozenGraph graph : new FrozenGraph[] {directed, undirected})
+            {
+                DeltaStepping search = new DeltaStepping(graph, pool);
+                assertEquals(DeltaStepping.defaultDelta(graph), search.getDelta());
+                assertMatchesDijkstra(search, 0, 17, 19999);
+                for (double delta : new double[] {0.05, 3.0, Double.POSITIVE_INFINITY})
+                {
+                    assertMatchesDijkstra(new DeltaStepping(graph, pool, delta), 5);
+                }
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testWeightedDataFileAndZeroWeights() throws Exception
+    {
+        FrozenGraph graph = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/graph2.txt")).freeze();
+        DeltaStepping search = new DeltaStepping(graph);
+        for (int source = 0; source < graph.getNumNodes(); source++)
+        {
+            assertMatchesDijkstra(search, source);
+        }
+        assertTrue(search.getNumPhases() > 0);
+
+        FrozenGraph zero = randomGraph(500, 2000, true, 0.0, 3);
+        assertEquals(1.0, DeltaStepping.defaultDelta(zero));
+        assertMatchesDijkstra(new DeltaStepping(zero), 0, 1);
+    }
+
+    @Test
+    public void testInvalidArguments()
+    {
+        Graph g = new Graph();
+        g.getOrCreateNode("A").addDirectedEdge(g.getOrCreateNode("B"), -1.0);
+        FrozenGraph negative = g.freeze();
+        assertThrows(IllegalArgumentException.class, () -> new DeltaStepping(negative));
+
+        FrozenGraph graph = randomGraph(10, 20, true, 1000.0, 4);
+        assertThrows(IllegalArgumentException.class, () -> new DeltaStepping(graph, ForkJoinPool.commonPool(), 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new DeltaStepping(graph, ForkJoinPool.commonPool(), 1e-6));
+        DeltaStepping search = new DeltaStepping(graph);
+        assertThrows(IllegalArgumentException.class, () -> search.run(10));
+        assertThrows(IllegalArgumentException.class, () -> search.run("X"));
+    }
+}
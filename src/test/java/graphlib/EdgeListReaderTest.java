@@ -0,0 +1,120 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+public class EdgeListReaderTest
+{
+    private static EdgeListReader reader(String text)
+    {
+        return new EdgeListReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testTokens()
+    {
+        EdgeListReader reader = reader("  A\tBB \r\n\n  CCC");
+        assertEquals("A", reader.nextString());
+        assertEquals("BB", reader.nextString());
+        assertTrue(reader.hasNext());
+        assertEquals("CCC", reader.nextString());
+        assertFalse(reader.hasNext());
+        assertThrows(NoSuchElementException.class, () -> reader.next());
+    }
+
+    @Test
+    public void testNumbers()
+    {
+        String[] doubles = {"0", "-0", "1", "1000", "3.25", "-2.5", ".5", "5.", "0.1", "0.3",
+            "123456789.123456789", "1e3", "-1.5E-7", "9007199254740993", "0.000000000000000000000001"};
+        EdgeListReader reader = reader(String.join(" ", doubles));
+        for (String d : doubles)
+        {
+            assertEquals(Double.parseDouble(d), reader.nextDouble(), d);
+        }
+
+        EdgeListReader ints = reader("0 42 -7 +3 2147483647 -2147483648 2147483648 x");
+        assertEquals(0, ints.nextInt());
+        assertEquals(42, ints.nextInt());
+        assertEquals(-7, ints.nextInt());
+        assertEquals(3, ints.nextInt());
+        assertEquals(Integer.MAX_VALUE, ints.nextInt());
+        assertEquals(Integer.MIN_VALUE, ints.nextInt());
+        assertThrows(InputMismatchException.class, () -> ints.nextInt());
+        assertThrows(InputMismatchException.class, () -> ints.nextDouble());
+    }
+
+    @Test
+    public void testNodesAreInterned()
+    {
+        Graph g = new Graph();
+        EdgeListReader reader = reader("\u00c4pfel B \u00c4pfel");
+        Node a = reader.nextNode(g);
+        Node b = reader.nextNode(g);
+        assertSame(a, reader.nextNode(g));
+        assertEquals("\u00c4pfel", a.getName());
+        assertSame(b, g.getOrCreateNode("B"));
+    }
+
+    @Test
+    public void testManyNamesAndLongTokens()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+        {
+            sb.append("node").append(i).append(' ').append("node").append(i + 1).append(" 1.5\n");
+        }
+        // a token longer than the initial token buffer, straddling buffer refills
+        sb.append("x".repeat(100000)).append(" y 2\n");
+        Graph g = Graph.readDirectedWeightedGraph(new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        assertEquals(5003, g.getAllNodes().size());
+        assertEquals(1.5, g.getOrCreateNode("node17").getWeight(g.getOrCreateNode("node18")));
+        assertTrue(g.containsNode("x".repeat(100000)));
+    }
+
+    @Test
+    public void testChannel() throws Exception
+    {
+        EdgeListReader reader = new EdgeListReader(Channels.newChannel(new FileInputStream("datafiles/graph2.txt")));
+        Graph g = new Graph();
+        int edges = 0;
+        while (reader.hasNext())
+        {
+            reader.nextNode(g).addDirectedEdge(reader.nextNode(g), reader.nextDouble());
+            edges++;
+        }
+        reader.close();
+        assertEquals(5, edges);
+        assertEquals(4.0, g.getOrCreateNode("B").getWeight(g.getOrCreateNode("C")));
+    }
+
+    @Test
+    public void testRejectsNonBlockingChannel() throws Exception
+    {
+        Pipe pipe = Pipe.open();
+        pipe.source().configureBlocking(false);
+        assertThrows(IllegalArgumentException.class, () -> new EdgeListReader(pipe.source()));
+        pipe.source().close();
+        pipe.sink().close();
+    }
+
+    @Test
+    public void testShortMatrixRow()
+    {
+        assertThrows(InputMismatchException.class,
+            () -> Graph.readMatrix(new ByteArrayInputStream("2 3\n101\n10\n".getBytes(StandardCharsets.US_ASCII))));
+    }
+}
@@ -0,0 +1,96 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class FrozenGraphTest
+{
+    @Test
+    public void testStructureMatchesGraph() throws Exception
+    {
+        Graph g = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/graph2.txt"));
+        FrozenGraph f = g.freeze();
+        assertEquals(g.getAllNodes().size(), f.getNumNodes());
+        for (Node node : g.getAllNodes())
+        {
+            int id = f.getId(node.getName());
+            assertEquals(node.getName(), f.getName(id));
+            assertEquals(node.getNeighbors().size(), f.getDegree(id));
+            for (int e = f.edgeStart(id); e < f.edgeEnd(id); e++)
+            {
+                Node neighbor = g.getOrCreateNode(f.getName(f.getTarget(e)));
+                assertTrue(node.hasEdge(neighbor));
+                assertEquals(node.getWeight(neighbor), f.getWeight(e));
+            }
+        }
+    }
+
+    @Test
+    public void testBfsAndDfsVisitSameNodes() throws Exception
+    {
+        Graph g = Graph.readUndirectedUnweightedGraph(new FileInputStream("datafiles/graph3.txt"));
+        FrozenGraph f = g.freeze();
+        Set<String> expected = new HashSet<>();
+        g.bfs("A", node -> expected.add(node.getName()));
+
+        Set<String> bfs = new HashSet<>();
+        f.bfs("A", node -> bfs.add(f.getName(node)));
+        Set<String> dfs = new HashSet<>();
+        f.dfs("A", node -> dfs.add(f.getName(node)));
+        assertEquals(expected, bfs);
+        assertEquals(expected, dfs);
+    }
+
+    @Test
+    public void testDijkstra() throws Exception
+    {
+        Graph g = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt"));
+        FrozenGraph f = g.freeze();
+        Map<Node, Double> expected = g.dijkstra("1");
+        double[] distances = f.dijkstra("1");
+        for (Node node : g.getAllNodes())
+        {
+            Double d = expected.get(node);
+            assertEquals(d == null ? Double.POSITIVE_INFINITY : d, distances[f.getId(node.getName())]);
+        }
+    }
+
+    @Test
+    public void testComponents() throws Exception
+    {
+        Graph g = Graph.readUndirectedUnweightedGraph(new FileInputStream("datafiles/part1.txt"));
+        assertEquals(g.getNumComponents(), g.freeze().getNumComponents());
+        assertEquals(0, new Graph().freeze().getNumComponents());
+    }
+
+    @Test
+    public void testReachability() throws Exception
+    {
+        Graph g = Graph.readDirectedUnweightedGraph(new FileInputStream("datafiles/reachabilityComplex.txt"));
+        FrozenGraph f = g.freeze();
+        Map<String, Set<String>> expected = g.computeReachability();
+        BitSet[] reachable = f.computeReachability();
+        for (int i = 0; i < f.getNumNodes(); i++)
+        {
+            Set<String> names = new HashSet<>();
+            reachable[i].stream().forEach(j -> names.add(f.getName(j)));
+            assertEquals(expected.get(f.getName(i)), names);
+        }
+    }
+
+    @Test
+    public void testUnknownNode()
+    {
+        FrozenGraph f = new Graph().freeze();
+        assertThrows(IllegalArgumentException.class, () -> f.bfs("X", node -> {}));
+    }
+}
@@ -0,0 +1,113 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+public class GraphFileTest
+{
+    private static void assertSameGraph(FrozenGraph expected, FrozenGraph actual)
+    {
+        assertEquals(expected.getNumNodes(), actual.getNumNodes());
+        assertEquals(expected.getNumEdges(), actual.getNumEdges());
+        for (int i = 0; i < expected.getNumNodes(); i++)
+        {
+            String name = expected.getName(i);
+            assertEquals(name, actual.getName(i));
+            assertEquals(i, actual.getId(name));
+            assertEquals(expected.edgeStart(i), actual.edgeStart(i));
+            assertEquals(expected.edgeEnd(i), actual.edgeEnd(i));
+        }
+        for (int e = 0; e < expected.getNumEdges(); e++)
+        {
+            assertEquals(expected.getTarget(e), actual.getTarget(e));
+            assertEquals(expected.getWeight(e), actual.getWeight(e));
+        }
+    }
+
+    private static FrozenGraph roundTrip(FrozenGraph graph) throws IOException
+    {
+        Path path = Files.createTempFile("graph", ".bin");
+        try
+        {
+            GraphFile.write(graph, path);
+            return GraphFile.open(path, true);
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testRoundTripDataFiles() throws Exception
+    {
+        String[] unweighted = {"graph1", "graph3", "graph4", "graph5", "component1", "completeGraph",
+            "originalGraph", "part1", "reachabilityComplex", "reachabilityCycle", "singleEdgeGraph"};
+        for (String file : unweighted)
+        {
+            FrozenGraph graph = Graph.readDirectedUnweightedGraph(new FileInputStream("datafiles/" + file + ".txt")).freeze();
+            assertSameGraph(graph, roundTrip(graph));
+        }
+        String[] islands = {"island1", "islands2", "largestIsland1", "complexGraph", "allWater"};
+        for (String file : islands)
+        {
+            FrozenGraph graph = Graph.readIslandFile(new FileInputStream("datafiles/" + file + ".txt")).freeze();
+            assertSameGraph(graph, roundTrip(graph));
+        }
+    }
+
+    @Test
+    public void testMappedGraphAlgorithms() throws Exception
+    {
+        FrozenGraph graph = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt")).freeze();
+        FrozenGraph mapped = roundTrip(graph);
+        assertSameGraph(graph, mapped);
+        assertArrayEquals(graph.dijkstra("1"), mapped.dijkstra("1"));
+        assertEquals(graph.getNumComponents(), mapped.getNumComponents());
+        assertFalse(mapped.containsNode("no such node"));
+    }
+
+    @Test
+    public void testEmptyGraph() throws Exception
+    {
+        FrozenGraph mapped = roundTrip(new Graph().freeze());
+        assertEquals(0, mapped.getNumNodes());
+        assertFalse(mapped.containsNode("A"));
+    }
+
+    @Test
+    public void testCorruptionIsDetected() throws Exception
+    {
+        FrozenGraph graph = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/graph2.txt")).freeze();
+        Path path = Files.createTempFile("graph", ".bin");
+        try
+        {
+            GraphFile.write(graph, path);
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw"))
+            {
+                file.seek(file.length() - 1);
+                file.write(0x55);
+            }
+            // without verification the file still opens
+            GraphFile.open(path);
+            assertThrows(IOException.class, () -> GraphFile.open(path, true));
+
+            Files.write(path, "A B 1\n".getBytes());
+            assertThrows(IOException.class, () -> GraphFile.open(path));
+        }
+        finally
+        {
+            Files.delete(path);
+        }
+    }
+}
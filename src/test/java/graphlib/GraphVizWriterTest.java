@@ -0,0 +1,172 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class GraphVizWriterTest
+{
+    // the edge lines of a document, with the ends of undirected edges in name order
+    private static Set<String> edgeLines(String document)
+    {
+        Set<String> lines = new HashSet<>();
+        for (String line : document.split("\n"))
+        {
+            int dash = line.indexOf(" -- ");
+            if (dash >= 0)
+            {
+                String a = line.substring(2, dash);
+                int end = dash + 4;
+                while (line.charAt(end) != ' ' && line.charAt(end) != ';')
+                {
+                    end++;
+                }
+                String b = line.substring(dash + 4, end);
+                line = "  " + (a.compareTo(b) < 0 ? a + " -- " + b : b + " -- " + a) + line.substring(end);
+            }
+            if (line.contains(" -- ") || line.contains(" -> "))
+            {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static Set<String> positionLines(String document)
+    {
+        Set<String> lines = new HashSet<>();
+        for (String line : document.split("\n"))
+        {
+            if (line.contains("pos=")) lines.add(line);
+        }
+        return lines;
+    }
+
+    private static String write(GraphVizWriter writer, Graph graph) throws Exception
+    {
+        StringBuilder sb = new StringBuilder();
+        writer.write(graph, sb);
+        return sb.toString();
+    }
+
+    @Test
+    public void testMatchesToGraphViz() throws Exception
+    {
+        Graph weighted = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/graph2.txt"));
+        Graph unweighted = Graph.readUndirectedUnweightedGraph(new FileInputStream("datafiles/graph3.txt"));
+        Graph directed = Graph.readDirectedUnweightedGraph(new FileInputStream("datafiles/graph1.txt"));
+
+        String undirectedWeighted = write(new GraphVizWriter(false, true), weighted);
+        assertTrue(undirectedWeighted.startsWith("graph G {\n") && undirectedWeighted.endsWith("}\n"));
+        assertEquals(edgeLines(weighted.toUndirectedWeightedGraphViz()), edgeLines(undirectedWeighted));
+        assertEquals(edgeLines(unweighted.toUndirectedUnweightedGraphViz()),
+            edgeLines(write(new GraphVizWriter(false, false), unweighted)));
+        assertEquals(weighted.toDirectedWeightedGraphViz(), write(new GraphVizWriter(true, true), weighted));
+        assertEquals(directed.toDirectedUnweightedGraphViz(), write(new GraphVizWriter(true, false), directed));
+
+        FrozenGraph frozen = weighted.freeze();
+        StringBuilder sb = new StringBuilder();
+        assertEquals(edgeLines(undirectedWeighted).size(), new GraphVizWriter(false, true).write(frozen, sb));
+        assertEquals(edgeLines(undirectedWeighted), edgeLines(sb.toString()));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new GraphVizWriter(true, true).writeUtf8(weighted, bytes);
+        assertEquals(weighted.toDirectedWeightedGraphViz(), bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNumberFormatting()
+    {
+        Random random = new Random(1);
+        double[] values = new double[2000];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = i < 1000 ? (random.nextInt(20001) - 10000) / 100.0 : random.nextGaussian() * 1e6;
+        }
+        for (double value : values)
+        {
+            StringBuilder sb = new StringBuilder();
+            GraphVizWriter.appendOneDecimal(sb, value);
+            assertEquals(String.format("%.1f", value), sb.toString());
+        }
+        // sums of weights that land just below a half in binary but not in decimal
+        for (int i = 0; i < 20000; i++)
+        {
+            double value = random.nextInt(100) * 0.15 + random.nextInt(1000) * 0.01;
+            StringBuilder sb = new StringBuilder();
+            GraphVizWriter.appendOneDecimal(sb, value);
+            assertEquals(String.format("%.1f", value), sb.toString());
+        }
+        for (double value : new double[] {0.0, -0.0, 0.05, -0.04, 1e20, Double.NaN, 3 * 0.15, 997.8499999999999, -3 * 0.15, 5e9 + 0.25})
+        {
+            StringBuilder sb = new StringBuilder();
+            GraphVizWriter.appendOneDecimal(sb, value);
+            assertEquals(String.format("%.1f", value), sb.toString());
+        }
+
+        StringBuilder sb = new StringBuilder();
+        GraphVizWriter.appendId(sb, "New York");
+        sb.append(' ');
+        GraphVizWriter.appendId(sb, "a\"b");
+        sb.append(' ');
+        GraphVizWriter.appendId(sb, "1a");
+        sb.append(' ');
+        GraphVizWriter.appendId(sb, "x_1");
+        assertEquals("\"New York\" \"a\\\"b\" \"1a\" x_1", sb.toString());
+    }
+
+    @Test
+    public void testPositions() throws Exception
+    {
+        Graph g = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt"));
+        g.readCoordinates(new FileInputStream("datafiles/scotlandloc.txt"));
+        GraphVizWriter writer = new GraphVizWriter(false, true);
+        writer.setPositions(true);
+        String document = write(writer, g);
+        assertTrue(document.contains("\n  1 [pos=\"143,45!\"];\n"));
+        assertTrue(document.contains("\n  3 [pos=\"406,40!\"];\n"));
+
+        StringBuilder sb = new StringBuilder();
+        writer.write(g.freeze(), sb);
+        assertEquals(positionLines(document), positionLines(sb.toString()));
+        assertEquals(edgeLines(document), edgeLines(sb.toString()));
+    }
+
+    @Test
+    public void testFilterSampleAndLimit() throws Exception
+    {
+        Graph g = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt"));
+        int all = edgeLines(g.toUndirectedWeightedGraphViz()).size();
+
+        GraphVizWriter writer = new GraphVizWriter(false, true);
+        writer.setEdgeFilter((from, to, weight) -> weight < 1000);
+        StringBuilder sb = new StringBuilder();
+        long filtered = writer.write(g, sb);
+        assertTrue(filtered < all);
+        assertTrue(!sb.toString().contains("label=\"1000.0\""));
+
+        writer = new GraphVizWriter(false, true);
+        writer.setSampleRate(0.5, 42);
+        String sample = write(writer, g);
+        assertEquals(sample, write(writer, g));
+        int sampled = edgeLines(sample).size();
+        assertTrue(sampled > 0 && sampled < all);
+        writer.setSampleRate(0.0, 42);
+        assertEquals(0, writer.write(g, new StringBuilder()));
+        assertThrows(IllegalArgumentException.class, () -> new GraphVizWriter(true, true).setSampleRate(1.5, 0));
+
+        writer = new GraphVizWriter(true, false);
+        writer.setMaxEdges(3);
+        assertEquals(3, edgeLines(write(writer, g)).size());
+        assertEquals(3, writer.write(g.freeze(), new StringBuilder()));
+    }
+}
@@ -0,0 +1,193 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+public class GridIslandsTest
+{
+    private static final String[] FIXTURES = {"island1.txt", "islands2.txt", "largestIsland1.txt", "allWater.txt",
+        "singleIsland.txt", "disconnectedIslands.txt", "complexGraph.txt"};
+
+    private static String randomMask(int rows, int cols, double land, long seed)
+    {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder();
+        sb.append(rows).append(' ').append(cols).append('\n');
+        for (int i = 0; i < rows; i++)
+        {
+            for (int j = 0; j < cols; j++)
+            {
+                sb.append(random.nextDouble() < land ? '1' : '0');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static long[] islandSizes(Graph graph)
+    {
+        Set<Node> visited = new HashSet<>();
+        List<Long> sizes = new ArrayList<>();
+        for (Node node : graph.getAllNodes())
+        {
+            if (visited.contains(node)) continue;
+            long[] size = {0};
+            graph.dfs(node.getName(), n ->
+            {
+                visited.add(n);
+                size[0]++;
+            });
+            sizes.add(size[0]);
+        }
+        return sizes.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    @Test
+    public void testFixturesMatchGraph() throws Exception
+    {
+        for (String fixture : FIXTURES)
+        {
+            Graph g = Graph.readIslandFile(new FileInputStream("datafiles/" + fixture));
+            GridIslands islands = GridIslands.label(BitGrid.read(new FileInputStream("datafiles/" + fixture)));
+            assertEquals(g.getLargestIslandSize(), islands.getLargestIslandSize(), fixture);
+            assertEquals(g.getNumComponents(), islands.getNumIslands(), fixture);
+        }
+    }
+
+    @Test
+    public void testRandomMasksMatchGraph()
+    {
+        // widths around a word boundary
+        for (int cols : new int[] {1, 63, 64, 65, 130})
+        {
+            for (double land : new double[] {0.3, 0.5, 0.7})
+            {
+                String mask = randomMask(40, cols, land, cols);
+                byte[] bytes = mask.getBytes(StandardCharsets.US_ASCII);
+                Graph g = Graph.readIslandFile(new ByteArrayInputStream(bytes));
+                GridIslands islands = GridIslands.label(BitGrid.read(new ByteArrayInputStream(bytes)));
+                long[] sizes = islands.getIslandSizes();
+                Arrays.sort(sizes);
+                assertArrayEquals(islandSizes(g), sizes);
+            }
+        }
+    }
+
+    @Test
+    public void testBitGrid()
+    {
+        int[][] matrix = new int[3][140];
+        matrix[0][0] = 1;
+        matrix[1][63] = 1;
+        matrix[1][64] = 1;
+        matrix[2][139] = 1;
+        BitGrid grid = BitGrid.fromMatrix(matrix);
+        assertEquals(4, grid.countLand());
+        assertTrue(grid.get(1, 64));
+        assertFalse(grid.get(1, 65));
+        assertEquals(63, grid.nextLand(1, 0));
+        assertEquals(65, grid.nextWater(1, 63));
+        assertEquals(139, grid.nextLand(2, 5));
+        assertEquals(140, grid.nextWater(2, 139));
+        assertEquals(140, grid.nextLand(0, 1));
+        grid.set(0, 0, false);
+        assertEquals(0, grid.nextWater(0, 0));
+
+        // (1, 63) touches (0, 62) diagonally, but (0, 0) is alone
+        grid.set(0, 0, true);
+        grid.set(0, 62, true);
+        GridIslands islands = GridIslands.label(grid);
+        assertEquals(3, islands.getNumIslands());
+        assertEquals(3, islands.getLargestIslandSize());
+        assertEquals(1, islands.getLargestIsland());
+        assertArrayEquals(new long[] {1, 3, 1}, islands.getIslandSizes());
+    }
+
+    // island of every cell by flood fill, numbered by first cell in row-major order
+    private static int[] floodFill(BitGrid grid)
+    {
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        int[] labels = new int[rows * cols];
+        Arrays.fill(labels, -2);
+        IntStack stack = new IntStack();
+        int next = 0;
+        for (int start = 0; start < rows * cols; start++)
+        {
+            if (labels[start] != -2) continue;
+            if (!grid.get(start / cols, start % cols))
+            {
+                labels[start] = -1;
+                continue;
+            }
+            labels[start] = next;
+            stack.push(start);
+            while (!stack.isEmpty())
+            {
+                int cell = stack.pop();
+                for (int dr = -1; dr <= 1; dr++)
+                {
+                    for (int dc = -1; dc <= 1; dc++)
+                    {
+                        int r = cell / cols + dr;
+                        int c = cell % cols + dc;
+                        if (r < 0 || c < 0 || r >= rows || c >= cols || labels[r * cols + c] != -2) continue;
+                        if (grid.get(r, c))
+                        {
+                            labels[r * cols + c] = next;
+                            stack.push(r * cols + c);
+                        }
+                    }
+                }
+            }
+            next++;
+        }
+        return labels;
+    }
+
+    @Test
+    public void testParallelBandsMatchFloodFill()
+    {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ForkJoinPool single = new ForkJoinPool(1);
+        Random random = new Random(3);
+        // tall enough for several bands, with islands crossing the band borders
+        for (double land : new double[] {0.3, 0.5, 0.65})
+        {
+            BitGrid grid = new BitGrid(700, 90);
+            for (int i = 0; i < grid.getRows(); i++)
+            {
+                for (int j = 0; j < grid.getCols(); j++)
+                {
+                    grid.set(i, j, random.nextDouble() < land);
+                }
+            }
+            int[] expected = floodFill(grid);
+            GridIslands islands = GridIslands.label(grid, pool, true);
+            assertTrue(islands.hasCellLabels());
+            assertArrayEquals(expected, islands.getCellLabels());
+            assertEquals(expected[5 * 90 + 7], islands.getIsland(5, 7));
+            GridIslands sequential = GridIslands.label(grid, single, false);
+            assertArrayEquals(sequential.getIslandSizes(), islands.getIslandSizes());
+            assertThrows(IllegalStateException.class, () -> sequential.getIsland(0, 0));
+        }
+        pool.shutdown();
+        single.shutdown();
+    }
+}
@@ -0,0 +1,143 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class IslandScannerTest
+{
+    private static BitGrid randomGrid(int rows, int cols, double land, long seed)
+    {
+        Random random = new Random(seed);
+        BitGrid grid = new BitGrid(rows, cols);
+        for (int i = 0; i < rows; i++)
+        {
+            for (int j = 0; j < cols; j++)
+            {
+                grid.set(i, j, random.nextDouble() < land);
+            }
+        }
+        return grid;
+    }
+
+    private static String toFile(BitGrid grid)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(grid.getRows()).append(' ').append(grid.getCols()).append('\n');
+        for (int i = 0; i < grid.getRows(); i++)
+        {
+            for (int j = 0; j < grid.getCols(); j++)
+            {
+                sb.append(grid.get(i, j) ? '1' : '0');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    // "area top left bottom right" of every island by flood fill, in row-major order of first cell
+    private static List<String> floodFill(BitGrid grid)
+    {
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        boolean[] seen = new boolean[rows * cols];
+        List<String> islands = new ArrayList<>();
+        IntStack stack = new IntStack();
+        for (int start = 0; start < rows * cols; start++)
+        {
+            if (seen[start] || !grid.get(start / cols, start % cols)) continue;
+            long area = 0;
+            int top = rows, left = cols, bottom = -1, right = -1;
+            seen[start] = true;
+            stack.push(start);
+            while (!stack.isEmpty())
+            {
+                int cell = stack.pop();
+                int r = cell / cols;
+                int c = cell % cols;
+                area++;
+                top = Math.min(top, r);
+                bottom = Math.max(bottom, r);
+                left = Math.min(left, c);
+                right = Math.max(right, c);
+                for (int dr = -1; dr <= 1; dr++)
+                {
+                    for (int dc = -1; dc <= 1; dc++)
+                    {
+                        int nr = r + dr;
+                        int nc = c + dc;
+                        if (nr < 0 || nc < 0 || nr >= rows || nc >= cols) continue;
+                        int next = nr * cols + nc;
+                        if (!seen[next] && grid.get(nr, nc))
+                        {
+                            seen[next] = true;
+                            stack.push(next);
+                        }
+                    }
+                }
+            }
+            islands.add(area + " " + top + " " + left + " " + bottom + " " + right);
+        }
+        return islands;
+    }
+
+    @Test
+    public void testMatchesFloodFill()
+    {
+        for (int cols : new int[] {1, 7, 64, 100})
+        {
+            for (double land : new double[] {0.2, 0.45, 0.7})
+            {
+                BitGrid grid = randomGrid(60, cols, land, cols * 10 + (long) (land * 10));
+                List<String> expected = floodFill(grid);
+                List<String> found = new ArrayList<>();
+                IslandScanner scanner = IslandScanner.scan(
+                    new ByteArrayInputStream(toFile(grid).getBytes(StandardCharsets.US_ASCII)),
+                    (area, top, left, bottom, right) -> found.add(area + " " + top + " " + left + " " + bottom + " " + right));
+                expected.sort(null);
+                found.sort(null);
+                assertEquals(expected, found);
+                assertEquals(expected.size(), scanner.getNumIslands());
+                assertEquals(GridIslands.label(grid).getLargestIslandSize(), scanner.getLargestIslandSize());
+                assertEquals(60, scanner.getRowsScanned());
+                assertTrue(scanner.getMaxOpenIslands() <= cols / 2 + 1);
+            }
+        }
+    }
+
+    @Test
+    public void testIslandsAreReportedWhenTheyClose() throws Exception
+    {
+        BitGrid grid = BitGrid.read(new FileInputStream("datafiles/disconnectedIslands.txt"));
+        List<Integer> reportedAfterRow = new ArrayList<>();
+        IslandScanner[] scanner = new IslandScanner[1];
+        scanner[0] = new IslandScanner(grid.getCols(),
+            (area, top, left, bottom, right) -> reportedAfterRow.add(scanner[0].getRowsScanned()));
+        for (int row = 0; row < grid.getRows(); row++)
+        {
+            scanner[0].addRow(grid, row);
+        }
+        // the two top cells close when the water row arrives; the bottom island at the end
+        assertEquals(2, reportedAfterRow.size());
+        scanner[0].finish();
+        assertEquals(List.of(1, 1, 3), reportedAfterRow);
+        assertEquals(3, scanner[0].getNumIslands());
+        assertEquals(2, scanner[0].getLargestIslandSize());
+    }
+
+    @Test
+    public void testRowWidthMustMatch()
+    {
+        IslandScanner scanner = new IslandScanner(5, null);
+        assertThrows(IllegalArgumentException.class, () -> scanner.addRow(new BitGrid(1, 6), 0));
+    }
+}
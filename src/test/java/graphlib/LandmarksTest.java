@@ -0,0 +1,78 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+public class LandmarksTest
+{
+    @Test
+    public void testScotlandMatchesDijkstra() throws Exception
+    {
+        Graph g = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt"));
+        FrozenGraph f = g.freeze();
+        LandmarkAStar search = new LandmarkAStar(Landmarks.build(f, 8));
+        for (Node source : g.getAllNodes())
+        {
+            Map<Node, Double> expected = g.dijkstra(source.getName());
+            for (Node target : g.getAllNodes())
+            {
+                ShortestPath path = search.shortestPath(source.getName(), target.getName());
+                Double d = expected.get(target);
+                assertEquals(d == null ? Double.POSITIVE_INFINITY : d, path.getDistance());
+            }
+        }
+    }
+
+    @Test
+    public void testBoundsOnDirectedGraph()
+    {
+        FrozenGraph f = TestGraphs.random(400, 1000, true, random -> random.nextDouble() * 10, 3).freeze();
+        DijkstraSearch dijkstra = new DijkstraSearch(f);
+        for (Landmarks.Selection selection : Landmarks.Selection.values())
+        {
+            Landmarks landmarks = Landmarks.build(f, 6, selection, ForkJoinPool.commonPool());
+            assertEquals(6, landmarks.size());
+            LandmarkAStar search = new LandmarkAStar(landmarks);
+            for (int s = 0; s < f.getNumNodes(); s += 13)
+            {
+                dijkstra.run(s);
+                for (int t = 0; t < f.getNumNodes(); t++)
+                {
+                    double d = dijkstra.getDistance(t);
+                    assertTrue(landmarks.lowerBound(s, t) <= d, selection + " lower bound " + s + " " + t);
+                    assertTrue(landmarks.upperBound(s, t) >= d, selection + " upper bound " + s + " " + t);
+                    assertEquals(d, search.distance(s, t));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLandmarkDistancesAndPath() throws Exception
+    {
+        FrozenGraph f = Graph.readDirectedWeightedGraph(new FileInputStream("datafiles/graph2.txt")).freeze();
+        Landmarks landmarks = Landmarks.build(f, 100);
+        assertEquals(f.getNumNodes(), landmarks.size());
+        DijkstraSearch dijkstra = new DijkstraSearch(f);
+        for (int i = 0; i < landmarks.size(); i++)
+        {
+            dijkstra.run(landmarks.getLandmark(i));
+            for (int v = 0; v < f.getNumNodes(); v++)
+            {
+                assertEquals(dijkstra.getDistance(v), landmarks.getDistanceFrom(i, v), 1e-6);
+            }
+        }
+        ShortestPath path = new LandmarkAStar(landmarks).shortestPath("A", "D");
+        assertEquals(List.of("A", "B", "C", "D"), path.getPath());
+        assertEquals(8.0, path.getDistance());
+        assertThrows(IllegalArgumentException.class, () -> Landmarks.build(f, 0));
+    }
+}
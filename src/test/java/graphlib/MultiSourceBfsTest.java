@@ -0,0 +1,83 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.FileInputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class MultiSourceBfsTest
+{
+    private static int[] bfsDepths(FrozenGraph f, int source)
+    {
+        int[] depths = new int[f.getNumNodes()];
+        Arrays.fill(depths, -1);
+        f.bfs(f.getName(source), (int node, int parent, int depth) ->
+        {
+            depths[node] = depth;
+            return TraversalControl.CONTINUE;
+        });
+        return depths;
+    }
+
+    @Test
+    public void testMatchesSingleSourceBfs()
+    {
+        for (boolean directed : new boolean[] {false, true})
+        {
+            FrozenGraph f = TestGraphs.random(2000, 3000, directed, TestGraphs.UNWEIGHTED, directed ? 1 : 2).freeze();
+            Random random = new Random(3);
+            // three batches, the last one partial, with a repeated source
+            int[] sources = new int[150];
+            for (int i = 0; i < sources.length; i++)
+            {
+                sources[i] = random.nextInt(f.getNumNodes());
+            }
+            sources[100] = sources[7];
+            int[][] distances = new MultiSourceBfs(f).distances(sources);
+            for (int i = 0; i < sources.length; i++)
+            {
+                assertArrayEquals(bfsDepths(f, sources[i]), distances[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testPoolAndVisitor() throws Exception
+    {
+        FrozenGraph f = Graph.readUndirectedUnweightedGraph(new FileInputStream("datafiles/graph3.txt")).freeze();
+        String[] names = {"A", "D", "A"};
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try
+        {
+            MultiSourceBfs bfs = new MultiSourceBfs(f, pool);
+            int[][] distances = bfs.distances(names);
+            AtomicInteger visits = new AtomicInteger();
+            bfs.run(names, (source, node, depth) ->
+            {
+                assertEquals(distances[source][node], depth);
+                visits.incrementAndGet();
+            });
+            int reached = 0;
+            for (int[] row : distances)
+            {
+                reached += (int) Arrays.stream(row).filter(d -> d >= 0).count();
+            }
+            assertEquals(reached, visits.get());
+            assertArrayEquals(distances[0], distances[2]);
+            assertEquals(0, distances[1][f.getId("D")]);
+            assertThrows(IllegalArgumentException.class, () -> bfs.distances("A", "X"));
+            assertThrows(IllegalArgumentException.class, () -> bfs.distances(-1));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+}
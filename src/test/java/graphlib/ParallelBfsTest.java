@@ -0,0 +1,116 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+
+public class ParallelBfsTest
+{
+    // depths from a plain sequential BFS
+    private static int[] sequentialDepths(FrozenGraph graph, int source)
+    {
+        int[] depth = new int[graph.getNumNodes()];
+        Arrays.fill(depth, -1);
+        int[] queue = new int[graph.getNumNodes()];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        depth[source] = 0;
+        while (head < tail)
+        {
+            int u = queue[head++];
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++)
+            {
+                int v = graph.getTarget(e);
+                if (depth[v] < 0)
+                {
+                    depth[v] = depth[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return depth;
+    }
+
+    private static void assertValidTree(FrozenGraph graph, ParallelBfs bfs, int source)
+    {
+        int[] expected = sequentialDepths(graph, source);
+        assertEquals(Arrays.toString(expected), Arrays.toString(bfs.getDepths()));
+        for (int v = 0; v < graph.getNumNodes(); v++)
+        {
+            int p = bfs.getParent(v);
+            if (v == source || expected[v] < 0)
+            {
+                assertEquals(-1, p);
+                continue;
+            }
+            assertEquals(expected[v] - 1, expected[p]);
+            boolean hasEdge = false;
+            for (int e = graph.edgeStart(p); e < graph.edgeEnd(p); e++)
+            {
+                hasEdge |= graph.getTarget(e) == v;
+            }
+            assertTrue(hasEdge);
+        }
+    }
+
+    @Test
+    public void testMatchesSequentialBfs() throws Exception
+    {
+        FrozenGraph f = Graph.readUndirectedUnweightedGraph(new FileInputStream("datafiles/scotlandc.txt")).freeze();
+        ParallelBfs bfs = new ParallelBfs(f);
+        for (int source = 0; source < f.getNumNodes(); source++)
+        {
+            bfs.run(source);
+            assertValidTree(f, bfs, source);
+        }
+    }
+
+    @Test
+    public void testSwitchesDirectionOnDenseGraphs()
+    {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (boolean directed : new boolean[] {false, true})
+        {
+            FrozenGraph f = TestGraphs.random(20000, 200000, directed, TestGraphs.UNWEIGHTED, 5).freeze();
+            ParallelBfs bfs = new ParallelBfs(f, pool);
+            bfs.run(0);
+            assertTrue(bfs.getBottomUpLevels() > 0);
+            assertValidTree(f, bfs, 0);
+            // a second run on the same workspace starts clean
+            bfs.run(17);
+            assertValidTree(f, bfs, 17);
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void testVisitorSeesEachNodeOnce()
+    {
+        FrozenGraph f = TestGraphs.random(5000, 40000, true, TestGraphs.UNWEIGHTED, 9).freeze();
+        ParallelBfs bfs = new ParallelBfs(f);
+        AtomicIntegerArray visits = new AtomicIntegerArray(f.getNumNodes());
+        ConcurrentHashMap<Integer, Integer> depths = new ConcurrentHashMap<>();
+        bfs.run(f.getName(3), (node, parent, depth) ->
+        {
+            visits.incrementAndGet(node);
+            depths.put(node, depth);
+        });
+        int visited = 0;
+        for (int v = 0; v < f.getNumNodes(); v++)
+        {
+            assertTrue(visits.get(v) <= 1);
+            visited += visits.get(v);
+            if (visits.get(v) == 1) assertEquals(bfs.getDepth(v), depths.get(v).intValue());
+        }
+        assertEquals(bfs.getVisitedCount(), visited);
+        assertEquals(-1, bfs.getParent(3));
+    }
+}
@@ -0,0 +1,70 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+import org.junit.jupiter.api.Test;
+
+public class ReachabilityIndexTest
+{
+    private static FrozenGraph randomDirectedGraph(int n, int edges, boolean acyclic, long seed)
+    {
+        Graph g = acyclic ? TestGraphs.randomDag(n, edges, seed) : TestGraphs.random(n, edges, true, TestGraphs.UNWEIGHTED, seed);
+        return g.freeze();
+    }
+
+    @Test
+    public void testMatchesClosureOnAllPairs()
+    {
+        for (int edges : new int[] {200, 500, 1000})
+        {
+            for (boolean acyclic : new boolean[] {true, false})
+            {
+                FrozenGraph f = randomDirectedGraph(300, edges, acyclic, edges);
+                TransitiveClosure closure = TransitiveClosure.compute(f);
+                for (int labelings : new int[] {1, 3})
+                {
+                    ReachabilityIndex index = ReachabilityIndex.build(f, labelings);
+                    for (int u = 0; u < f.getNumNodes(); u++)
+                    {
+                        for (int v = 0; v < f.getNumNodes(); v++)
+                        {
+                            assertEquals(closure.isReachable(u, v), index.canReach(u, v));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testChainAndNames()
+    {
+        Graph g = new Graph();
+        int n = 100000;
+        Node previous = g.getOrCreateNode("0");
+        for (int i = 1; i < n; i++)
+        {
+            Node node = g.getOrCreateNode(String.valueOf(i));
+            previous.addUnweightedDirectedEdge(node);
+            previous = node;
+        }
+        ReachabilityIndex index = ReachabilityIndex.build(g.freeze());
+        assertTrue(index.canReach("0", "99999"));
+        assertTrue(index.canReach("500", "500"));
+        assertFalse(index.canReach("99999", "0"));
+        // the labels alone rule out a backward query
+        assertEquals(0, index.getLastVisitedCount());
+        assertTrue(index.getSizeBytes() < 100L * n);
+    }
+
+    @Test
+    public void testNeedsALabeling()
+    {
+        FrozenGraph f = randomDirectedGraph(10, 20, false, 1);
+        assertThrows(IllegalArgumentException.class, () -> ReachabilityIndex.build(f, 0));
+    }
+}
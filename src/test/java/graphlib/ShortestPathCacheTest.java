@@ -0,0 +1,121 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+
+import org.junit.jupiter.api.Test;
+
+public class ShortestPathCacheTest
+{
+    // a weighted path 0 - 1 - ... - (n-1)
+    private static Graph path(int n)
+    {
+        Graph g = new Graph();
+        for (int i = 1; i < n; i++)
+        {
+            g.getOrCreateNode(Integer.toString(i - 1)).addUndirectedEdge(g.getOrCreateNode(Integer.toString(i)), i);
+        }
+        return g;
+    }
+
+    @Test
+    public void testMatchesDijkstra() throws Exception
+    {
+        Graph g = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/graph2.txt"));
+        ShortestPathCache cache = new ShortestPathCache(g, 1 << 20);
+        for (int round = 0; round < 2; round++)
+        {
+            for (Node source : g.getAllNodes())
+            {
+                assertEquals(g.dijkstra(source.getName()), cache.dijkstra(source.getName()));
+                for (Node target : g.getAllNodes())
+                {
+                    Double expected = g.dijkstra(source.getName()).get(target);
+                    assertEquals(expected == null ? Double.POSITIVE_INFINITY : expected,
+                        cache.getDistance(source.getName(), target.getName()));
+                }
+            }
+        }
+        int n = g.getAllNodes().size();
+        assertEquals(n, cache.getMissCount());
+        assertEquals(2L * n * (n + 1) - n, cache.getHitCount());
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(n, cache.size());
+        assertEquals(n * cache.getEntryBytes(), cache.getSizeBytes());
+        assertThrows(IllegalArgumentException.class, () -> cache.getDistance("X", "A"));
+        assertThrows(IllegalArgumentException.class, () -> cache.getDistance("A", "X"));
+        assertThrows(IllegalArgumentException.class, () -> new ShortestPathCache(g, 0));
+    }
+
+    @Test
+    public void testInvalidatedByModification()
+    {
+        Graph g = path(5);
+        ShortestPathCache cache = new ShortestPathCache(g, 1 << 20);
+        assertEquals(1 + 2 + 3 + 4, cache.getDistance("0", "4"));
+        assertTrue(cache.contains("0"));
+
+        long before = g.getModificationCount();
+        g.getOrCreateNode("0").addDirectedEdge(g.getOrCreateNode("4"), 1.0);
+        assertTrue(g.getModificationCount() > before);
+        assertFalse(cache.contains("0"));
+        assertEquals(1.0, cache.getDistance("0", "4"));
+        assertEquals(1, cache.getInvalidationCount());
+        assertEquals(2, cache.getMissCount());
+
+        // a new node alone invalidates too
+        g.getOrCreateNode("isolated");
+        assertEquals(Double.POSITIVE_INFINITY, cache.getDistance("0", "isolated"));
+        assertEquals(2, cache.getInvalidationCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(1.0, cache.getDistance("0", "4"));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testBoundedAndKeepsFrequentSources()
+    {
+        int n = 1000;
+        Graph g = path(n);
+        long entryBytes = 8L * n + 128;
+        ShortestPathCache bounded = new ShortestPathCache(g, 20 * entryBytes);
+        for (int i = 0; i < n; i++)
+        {
+            // a few hot sources among a scan of cold ones
+            bounded.getDistance(Integer.toString(i % 3), "0");
+            bounded.getDistance(Integer.toString(i), "0");
+            assertTrue(bounded.size() <= 20);
+        }
+        assertEquals(entryBytes, bounded.getEntryBytes());
+        assertTrue(bounded.getSizeBytes() <= bounded.getMaxBytes());
+        assertTrue(bounded.getEvictionCount() > 0);
+        for (int hot = 0; hot < 3; hot++)
+        {
+            assertTrue(bounded.contains(Integer.toString(hot)));
+        }
+        assertTrue(bounded.getHitRate() > 0.45);
+    }
+
+    @Test
+    public void testSketchSeparatesNeighbouringKeys()
+    {
+        // "n40".."n44" have consecutive hashes
+        ShortestPathCache.FrequencySketch sketch = new ShortestPathCache.FrequencySketch(1000);
+        for (int i = 0; i < 12; i++)
+        {
+            sketch.increment("n41");
+            sketch.increment("n43");
+            sketch.increment("n44");
+        }
+        assertEquals(12, sketch.frequency("n41"));
+        assertEquals(0, sketch.frequency("n42"));
+        assertEquals(0, sketch.frequency("n40"));
+
+        assertEquals(1 << 30, ShortestPathCache.FrequencySketch.size(Integer.MAX_VALUE / 2));
+        assertEquals(16, ShortestPathCache.FrequencySketch.size(1));
+    }
+}
@@ -0,0 +1,127 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ShortestPathTest
+{
+    private static double pathLength(Graph g, List<String> path)
+    {
+        double length = 0;
+        for (int i = 1; i < path.size(); i++)
+        {
+            Node from = g.getOrCreateNode(path.get(i - 1));
+            Node to = g.getOrCreateNode(path.get(i));
+            assertTrue(from.hasEdge(to));
+            length += from.getWeight(to);
+        }
+        return length;
+    }
+
+    @Test
+    public void testScotlandAllPairs() throws Exception
+    {
+        Graph g = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt"));
+        FrozenGraph f = g.freeze();
+        for (Node source : g.getAllNodes())
+        {
+            Map<Node, Double> expected = g.dijkstra(source.getName());
+            for (Node target : g.getAllNodes())
+            {
+                ShortestPath path = f.shortestPath(source.getName(), target.getName());
+                Double d = expected.get(target);
+                if (d == null)
+                {
+                    assertFalse(path.isReachable());
+                    assertEquals(Double.POSITIVE_INFINITY, path.getDistance());
+                    continue;
+                }
+                assertEquals(d.doubleValue(), path.getDistance());
+                assertEquals(source.getName(), path.getPath().get(0));
+                assertEquals(target.getName(), path.getPath().get(path.getPath().size() - 1));
+                assertEquals(d.doubleValue(), pathLength(g, path.getPath()));
+            }
+        }
+    }
+
+    @Test
+    public void testGraphShortestPath() throws Exception
+    {
+        Graph g = Graph.readDirectedWeightedGraph(new FileInputStream("datafiles/graph2.txt"));
+        ShortestPath path = g.shortestPath("A", "D");
+        assertEquals(List.of("A", "B", "C", "D"), path.getPath());
+        assertEquals(8.0, path.getDistance());
+        assertEquals(path.getDistance(), g.freeze().shortestPath("A", "D").getDistance());
+        assertFalse(g.shortestPath("D", "A").isReachable());
+        assertEquals(List.of("A"), g.shortestPath("A", "A").getPath());
+    }
+
+    @Test
+    public void testUnknownNode() throws Exception
+    {
+        Graph g = Graph.readDirectedWeightedGraph(new FileInputStream("datafiles/graph2.txt"));
+        assertThrows(IllegalArgumentException.class, () -> g.dijkstra("X"));
+        assertThrows(IllegalArgumentException.class, () -> g.shortestPath("A", "X"));
+        assertThrows(IllegalArgumentException.class, () -> g.freeze().shortestPath("X", "A"));
+    }
+
+    @Test
+    public void testSearchIsReusable() throws Exception
+    {
+        FrozenGraph f = Graph.readUndirectedWeightedGraph(new FileInputStream("datafiles/scotlandc.txt")).freeze();
+        DijkstraSearch search = new DijkstraSearch(f);
+        int target = f.getId("100");
+        search.run(f.getId("1"), target);
+        assertTrue(search.isSettled(target));
+        for (int i = 0; i < f.getNumNodes(); i++)
+        {
+            search.run(i);
+            assertArrayEquals(f.dijkstra(f.getName(i)), search.getDistances());
+        }
+    }
+
+    @Test
+    public void testHeapOrder()
+    {
+        Random random = new Random(7);
+        IndexedDaryHeap heap = new IndexedDaryHeap(1000);
+        double[] best = new double[1000];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        PriorityQueue<double[]> reference = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        for (int i = 0; i < 5000; i++)
+        {
+            int node = random.nextInt(1000);
+            double key = random.nextDouble();
+            heap.insertOrDecrease(node, key);
+            if (key < best[node])
+            {
+                best[node] = key;
+                reference.add(new double[] {key, node});
+            }
+        }
+        double last = -1;
+        int popped = 0;
+        while (!heap.isEmpty())
+        {
+            double key = heap.peekMinKey();
+            int node = heap.popMin();
+            assertEquals(best[node], key);
+            assertTrue(key >= last);
+            last = key;
+            popped++;
+        }
+        assertEquals(reference.stream().mapToInt(a -> (int) a[1]).distinct().count(), popped);
+    }
+}
@@ -0,0 +1,65 @@
+package graphlib;
+
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Random graphs for the tests, with nodes named 0..n-1.
+ */
+class TestGraphs
+{
+    static final ToDoubleFunction<Random> UNWEIGHTED = random -> 1.0;
+
+    /**
+     * A graph with n nodes and m edges between uniformly random ends, self-loops and repeats
+     * included. Each edge takes the next weight from <code>weight</code>, after its ends
+     * were drawn from the same random.
+     */
+    static Graph random(int n, int m, boolean directed, ToDoubleFunction<Random> weight, long seed)
+    {
+        Random random = new Random(seed);
+        Graph g = nodes(n);
+        for (int i = 0; i < m; i++)
+        {
+            Node a = g.getOrCreateNode(Integer.toString(random.nextInt(n)));
+            Node b = g.getOrCreateNode(Integer.toString(random.nextInt(n)));
+            if (directed)
+            {
+                a.addDirectedEdge(b, weight.applyAsDouble(random));
+            }
+            else
+            {
+                a.addUndirectedEdge(b, weight.applyAsDouble(random));
+            }
+        }
+        return g;
+    }
+
+    /**
+     * An unweighted directed acyclic graph: of m random pairs, those from a lower to a
+     * higher node become edges.
+     */
+    static Graph randomDag(int n, int m, long seed)
+    {
+        Random random = new Random(seed);
+        Graph g = nodes(n);
+        for (int i = 0; i < m; i++)
+        {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (u >= v) continue;
+            g.getOrCreateNode(Integer.toString(u)).addUnweightedDirectedEdge(g.getOrCreateNode(Integer.toString(v)));
+        }
+        return g;
+    }
+
+    private static Graph nodes(int n)
+    {
+        Graph g = new Graph();
+        for (int i = 0; i < n; i++)
+        {
+            g.getOrCreateNode(Integer.toString(i));
+        }
+        return g;
+    }
+}
@@ -36,4 +36,42 @@ public class TestNode
         assert nodeB.getWeight(nodeA) == 1.0;
     }
 
+    @Test
+    public void testManyNeighbors()
+    {
+        Node node = new Node("A");
+        Node[] neighbors = new Node[100];
+        for (int i = 0; i < neighbors.length; i++)
+        {
+            neighbors[i] = new Node("N" + i);
+            node.addDirectedEdge(neighbors[i], i);
+        }
+        // an existing edge keeps its place and takes the new weight
+        node.addDirectedEdge(neighbors[42], -1.0);
+        assertEquals(100, node.getDegree());
+        assertEquals(100, node.getNeighbors().size());
+        int i = 0;
+        for (Node neighbor : node.getNeighbors())
+        {
+            assertSame(neighbors[i], neighbor);
+            assertTrue(node.hasEdge(neighbor));
+            assertEquals(i == 42 ? -1.0 : i, node.getWeight(neighbor));
+            i++;
+        }
+        Node other = new Node("B");
+        assertFalse(node.hasEdge(other));
+        assertFalse(node.getNeighbors().contains(other));
+        assertFalse(other.hasEdge(node));
+    }
+
+    @Test
+    public void testGetWeightOfNonNeighbor()
+    {
+        Node nodeA = new Node("A");
+        Node nodeB = new Node("B");
+        assertThrows(IllegalArgumentException.class, () -> nodeA.getWeight(nodeB));
+        nodeA.addDirectedEdge(nodeB, 2.0);
+        assertThrows(IllegalArgumentException.class, () -> nodeB.getWeight(nodeA));
+    }
+
 }
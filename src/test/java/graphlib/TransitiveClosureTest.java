@@ -0,0 +1,120 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class TransitiveClosureTest
+{
+    private static BitSet search(FrozenGraph graph, int source)
+    {
+        BitSet seen = new BitSet();
+        IntStack stack = new IntStack();
+        seen.set(source);
+        stack.push(source);
+        while (!stack.isEmpty())
+        {
+            int u = stack.pop();
+            for (int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++)
+            {
+                int v = graph.getTarget(e);
+                if (!seen.get(v))
+                {
+                    seen.set(v);
+                    stack.push(v);
+                }
+            }
+        }
+        return seen;
+    }
+
+    @Test
+    public void testMatchesSearchFromEveryNode()
+    {
+        for (int edges : new int[] {300, 600, 1200})
+        {
+            FrozenGraph f = TestGraphs.random(500, edges, true, TestGraphs.UNWEIGHTED, edges).freeze();
+            TransitiveClosure closure = TransitiveClosure.compute(f);
+            for (int u = 0; u < f.getNumNodes(); u++)
+            {
+                BitSet expected = search(f, u);
+                assertEquals(expected, closure.reachableFrom(u));
+                assertEquals(expected.cardinality(), closure.getReachableCount(u));
+                int v = (u * 31) % f.getNumNodes();
+                assertEquals(expected.get(v), closure.isReachable(u, v));
+            }
+        }
+    }
+
+    @Test
+    public void testComponentsAreInReverseTopologicalOrder()
+    {
+        FrozenGraph f = TestGraphs.random(2000, 2600, true, TestGraphs.UNWEIGHTED, 7).freeze();
+        StronglyConnectedComponents scc = StronglyConnectedComponents.compute(f);
+        int total = 0;
+        for (int c = 0; c < scc.getNumComponents(); c++)
+        {
+            total += scc.getComponentSize(c);
+            for (int i = scc.successorStart(c); i < scc.successorEnd(c); i++)
+            {
+                assertTrue(scc.getSuccessor(i) < c);
+            }
+            // members of one component reach each other
+            int first = scc.getMember(scc.memberStart(c));
+            BitSet reached = search(f, first);
+            for (int i = scc.memberStart(c); i < scc.memberEnd(c); i++)
+            {
+                assertEquals(c, scc.getComponent(scc.getMember(i)));
+                assertTrue(reached.get(scc.getMember(i)));
+                assertTrue(search(f, scc.getMember(i)).get(first));
+            }
+        }
+        assertEquals(f.getNumNodes(), total);
+    }
+
+    @Test
+    public void testLongChainDoesNotOverflow()
+    {
+        Graph g = new Graph();
+        int n = 200000;
+        Node previous = g.getOrCreateNode("0");
+        for (int i = 1; i < n; i++)
+        {
+            Node node = g.getOrCreateNode(String.valueOf(i));
+            previous.addUnweightedDirectedEdge(node);
+            previous = node;
+        }
+        previous.addUnweightedDirectedEdge(g.getOrCreateNode("0"));
+        FrozenGraph f = g.freeze();
+        assertEquals(1, StronglyConnectedComponents.compute(f).getNumComponents());
+        assertEquals(n, TransitiveClosure.compute(f).getReachableCount(f.getId("12345")));
+    }
+
+    @Test
+    public void testMapView()
+    {
+        Graph g = new Graph();
+        Node a = g.getOrCreateNode("A");
+        Node b = g.getOrCreateNode("B");
+        Node c = g.getOrCreateNode("C");
+        a.addUnweightedDirectedEdge(b);
+        b.addUnweightedDirectedEdge(a);
+        b.addUnweightedDirectedEdge(c);
+        Map<String, Set<String>> map = g.computeReachability();
+        assertEquals(3, map.size());
+        assertEquals(Set.of("A", "B", "C"), map.get("B"));
+        assertEquals(Set.of("C"), map.get("C"));
+        assertEquals(new HashSet<>(map.get("A")), map.get("A"));
+        assertTrue(map.get("A").contains("C"));
+        assertTrue(!map.get("C").contains("A"));
+        assertNull(map.get("X"));
+        assertEquals(Set.of("A", "B", "C"), map.keySet());
+    }
+}
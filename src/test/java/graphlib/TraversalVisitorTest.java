@@ -0,0 +1,153 @@
+package graphlib;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class TraversalVisitorTest
+{
+    // a side x side grid, nodes named "row,col"
+    private static Graph grid(int side)
+    {
+        Graph g = new Graph();
+        for (int i = 0; i < side; i++)
+        {
+            for (int j = 0; j < side; j++)
+            {
+                Node node = g.getOrCreateNode(i + "," + j);
+                if (i > 0) node.addUnweightedUndirectedEdge(g.getOrCreateNode((i - 1) + "," + j));
+                if (j > 0) node.addUnweightedUndirectedEdge(g.getOrCreateNode(i + "," + (j - 1)));
+            }
+        }
+        return g;
+    }
+
+    private static int manhattan(String name)
+    {
+        String[] parts = name.split(",");
+        return Integer.parseInt(parts[0]) + Integer.parseInt(parts[1]);
+    }
+
+    @Test
+    public void testBfsWithinHops()
+    {
+        Graph g = grid(20);
+        FrozenGraph f = g.freeze();
+        Set<String> expected = new HashSet<>();
+        for (Node node : g.getAllNodes())
+        {
+            if (manhattan(node.getName()) <= 3) expected.add(node.getName());
+        }
+
+        Set<String> visited = new HashSet<>();
+        assertNull(g.bfs("0,0", (node, parent, depth) ->
+        {
+            assertEquals(manhattan(node.getName()), depth);
+            if (parent == null)
+            {
+                assertEquals(0, depth);
+            }
+            else
+            {
+                assertTrue(parent.hasEdge(node));
+                assertEquals(depth - 1, manhattan(parent.getName()));
+            }
+            visited.add(node.getName());
+            return depth == 3 ? TraversalControl.SKIP_SUBTREE : TraversalControl.CONTINUE;
+        }));
+        assertEquals(expected, visited);
+
+        Set<String> frozenVisited = new HashSet<>();
+        assertEquals(-1, f.bfs("0,0", (int node, int parent, int depth) ->
+        {
+            assertEquals(manhattan(f.getName(node)), depth);
+            assertEquals(depth == 0, parent < 0);
+            frozenVisited.add(f.getName(node));
+            return depth == 3 ? TraversalControl.SKIP_SUBTREE : TraversalControl.CONTINUE;
+        }));
+        assertEquals(expected, frozenVisited);
+    }
+
+    @Test
+    public void testStopAtFirstMatch()
+    {
+        Graph g = grid(50);
+        FrozenGraph f = g.freeze();
+        int[] visits = new int[1];
+        Node found = g.bfs("0,0", (node, parent, depth) ->
+        {
+            visits[0]++;
+            return manhattan(node.getName()) == 5 ? TraversalControl.STOP : TraversalControl.CONTINUE;
+        });
+        assertEquals(5, manhattan(found.getName()));
+        // every node closer than 5, then the first at 5
+        assertEquals(1 + 2 + 3 + 4 + 5 + 1, visits[0]);
+
+        int id = f.dfs("0,0", (int node, int parent, int depth) ->
+            f.getName(node).equals("7,7") ? TraversalControl.STOP : TraversalControl.CONTINUE);
+        assertEquals("7,7", f.getName(id));
+        Node node = g.dfs("0,0", (n, parent, depth) ->
+            n.getName().equals("7,7") ? TraversalControl.STOP : TraversalControl.CONTINUE);
+        assertEquals("7,7", node.getName());
+    }
+
+    @Test
+    public void testDfsMatchesPlainDfs() throws Exception
+    {
+        Graph g = Graph.readUndirectedUnweightedGraph(new FileInputStream("datafiles/graph3.txt"));
+        FrozenGraph f = g.freeze();
+        List<String> expected = new ArrayList<>();
+        g.dfs("A", (NodeVisitor) node -> expected.add(node.getName()));
+        List<String> actual = new ArrayList<>();
+        Map<String, Integer> depths = new HashMap<>();
+        assertNull(g.dfs("A", (node, parent, depth) ->
+        {
+            actual.add(node.getName());
+            depths.put(node.getName(), depth);
+            if (parent != null) assertEquals(depths.get(parent.getName()) + 1, depth);
+            return TraversalControl.CONTINUE;
+        }));
+        assertEquals(expected, actual);
+
+        List<String> frozenExpected = new ArrayList<>();
+        f.dfs("A", (IntNodeVisitor) node -> frozenExpected.add(f.getName(node)));
+        List<String> frozenActual = new ArrayList<>();
+        f.dfs("A", (int node, int parent, int depth) ->
+        {
+            frozenActual.add(f.getName(node));
+            return TraversalControl.CONTINUE;
+        });
+        assertEquals(frozenExpected, frozenActual);
+    }
+
+    @Test
+    public void testSkipPrunesSubtree()
+    {
+        Graph g = new Graph();
+        g.getOrCreateNode("A").addUnweightedDirectedEdge(g.getOrCreateNode("B"));
+        g.getOrCreateNode("B").addUnweightedDirectedEdge(g.getOrCreateNode("C"));
+        g.getOrCreateNode("A").addUnweightedDirectedEdge(g.getOrCreateNode("D"));
+        Set<String> visited = new HashSet<>();
+        g.dfs("A", (node, parent, depth) ->
+        {
+            visited.add(node.getName());
+            return node.getName().equals("B") ? TraversalControl.SKIP_SUBTREE : TraversalControl.CONTINUE;
+        });
+        assertEquals(Set.of("A", "B", "D"), visited);
+        assertThrows(IllegalArgumentException.class,
+            () -> g.bfs("X", (node, parent, depth) -> TraversalControl.CONTINUE));
+        assertThrows(IllegalArgumentException.class,
+            () -> g.freeze().bfs("X", (int node, int parent, int depth) -> TraversalControl.CONTINUE));
+    }
+}